@@ -0,0 +1,69 @@
+package benchmarks;
+
+import models.utils.BoundedLruCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the image cache of {@code AssetLoader}: the weight-bounded, synchronized LRU cache against
+ * the former unbounded {@code HashMap}, with values standing for decoded 128 × 128 portraits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AssetCacheBenchmark {
+
+    private static final long PORTRAIT_BYTES = 128 * 128 * 4;
+    private static final int PORTRAITS = 256;
+
+    private final Map<String, Long> hashMap = new HashMap<>();
+    private BoundedLruCache<String, Long> fitting;
+    private BoundedLruCache<String, Long> evicting;
+    private final String[] keys = new String[PORTRAITS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fitting = new BoundedLruCache<>(PORTRAITS * PORTRAIT_BYTES, Long::longValue);
+        evicting = new BoundedLruCache<>(PORTRAITS / 4 * PORTRAIT_BYTES, Long::longValue);
+        for (int i = 0; i < PORTRAITS; i++) {
+            keys[i] = "/images/portraits/character" + i + ".png";
+            hashMap.put(keys[i], PORTRAIT_BYTES);
+            fitting.put(keys[i], PORTRAIT_BYTES);
+        }
+    }
+
+    private String nextKey() {
+        next = (next + 1) & (PORTRAITS - 1);
+        return keys[next];
+    }
+
+    @Benchmark
+    public Long hashMapHit() {
+        return hashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Long lruHit() {
+        return fitting.get(nextKey());
+    }
+
+    /**
+     * Cycling through four times more portraits than fit: every lookup misses and evicts
+     */
+    @Benchmark
+    public Long lruMissAndEvict() {
+        String key = nextKey();
+        Long value = evicting.get(key);
+        if (value == null) {
+            evicting.put(key, PORTRAIT_BYTES);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import models.food.Food;
+import models.location.Location;
+import models.persistence.Autosave;
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autosaving a theater where a single village changed, against rewriting the whole file.
+ * {@code capture*} only measure the part run on the thread playing the turns; the file is written
+ * in the background and waited for outside of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AutosaveBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int population;
+
+    private Theater theater;
+    private Location village;
+    private Path file;
+    private Autosave autosave;
+    private long turn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        theater = Populations.theater(population);
+        village = theater.getLocations().get(0);
+        file = Files.createTempFile("autosave", ".save");
+        autosave = new Autosave(file, 1);
+        autosave.save(theater, turn++);
+        autosave.awaitPending();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        autosave.close();
+        Files.deleteIfExists(file);
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitWrite() {
+        autosave.awaitPending();
+    }
+
+    @Benchmark
+    public boolean captureOneLocation() {
+        village.addFood(Food.WINE);
+        return autosave.save(theater, turn++);
+    }
+
+    @Benchmark
+    public boolean captureAll() {
+        for (Location location : theater.getLocations()) {
+            location.markDirty();
+        }
+        return autosave.save(theater, turn++);
+    }
+
+    @Benchmark
+    public Autosave.Result incrementalOneLocation() {
+        village.addFood(Food.WINE);
+        autosave.save(theater, turn++);
+        return autosave.awaitPending();
+    }
+}
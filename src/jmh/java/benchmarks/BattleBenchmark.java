@@ -0,0 +1,69 @@
+package benchmarks;
+
+import models.location.Battlefield;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full battles until one faction is left (one duel at a time or in batch rounds),
+ * and the battle termination check.
+ */
+@Fork(1)
+public class BattleBenchmark {
+
+    @State(Scope.Thread)
+    public static class FreshBattle {
+        @Param({"10", "1000", "100000"})
+        public int population;
+
+        Battlefield battlefield;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            battlefield = Populations.battlefield(population);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StagedBattle {
+        @Param({"10", "1000", "100000"})
+        public int population;
+
+        Battlefield battlefield;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            battlefield = Populations.battlefield(population);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public Battlefield startBattle(FreshBattle state) {
+        state.battlefield.startBattle();
+        return state.battlefield;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public Battlefield resolveUntilDecided(FreshBattle state) {
+        state.battlefield.resolveUntilDecided();
+        return state.battlefield;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean hasOpposingFactions(StagedBattle state) {
+        return state.battlefield.hasOpposingFactions();
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import models.location.Battlefield;
+import models.simulation.BattleScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every battle of several battlefields played to the end on a {@link BattleScheduler}, rounds back to back,
+ * by number of worker threads.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BattleSchedulerBenchmark {
+
+    @Param({"16"})
+    public int battlefields;
+
+    @Param({"1000"})
+    public int fighters;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private BattleScheduler scheduler;
+    private List<Battlefield> fields;
+
+    @Setup(Level.Trial)
+    public void setUpScheduler() {
+        scheduler = new BattleScheduler(threads);
+        scheduler.setRoundsPerSecond(Double.POSITIVE_INFINITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownScheduler() {
+        scheduler.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpBattlefields() {
+        fields = new ArrayList<>(battlefields);
+        for (int i = 0; i < battlefields; i++) {
+            fields.add(Populations.battlefield(fighters));
+        }
+    }
+
+    @Benchmark
+    public long allBattles() {
+        long before = scheduler.getRoundCount();
+        List<CompletableFuture<BattleScheduler.Battle>> battles = new ArrayList<>(battlefields);
+        for (Battlefield battlefield : fields) {
+            battles.add(scheduler.start(battlefield).getCompletion());
+        }
+        CompletableFuture.allOf(battles.toArray(new CompletableFuture[0])).join();
+        return scheduler.getRoundCount() - before;
+    }
+
+    @Benchmark
+    public long sequential() {
+        long rounds = 0;
+        for (Battlefield battlefield : fields) {
+            while (battlefield.hasOpposingFactions()) {
+                rounds += battlefield.resolveRounds(1);
+            }
+        }
+        return rounds;
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The model side of the character list of the game view: rebuilding its rows after a change, and finding
+ * the dropped character. {@code *ByName}/{@code stringRows} are the former formatted-string list, resolved
+ * by splitting the row and scanning the roster; {@code *ById}/{@code idRows} the id-keyed list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CharacterListBenchmark {
+
+    @Param({"1000", "50000"})
+    public int residents;
+
+    private Location village;
+    private String droppedRow;
+    private long droppedId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(Populations.SEED);
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        for (int i = 0; i < residents; i++) {
+            village.addCharacter(Populations.randomCharacter(random,
+                    i % 2 == 0 ? Populations.GAULS : Populations.ROMANS, i));
+        }
+        // Le pire cas de la recherche par nom : le dernier de la liste
+        Character dropped = village.getCharacter(residents - 1);
+        droppedRow = row(dropped);
+        droppedId = dropped.getId();
+    }
+
+    private static String row(Character c) {
+        return String.format("%s (Health: %.1f, Hungry: %s)", c.getName(), c.getHealth(), c.isHungry() ? "Yes" : "No");
+    }
+
+    @Benchmark
+    public List<String> stringRows() {
+        List<String> rows = new ArrayList<>();
+        for (Character c : village.getCharactersView()) {
+            rows.add(row(c));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<Long> idRows() {
+        List<Long> rows = new ArrayList<>();
+        for (Character c : village.getCharactersView()) {
+            rows.add(c.getId());
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public Character resolveByName() {
+        String name = droppedRow.split(" \\(")[0];
+        for (Character c : village.getCharactersView()) {
+            if (c.getName().equals(name)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Character resolveById() {
+        return village.getCharacterById(droppedId);
+    }
+}
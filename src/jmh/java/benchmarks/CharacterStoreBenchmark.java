@@ -0,0 +1,74 @@
+package benchmarks;
+
+import models.location.Battlefield;
+import models.people.CharacterStore;
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation steps and battles on character objects versus on a columnar {@link CharacterStore}.
+ */
+@Fork(1)
+public class CharacterStoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class StepState {
+        @Param({"1000", "100000"})
+        public int population;
+
+        @Param({"false", "true"})
+        public boolean columnar;
+
+        Theater theater;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            theater = Populations.theater(population);
+            if (columnar) {
+                theater.setCharacterStore(new CharacterStore());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BattleState {
+        @Param({"1000", "10000"})
+        public int population;
+
+        @Param({"false", "true"})
+        public boolean columnar;
+
+        Battlefield battlefield;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            battlefield = Populations.battlefield(population);
+            if (columnar) {
+                CharacterStore store = new CharacterStore();
+                battlefield.forEachCharacter(store::register);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Theater simulationStep(StepState state) {
+        state.theater.simulationStep();
+        return state.theater;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public Battlefield startBattle(BattleState state) {
+        state.battlefield.startBattle();
+        return state.battlefield;
+    }
+}
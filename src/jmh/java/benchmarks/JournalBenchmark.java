@@ -0,0 +1,50 @@
+package benchmarks;
+
+import models.enums.EventType;
+import models.journal.EventJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one attack: a fixed-width journal record versus the formatted log line of the GUI.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JournalBenchmark {
+
+    private Path path;
+    private EventJournal journal;
+    private long actor;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("events", ".journal");
+        journal = EventJournal.create(path);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void journalAttack() {
+        actor++;
+        journal.append(EventType.ATTACK, 3, actor, actor + 1, 42.0);
+    }
+
+    @Benchmark
+    public String formatAttack() {
+        actor++;
+        return String.format("⚔️ %s attaque %s (HP: %.0f)", "Fighter" + actor, "Fighter" + (actor + 1), 42.0);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Location lookups of a theater: by name, and the battlefield list used by the transfer command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LocationLookupBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int locations;
+
+    private Theater theater;
+    private String lastName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        theater = new Theater();
+        for (int i = 0; i < locations; i++) {
+            // One battlefield every ten locations
+            theater.addLocation(i % 10 == 9
+                    ? new Battlefield("Location " + i, 100.0)
+                    : new Location("Location " + i, 100.0, LocationType.GAUL_ROMAIN_VILLAGE));
+        }
+        lastName = "Location " + (locations - 1);
+    }
+
+    @Benchmark
+    public Location getLocationByName() {
+        return theater.getLocationByName(lastName);
+    }
+
+    @Benchmark
+    public List<Battlefield> getBattlefields() {
+        return theater.getBattlefields();
+    }
+}
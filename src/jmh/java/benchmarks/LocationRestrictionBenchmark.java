@@ -0,0 +1,43 @@
+package benchmarks;
+
+import models.location.LocationRestriction;
+import models.location.LocationType;
+import models.people.Character;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission checks of every character against every location type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LocationRestrictionBenchmark {
+
+    private static final LocationType[] TYPES = LocationType.values();
+
+    @Param({"10", "1000", "100000"})
+    public int population;
+
+    private List<Character> characters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        characters = Populations.mixedCharacters(population);
+    }
+
+    @Benchmark
+    public void isAllowed(Blackhole blackhole) {
+        for (Character character : characters) {
+            for (LocationType type : TYPES) {
+                blackhole.consume(LocationRestriction.isAllowed(type, character));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import models.location.Location;
+import models.location.LocationType;
+import models.utils.SpatialGrid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-event and per-frame work of the canvas map outside of drawing: finding the location under
+ * the pointer, the locations of a redrawn region, and the locations changed since the last frame.
+ * Locations are laid out on the same spiral as {@code LocationMapCanvas}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapHitTestBenchmark {
+
+    private static final double SPACING = 110;
+    private static final double RADIUS = 40;
+
+    @Param({"50", "5000"})
+    public int locations;
+
+    private final List<Location> places = new ArrayList<>();
+    private double[] xs;
+    private double[] ys;
+    private SpatialGrid<Integer> grid;
+    private long[] renderedRevisions;
+    private double[] queries;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        xs = new double[locations];
+        ys = new double[locations];
+        renderedRevisions = new long[locations];
+        grid = new SpatialGrid<>(SPACING);
+        for (int i = 0; i < locations; i++) {
+            double radius = SPACING * 0.6 * Math.sqrt(i + 0.5);
+            double angle = i * Math.PI * (3 - Math.sqrt(5));
+            xs[i] = radius * Math.cos(angle);
+            ys[i] = radius * Math.sin(angle);
+            grid.add(i, xs[i], ys[i]);
+            Location place = new Location("Village " + i, 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+            places.add(place);
+            renderedRevisions[i] = place.getRevision();
+        }
+        Random random = new Random(Populations.SEED);
+        double extent = SPACING * 0.6 * Math.sqrt(locations);
+        queries = new double[2048];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = (random.nextDouble() * 2 - 1) * extent;
+        }
+    }
+
+    @Benchmark
+    public Integer hitTestGrid() {
+        int q = query = (query + 2) & (queries.length - 1);
+        return grid.nearest(queries[q], queries[q + 1], RADIUS);
+    }
+
+    @Benchmark
+    public Integer hitTestLinear() {
+        int q = query = (query + 2) & (queries.length - 1);
+        double x = queries[q], y = queries[q + 1];
+        Integer nearest = null;
+        double best = RADIUS * RADIUS;
+        for (int i = 0; i < xs.length; i++) {
+            double dx = xs[i] - x, dy = ys[i] - y;
+            double distance = dx * dx + dy * dy;
+            if (distance <= best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Locations to redraw for the damaged region of one location at scale 1
+     */
+    @Benchmark
+    public void damagedRegion(Blackhole blackhole) {
+        int q = query = (query + 2) & (queries.length - 1);
+        double x = queries[q], y = queries[q + 1], reach = 2 * RADIUS + 4;
+        grid.forEachIn(x - reach, y - reach, x + reach, y + reach, blackhole::consume);
+    }
+
+    /**
+     * Revision check of every location, run once per frame when a refresh was requested
+     */
+    @Benchmark
+    public int changedLocations() {
+        int changed = 0;
+        for (int i = 0; i < renderedRevisions.length; i++) {
+            if (places.get(i).getRevision() != renderedRevisions[i]) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import models.location.Location;
+import models.location.LocationType;
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation turn over theaters of hundreds of locations, by number of step threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParallelStepBenchmark {
+
+    private static final int CHARACTERS_PER_LOCATION = 500;
+
+    @Param({"100", "500"})
+    public int locations;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Theater theater;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(Populations.SEED);
+        theater = new Theater();
+        for (int l = 0; l < locations; l++) {
+            Location village = new Location("Village " + l, 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+            for (int i = 0; i < CHARACTERS_PER_LOCATION; i++) {
+                village.addCharacter(Populations.randomCharacter(random,
+                        i % 2 == 0 ? Populations.GAULS : Populations.ROMANS, i));
+            }
+            theater.addLocation(village);
+        }
+        theater.setParallelism(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        theater.setParallelism(1);
+    }
+
+    @Benchmark
+    public Theater simulationStep() {
+        theater.simulationStep();
+        return theater;
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import models.factory.CharacterFactory;
+import models.factory.CharacterFactory.CharacterType;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.theater.Theater;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks.
+ */
+final class Populations {
+
+    static final long SEED = 42L;
+    static final int CHARACTERS_PER_LOCATION = 1000;
+
+    static final CharacterType[] GAULS = {
+            CharacterType.BLACKSMITH, CharacterType.DRUID, CharacterType.INNKEEPER, CharacterType.MERCHANT
+    };
+    static final CharacterType[] ROMANS = {
+            CharacterType.GENERAL, CharacterType.LEGIONARY, CharacterType.PREFECT
+    };
+
+    private Populations() {}
+
+    /**
+     * Create a character of a random type with random attributes.
+     */
+    static Character randomCharacter(Random random, CharacterType[] types, int index) {
+        CharacterType type = types[random.nextInt(types.length)];
+        return CharacterFactory.createCharacter(type, type.name() + index,
+                random.nextBoolean() ? 'm' : 'f', 1.5 + random.nextDouble() * 0.5,
+                18 + random.nextInt(60), 0.2 + random.nextDouble() * 0.8);
+    }
+
+    /**
+     * A mixed list of Gauls, Romans and werewolves.
+     */
+    static List<Character> mixedCharacters(int size) {
+        Random random = new Random(SEED);
+        List<Character> characters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CharacterType[] types = switch (i % 3) {
+                case 0 -> GAULS;
+                case 1 -> ROMANS;
+                default -> new CharacterType[] {CharacterType.WEREWOLF};
+            };
+            characters.add(randomCharacter(random, types, i));
+        }
+        return characters;
+    }
+
+    /**
+     * A battlefield holding half Gauls followed by half Romans.
+     */
+    static Battlefield battlefield(int size) {
+        Random random = new Random(SEED);
+        Battlefield battlefield = new Battlefield("Bench Battlefield", 1000.0);
+        for (int i = 0; i < size; i++) {
+            battlefield.addCharacter(randomCharacter(random, i < size / 2 ? GAULS : ROMANS, i));
+        }
+        return battlefield;
+    }
+
+    /**
+     * A theater of gallo-roman villages holding {@code size} characters in total,
+     * at most {@link #CHARACTERS_PER_LOCATION} per location, a third of them hungry.
+     */
+    static Theater theater(int size) {
+        Random random = new Random(SEED);
+        Theater theater = new Theater();
+        int locations = Math.max(1, (size + CHARACTERS_PER_LOCATION - 1) / CHARACTERS_PER_LOCATION);
+        for (int l = 0; l < locations; l++) {
+            theater.addLocation(new Location("Village " + l, 100.0, LocationType.GAUL_ROMAIN_VILLAGE));
+        }
+        List<Location> villages = theater.getLocations();
+        for (int i = 0; i < size; i++) {
+            Character character = randomCharacter(random, i % 2 == 0 ? GAULS : ROMANS, i);
+            if (i % 3 == 0) {
+                character.makeHungry();
+                character.makeHungry();
+            }
+            villages.get(i / CHARACTERS_PER_LOCATION).addCharacter(character);
+        }
+        return theater;
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import models.people.Character;
+import models.theater.Theater;
+import models.utils.CharacterRanking;
+import models.utils.CharacterSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Strongest K" over a whole theater: bounded-heap ranking versus a full sort.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RankingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int population;
+
+    @Param({"10", "100"})
+    public int k;
+
+    private Theater theater;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        theater = Populations.theater(population);
+    }
+
+    @Benchmark
+    public List<Character> topK() {
+        return CharacterRanking.top(theater, CharacterSorter.Key.STRENGTH, k);
+    }
+
+    @Benchmark
+    public List<Character> fullSort() {
+        List<Character> everyone = new ArrayList<>();
+        theater.getLocations().forEach(location -> everyone.addAll(location.getCharactersView()));
+        return CharacterSorter.sortByStrength(everyone).subList(0, k);
+    }
+}
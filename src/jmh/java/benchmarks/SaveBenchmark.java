@@ -0,0 +1,77 @@
+package benchmarks;
+
+import models.location.Location;
+import models.persistence.MappedTheaterFile;
+import models.persistence.TheaterCodec;
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a theater to a file and loading it back with {@link TheaterCodec}, and with
+ * {@link MappedTheaterFile} whose locations are only read when first accessed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SaveBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int population;
+
+    private Theater theater;
+    private Path saved;
+    private Path mapped;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        theater = Populations.theater(population);
+        saved = Files.createTempFile("theater", ".save");
+        target = Files.createTempFile("theater", ".save");
+        TheaterCodec.save(theater, 0, saved);
+        mapped = Files.createTempFile("theater", ".save");
+        MappedTheaterFile.save(theater, 0, mapped);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(saved);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(mapped);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        TheaterCodec.save(theater, 0, target);
+    }
+
+    @Benchmark
+    public Theater load() throws IOException {
+        return TheaterCodec.load(saved).theater();
+    }
+
+    @Benchmark
+    public void mappedSave() throws IOException {
+        MappedTheaterFile.save(theater, 0, target);
+    }
+
+    @Benchmark
+    public Theater mappedOpen() throws IOException {
+        return MappedTheaterFile.open(mapped).theater();
+    }
+
+    @Benchmark
+    public int mappedOpenOneLocation() throws IOException {
+        // Ouvrir puis lire un seul village, comme l'écran d'un lieu après chargement
+        Location first = MappedTheaterFile.open(mapped).theater().getLocations().get(0);
+        return first.getCharactersView().size();
+    }
+}
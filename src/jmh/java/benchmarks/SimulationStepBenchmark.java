@@ -0,0 +1,34 @@
+package benchmarks;
+
+import models.theater.Theater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation turn over a whole theater.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SimulationStepBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int population;
+
+    private Theater theater;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        theater = Populations.theater(population);
+    }
+
+    @Benchmark
+    public Theater simulationStep() {
+        theater.simulationStep();
+        return theater;
+    }
+}
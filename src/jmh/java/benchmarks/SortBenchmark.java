@@ -0,0 +1,71 @@
+package benchmarks;
+
+import models.people.Character;
+import models.utils.CharacterSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sorting algorithms of {@link CharacterSorter}: the sort service by default,
+ * the educational algorithms with {@code -p educational=true}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SortBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int population;
+
+    @Param({"false"})
+    public boolean educational;
+
+    private List<Character> characters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        characters = Populations.mixedCharacters(population);
+        CharacterSorter.setEducational(educational);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CharacterSorter.setEducational(false);
+    }
+
+    @Benchmark
+    public List<Character> sortByStrength() {
+        return CharacterSorter.sortByStrength(characters);
+    }
+
+    @Benchmark
+    public List<Character> sortByAge() {
+        return CharacterSorter.sortByAge(characters);
+    }
+
+    @Benchmark
+    public List<Character> sortByName() {
+        return CharacterSorter.sortByName(characters);
+    }
+
+    @Benchmark
+    public List<Character> sortByHealth() {
+        return CharacterSorter.sortByHealth(characters);
+    }
+
+    @Benchmark
+    public List<Character> sortByComparator() {
+        return CharacterSorter.sort(characters, CharacterSorter.Key.STRENGTH.comparator());
+    }
+
+    @Benchmark
+    public List<Character> sortByKeys() {
+        return CharacterSorter.sortBy(characters,
+                CharacterSorter.Key.AGE, CharacterSorter.Key.STRENGTH, CharacterSorter.Key.NAME);
+    }
+}
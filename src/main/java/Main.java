@@ -99,7 +99,7 @@ public class Main {
         }
         
         // Demonstrate sorting (custom algorithm)
-        System.out.println("\n=== Sorting Characters by Strength (QuickSort) ===");
+        System.out.println("\n=== Sorting Characters by Strength ===");
         java.util.List<Character> allCharacters = new java.util.ArrayList<>();
         allCharacters.add(asterix);
         allCharacters.add(obelix);
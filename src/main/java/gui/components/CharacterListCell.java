@@ -0,0 +1,83 @@
+package gui.components;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DataFormat;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.TransferMode;
+import models.people.Character;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Cell of a character list backed by character ids. The list only holds ids; a cell looks its character
+ * up when it is given an id and shows the current health and hunger, so a few cells recycled by the
+ * {@code ListView} are enough for any number of characters. Dragging a cell carries the character id.
+ */
+public class CharacterListCell extends ListCell<Long> {
+
+    /**
+     * Drag-and-drop format of a character id
+     */
+    public static final DataFormat CHARACTER_ID = new DataFormat("application/x-armorique-character-id");
+
+    private final LongFunction<Character> resolver;
+    private final Set<CharacterListCell> liveCells;
+
+    /**
+     * @param resolver finds a character from its id, null if it is gone
+     * @param liveCells the cells of the list, to {@link #refreshAll refresh} them together
+     */
+    public CharacterListCell(LongFunction<Character> resolver, Set<CharacterListCell> liveCells) {
+        this.resolver = resolver;
+        this.liveCells = liveCells;
+        liveCells.add(this);
+
+        setOnDragDetected(event -> {
+            if (!isEmpty() && getItem() != null) {
+                Dragboard db = startDragAndDrop(TransferMode.MOVE);
+                ClipboardContent content = new ClipboardContent();
+                content.put(CHARACTER_ID, getItem());
+                content.putString(getText());
+                db.setContent(content);
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Create the set to share between the cells of one list
+     */
+    public static Set<CharacterListCell> newCellSet() {
+        return Collections.newSetFromMap(new WeakHashMap<>()); // Les cellules jetées par la liste disparaissent
+    }
+
+    /**
+     * Show the current values of the characters of every cell, without touching the list items
+     */
+    public static void refreshAll(Set<CharacterListCell> cells) {
+        for (CharacterListCell cell : cells) {
+            cell.showCharacter();
+        }
+    }
+
+    @Override
+    protected void updateItem(Long id, boolean empty) {
+        super.updateItem(id, empty);
+        showCharacter();
+    }
+
+    private void showCharacter() {
+        Long id = getItem();
+        Character character = isEmpty() || id == null ? null : resolver.apply(id);
+        String text = character == null ? null : String.format("%s (Health: %.1f, Hungry: %s)",
+                character.getName(), character.getHealth(), character.isHungry() ? "Yes" : "No");
+        if (!Objects.equals(text, getText())) {
+            setText(text);
+        }
+    }
+}
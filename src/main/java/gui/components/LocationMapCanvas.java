@@ -0,0 +1,344 @@
+package gui.components;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import models.location.Location;
+import models.utils.SpatialGrid;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Map of the locations drawn on a single canvas, for theaters with too many locations for one
+ * {@link LocationMapNode} each.
+ * <p>
+ * Locations are laid out once in map coordinates and indexed in a {@link SpatialGrid}: clicks, drops and
+ * redraws only look at the locations under the pointer or in the redrawn region. The map can be zoomed
+ * (mouse wheel) and panned (drag); names and character counts are only drawn when the circles are large
+ * enough to read them. {@link #refresh()} redraws the regions of the locations that changed since
+ * they were last drawn, the whole canvas only after a zoom, a pan or a resize.
+ */
+public class LocationMapCanvas extends Pane {
+
+    public static final double NODE_RADIUS = 40;
+    private static final double SPACING = 110; // Distance moyenne entre deux lieux
+    private static final int CIRCLE_LAYOUT_LIMIT = 24; // Au-delà, disposition en spirale
+    private static final double NAME_MIN_RADIUS = 20; // Rayon à l'écran, en pixels
+    private static final double COUNT_MIN_RADIUS = 8;
+    private static final double DOT_MAX_RADIUS = 1.5;
+    private static final double MIN_SCALE = 0.005;
+    private static final double MAX_SCALE = 4;
+    private static final int MAX_DAMAGED_REGIONS = 64;
+    private static final Color BACKGROUND = Color.web("#e8e4d8");
+
+    private final Canvas canvas = new Canvas();
+    private final List<Location> locations = new ArrayList<>();
+    private final Map<Location, Integer> indexes = new HashMap<>();
+    private final SpatialGrid<Integer> grid = new SpatialGrid<>(SPACING);
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private long[] renderedRevisions = new long[0];
+
+    // Écran = carte * scale + translate
+    private double scale = 1;
+    private double translateX = 0;
+    private double translateY = 0;
+    private boolean fitted = false;
+    private Font nameFont;
+    private Font countFont;
+    private Font countOnlyFont; // Sans le nom, le nombre remplit le cercle
+
+    private final List<double[]> damagedRegions = new ArrayList<>(); // {minX, minY, maxX, maxY} à l'écran
+    private boolean fullRedraw = true;
+
+    private Location selected;
+    private Consumer<Location> onLocationClicked;
+    private double pressX;
+    private double pressY;
+
+    public LocationMapCanvas() {
+        getChildren().add(canvas);
+        updateFonts();
+
+        setOnScroll(event -> zoom(event.getX(), event.getY(), Math.pow(1.002, event.getDeltaY())));
+        setOnMousePressed(event -> {
+            pressX = event.getX();
+            pressY = event.getY();
+        });
+        setOnMouseDragged(event -> {
+            if (event.getButton() != MouseButton.PRIMARY) return;
+            pan(event.getX() - pressX, event.getY() - pressY);
+            pressX = event.getX();
+            pressY = event.getY();
+        });
+        setOnMouseClicked(event -> {
+            if (!event.isStillSincePress() || onLocationClicked == null) return;
+            Location location = locationAt(event.getX(), event.getY());
+            if (location != null) {
+                onLocationClicked.accept(location);
+            }
+        });
+        setStyle("-fx-cursor: hand;");
+    }
+
+    // ==================== LIEUX ====================
+
+    /**
+     * Lay out and draw a new set of locations, fitted to the view
+     */
+    public void setLocations(List<Location> newLocations) {
+        locations.clear();
+        locations.addAll(newLocations);
+        indexes.clear();
+        grid.clear();
+        int count = locations.size();
+        xs = new double[count];
+        ys = new double[count];
+        renderedRevisions = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (count <= CIRCLE_LAYOUT_LIMIT) {
+                // Cercle, comme la carte à un nœud par lieu
+                double radius = Math.max(200, count * SPACING / (2 * Math.PI));
+                double angle = 2 * Math.PI * i / count;
+                xs[i] = radius * Math.cos(angle);
+                ys[i] = radius * Math.sin(angle);
+            } else {
+                // Spirale de Vogel : densité uniforme, sans chevauchement
+                double radius = SPACING * 0.6 * Math.sqrt(i + 0.5);
+                double angle = i * Math.PI * (3 - Math.sqrt(5));
+                xs[i] = radius * Math.cos(angle);
+                ys[i] = radius * Math.sin(angle);
+            }
+            indexes.put(locations.get(i), i);
+            grid.add(i, xs[i], ys[i]);
+            renderedRevisions[i] = locations.get(i).getRevision();
+        }
+        fitted = false;
+        requestLayout();
+    }
+
+    public void setOnLocationClicked(Consumer<Location> onLocationClicked) {
+        this.onLocationClicked = onLocationClicked;
+    }
+
+    /**
+     * Highlight a location, or none
+     */
+    public void setSelected(Location location) {
+        if (location == selected) return;
+        damage(selected);
+        selected = location;
+        damage(selected);
+        paint();
+    }
+
+    /**
+     * Find the location drawn under a point
+     * @param x the abscissa in this node
+     * @param y the ordinate in this node
+     * @return the location, or null if none there
+     */
+    public Location locationAt(double x, double y) {
+        // Au moins quelques pixels autour des petits cercles
+        double reach = Math.max(NODE_RADIUS, 4 / scale);
+        Integer index = grid.nearest((x - translateX) / scale, (y - translateY) / scale, reach);
+        return index == null ? null : locations.get(index);
+    }
+
+    /**
+     * Redraw the locations changed since they were last drawn. Call it once per frame at most.
+     * @return true if a location changed
+     */
+    public boolean refresh() {
+        boolean changed = false;
+        for (int i = 0; i < locations.size(); i++) {
+            long revision = locations.get(i).getRevision();
+            if (revision != renderedRevisions[i]) {
+                renderedRevisions[i] = revision;
+                damage(i);
+                changed = true;
+            }
+        }
+        paint();
+        return changed;
+    }
+
+    // ==================== VUE ====================
+
+    /**
+     * Zoom around a point of the view
+     * @param factor the zoom factor, above 1 to zoom in
+     */
+    public void zoom(double x, double y, double factor) {
+        double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+        // Le point de la carte sous (x, y) y reste
+        translateX = x - (x - translateX) * newScale / scale;
+        translateY = y - (y - translateY) * newScale / scale;
+        scale = newScale;
+        updateFonts();
+        fullRedraw = true;
+        paint();
+    }
+
+    public void pan(double dx, double dy) {
+        translateX += dx;
+        translateY += dy;
+        fullRedraw = true;
+        paint();
+    }
+
+    /**
+     * Zoom and center the view so that every location is visible
+     */
+    public void fitToView() {
+        double width = getWidth(), height = getHeight();
+        if (width <= 0 || height <= 0) return;
+        double minX = 0, minY = 0, maxX = 0, maxY = 0;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        double margin = NODE_RADIUS * 1.5;
+        scale = Math.max(MIN_SCALE, Math.min(1, Math.min(width / (maxX - minX + 2 * margin),
+                height / (maxY - minY + 2 * margin))));
+        translateX = width / 2 - (minX + maxX) / 2 * scale;
+        translateY = height / 2 - (minY + maxY) / 2 * scale;
+        updateFonts();
+        fitted = true;
+        fullRedraw = true;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth(), height = getHeight();
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            fullRedraw = true;
+        }
+        if (!fitted) {
+            fitToView();
+        }
+        paint();
+    }
+
+    private void updateFonts() {
+        nameFont = Font.font("System", FontWeight.BOLD, 10 * scale);
+        countFont = Font.font("System", 12 * scale);
+        countOnlyFont = Font.font("System", 0.8 * NODE_RADIUS * scale);
+    }
+
+    // ==================== DESSIN ====================
+
+    private void damage(Location location) {
+        Integer index = location == null ? null : indexes.get(location);
+        if (index != null) {
+            damage(index);
+        }
+    }
+
+    private void damage(int index) {
+        if (fullRedraw) return;
+        if (damagedRegions.size() >= MAX_DAMAGED_REGIONS) {
+            // Trop de régions : tout redessiner coûte moins que les découper
+            fullRedraw = true;
+            damagedRegions.clear();
+            return;
+        }
+        double reach = NODE_RADIUS * scale + 4; // Contour de sélection compris
+        double x = xs[index] * scale + translateX, y = ys[index] * scale + translateY;
+        damagedRegions.add(new double[] {x - reach, y - reach, x + reach, y + reach});
+    }
+
+    private void paint() {
+        double width = canvas.getWidth(), height = canvas.getHeight();
+        if (width <= 0 || height <= 0) return;
+        if (fullRedraw) {
+            paintRegion(0, 0, width, height);
+        } else {
+            for (double[] region : damagedRegions) {
+                if (region[2] >= 0 && region[3] >= 0 && region[0] <= width && region[1] <= height) {
+                    paintRegion(region[0], region[1], region[2], region[3]);
+                }
+            }
+        }
+        damagedRegions.clear();
+        fullRedraw = false;
+    }
+
+    /**
+     * Redraw the background and every location overlapping a rectangle of the view, clipped to it
+     */
+    private void paintRegion(double minX, double minY, double maxX, double maxY) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.beginPath();
+        gc.rect(minX, minY, maxX - minX, maxY - minY);
+        gc.clip();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(minX, minY, maxX - minX, maxY - minY);
+
+        double reach = NODE_RADIUS + 4 / scale;
+        grid.forEachIn((minX - translateX) / scale - reach, (minY - translateY) / scale - reach,
+                (maxX - translateX) / scale + reach, (maxY - translateY) / scale + reach,
+                index -> paintLocation(gc, index));
+        gc.restore();
+    }
+
+    private void paintLocation(GraphicsContext gc, int index) {
+        Location location = locations.get(index);
+        double x = xs[index] * scale + translateX, y = ys[index] * scale + translateY;
+        double radius = NODE_RADIUS * scale;
+        boolean isSelected = location == selected;
+        Color color = LocationMapNode.colorOf(location);
+
+        // Niveau de détail selon la taille à l'écran
+        if (radius <= DOT_MAX_RADIUS && !isSelected) {
+            gc.setFill(color);
+            gc.fillRect(x - DOT_MAX_RADIUS, y - DOT_MAX_RADIUS, 2 * DOT_MAX_RADIUS, 2 * DOT_MAX_RADIUS);
+            return;
+        }
+        gc.setFill(isSelected ? color.brighter() : color);
+        gc.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        if (isSelected) {
+            gc.setStroke(Color.YELLOW);
+            gc.setLineWidth(3);
+            gc.strokeOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        } else if (radius >= COUNT_MIN_RADIUS) {
+            gc.setStroke(Color.BLACK);
+            gc.setLineWidth(1);
+            gc.strokeOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        }
+        if (radius < COUNT_MIN_RADIUS) return;
+
+        gc.setFill(Color.WHITE);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        String count = String.valueOf(location.getCharactersNbr());
+        if (radius >= NAME_MIN_RADIUS) {
+            gc.setFont(nameFont);
+            gc.fillText(location.getName(), x, y - 7 * scale, 1.75 * radius);
+            gc.setFont(countFont);
+            gc.fillText(count, x, y + 8 * scale, 1.75 * radius);
+        } else {
+            gc.setFont(countOnlyFont);
+            gc.fillText(count, x, y, 1.75 * radius);
+        }
+    }
+}
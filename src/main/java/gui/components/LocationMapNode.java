@@ -19,6 +19,7 @@ public class LocationMapNode extends StackPane {
     private final Label nameLabel;
     private final Label countLabel;
     private boolean selected = false;
+    private long renderedRevision = -1; // Révision du lieu affichée
 
     public LocationMapNode(Location location) {
         this.location = location;
@@ -52,10 +53,23 @@ public class LocationMapNode extends StackPane {
      * Update the display (character count, etc.)
      */
     public void updateDisplay() {
+        renderedRevision = location.getRevision(); // Lue avant le contenu : un changement pendant l'affichage reste visible
         countLabel.setText(String.valueOf(location.getCharactersNbr()));
         updateCircleColor();
     }
 
+    /**
+     * Update the display only if the location changed since it was last displayed
+     * @return true if the node was redrawn
+     */
+    public boolean refresh() {
+        if (location.getRevision() == renderedRevision) {
+            return false;
+        }
+        updateDisplay();
+        return true;
+    }
+
     /**
      * Set selection state
      */
@@ -68,31 +82,7 @@ public class LocationMapNode extends StackPane {
      * Update circle color based on location type and selection
      */
     private void updateCircleColor() {
-        Color color;
-
-        if (location instanceof Battlefield) {
-            color = Color.DARKRED;
-        } else {
-            switch (location.getType()) {
-                case GAUL_TOWN:
-                    color = Color.BLUE;
-                    break;
-                case ROMAIN_TOWN:
-                    color = Color.RED;
-                    break;
-                case GAUL_ROMAIN_VILLAGE:
-                    color = Color.PURPLE;
-                    break;
-                case ENCLOS:
-                    color = Color. BROWN;
-                    break;
-                case ROMAIN_CAMP:
-                    color = Color. DARKRED;
-                    break;
-                default:
-                    color = Color.GRAY;
-            }
-        }
+        Color color = colorOf(location);
 
         if (selected) {
             circle. setFill(color. brighter());
@@ -108,4 +98,27 @@ public class LocationMapNode extends StackPane {
     public Location getLocation() {
         return location;
     }
+
+    /**
+     * Get the color of a location on the map, from its type
+     */
+    static Color colorOf(Location location) {
+        if (location instanceof Battlefield) {
+            return Color.DARKRED;
+        }
+        switch (location.getType()) {
+            case GAUL_TOWN:
+                return Color.BLUE;
+            case ROMAIN_TOWN:
+                return Color.RED;
+            case GAUL_ROMAIN_VILLAGE:
+                return Color.PURPLE;
+            case ENCLOSURE:
+                return Color. BROWN;
+            case ROMAIN_CAMP:
+                return Color. DARKRED;
+            default:
+                return Color.GRAY;
+        }
+    }
 }
\ No newline at end of file
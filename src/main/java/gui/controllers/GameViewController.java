@@ -1,37 +1,46 @@
 package gui.controllers;
 
 import gui.ArmoriqueApp;
+import gui.components.CharacterListCell;
+import gui.components.LocationMapCanvas;
 import gui.components.LocationMapNode;
 import gui.utils.GameState;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx. collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml. Initializable;
 import javafx. scene.control.*;
-import javafx.scene.input.ClipboardContent;
 import javafx.scene.input. Dragboard;
 import javafx. scene.input.TransferMode;
 import javafx. scene.layout. Pane;
 import javafx. scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.scene.layout.HBox;
 import javafx.geometry.Insets;
 import models.clanLeader.ClanLeader;
 import models.food.Food;
 import models.location. Battlefield;
 import models.location. Location;
+import models.enums.Faction;
 import models.people.Character;
+import models.simulation.BattleScheduler;
+import models.simulation.SimulationEngine;
 import models.theater.Theater;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util. List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Random;
 import java.util.ResourceBundle;
-import java.util. Timer;
-import java.util.TimerTask;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Controller for the Main Game View
@@ -51,7 +60,7 @@ public class GameViewController implements Initializable {
     @FXML private Label locationNameLabel;
     @FXML private Label locationTypeLabel;
     @FXML private Label locationAreaLabel;
-    @FXML private ListView<String> characterList;
+    @FXML private ListView<Long> characterList; // Identifiants des personnages
     @FXML private ListView<String> foodList;
     @FXML private Label clanChiefNameLabel;
     @FXML private Label clanChiefLocationLabel;
@@ -59,16 +68,32 @@ public class GameViewController implements Initializable {
 
     private GameState gameState;
     private Location selectedLocation;
-    private Timer simulationTimer;
+    private SimulationEngine.TurnListener turnListener;
     private boolean isRunning = false;
 
     // NOUVEAUX états pour gérer le combat
     private boolean gameStarted = false;
-    private boolean fightInProgress = false;
-    private Timer fightTimer;
+    private BattleScheduler.BattleListener battleListener;
+
+    // Rafraîchissement regroupé : au plus une fois par image, seulement ce qui a changé
+    private final AtomicBoolean refreshRequested = new AtomicBoolean(false);
+    private AnimationTimer refreshTimer;
+    private Location renderedLocation;
+    private long renderedLocationRevision = -1;
+
+    // Au-delà, la carte est dessinée sur un seul canevas plutôt qu'avec un nœud par lieu
+    private static final int CANVAS_MAP_THRESHOLD = 50;
+    // Au-delà, une liste est remplacée d'un bloc plutôt que ligne par ligne
+    private static final int MAX_ROW_UPDATES = 64;
+    private LocationMapCanvas mapCanvas;
+
+    private static final String SAVE_EXTENSION = ".save";
+    private static final Path AUTOSAVE_PATH =
+            Path.of(System.getProperty("user.home"), ".armorique", "autosave" + SAVE_EXTENSION);
+    private static final int AUTOSAVE_INTERVAL = 10;
 
     private Map<Location, LocationMapNode> locationNodeMap = new HashMap<>();
-    private Map<String, Character> characterIdMap = new HashMap<>();
+    private final Set<CharacterListCell> characterCells = CharacterListCell.newCellSet();
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -78,6 +103,7 @@ public class GameViewController implements Initializable {
         turnLabel.textProperty().bind(gameState.turnNumberProperty().asString());
         populationLabel.textProperty().bind(gameState.totalPopulationProperty().asString());
         eventLogList.setItems(gameState.getEventLog());
+        gameState.startEventPump();
 
         // NOUVEAU : Désactiver le bouton de combat au démarrage
         if (startFightButton != null) {
@@ -92,6 +118,36 @@ public class GameViewController implements Initializable {
 
         // Setup drag and drop for character transfer
         setupCharacterDragAndDrop();
+
+        enableAutosave();
+
+        refreshTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (refreshRequested.getAndSet(false)) {
+                    refreshChanged();
+                }
+            }
+        };
+        refreshTimer.start();
+
+        // Les combats tournent sur les threads de l'ordonnanceur : l'affichage repasse par le thread FX
+        battleListener = new BattleScheduler.BattleListener() {
+            @Override
+            public void onRound(BattleScheduler.Battle battle) {
+                Battlefield battlefield = battle.getBattlefield();
+                gameState.addEvent(String.format("⚔️ %s, round %d : %d Gaulois contre %d Romains",
+                        battlefield.getName(), battle.getRounds(),
+                        battlefield.getFactionCount(Faction.GAUL), battlefield.getFactionCount(Faction.ROMAN)));
+                requestRefresh();
+            }
+
+            @Override
+            public void onBattleEnded(BattleScheduler.Battle battle) {
+                Platform.runLater(() -> onFightEnded(battle));
+            }
+        };
+        gameState.getBattleScheduler().addBattleListener(battleListener);
     }
 
     /**
@@ -100,6 +156,7 @@ public class GameViewController implements Initializable {
     private void createMapVisualization() {
         mapPane.getChildren().clear();
         locationNodeMap.clear();
+        mapCanvas = null;
 
         Theater theater = gameState.getTheater();
         List<Location> locations = theater.getLocations();
@@ -108,6 +165,11 @@ public class GameViewController implements Initializable {
             return;
         }
 
+        if (locations.size() > CANVAS_MAP_THRESHOLD) {
+            createMapCanvas(locations);
+            return;
+        }
+
         // Arrange locations in a circular pattern
         double centerX = 400;
         double centerY = 300;
@@ -137,31 +199,41 @@ public class GameViewController implements Initializable {
         }
     }
 
+    /**
+     * Draw the map on a single canvas, zoomable and pannable, for theaters with many locations
+     */
+    private void createMapCanvas(List<Location> locations) {
+        mapCanvas = new LocationMapCanvas();
+        mapCanvas.prefWidthProperty().bind(mapPane.widthProperty());
+        mapCanvas.prefHeightProperty().bind(mapPane.heightProperty());
+        mapCanvas.setLocations(locations);
+        mapCanvas.setOnLocationClicked(this::selectLocation);
+
+        // Seuls les champs de bataille acceptent les personnages
+        mapCanvas.setOnDragOver(event -> {
+            if (event.getDragboard().hasContent(CharacterListCell.CHARACTER_ID)
+                    && mapCanvas.locationAt(event.getX(), event.getY()) instanceof Battlefield) {
+                event.acceptTransferModes(TransferMode.MOVE);
+            }
+            event.consume();
+        });
+        mapCanvas.setOnDragDropped(event -> {
+            boolean success = mapCanvas.locationAt(event.getX(), event.getY()) instanceof Battlefield battlefield
+                    && transferToBattlefield(event.getDragboard(), battlefield);
+            event.setDropCompleted(success);
+            event.consume();
+        });
+
+        mapPane.getChildren().add(mapCanvas);
+    }
+
     /**
      * Setup drag and drop for character transfer
      */
     private void setupCharacterDragAndDrop() {
-        characterList.setCellFactory(lv -> {
-            ListCell<String> cell = new ListCell<>() {
-                @Override
-                protected void updateItem(String item, boolean empty) {
-                    super.updateItem(item, empty);
-                    setText(empty ? null : item);
-                }
-            };
-
-            cell.setOnDragDetected(event -> {
-                if (! cell.isEmpty()) {
-                    Dragboard db = cell.startDragAndDrop(TransferMode.MOVE);
-                    ClipboardContent content = new ClipboardContent();
-                    content.putString(cell. getItem());
-                    db. setContent(content);
-                    event.consume();
-                }
-            });
-
-            return cell;
-        });
+        // Liste d'identifiants : seules les cellules visibles existent, recyclées au défilement
+        characterList.setFixedCellSize(24);
+        characterList.setCellFactory(lv -> new CharacterListCell(this::findSelectedCharacter, characterCells));
     }
 
     /**
@@ -169,71 +241,94 @@ public class GameViewController implements Initializable {
      */
     private void setupBattlefieldDropTarget(LocationMapNode battlefieldNode, Battlefield battlefield) {
         battlefieldNode. setOnDragOver(event -> {
-            if (event.getGestureSource() != battlefieldNode && event.getDragboard().hasString()) {
+            if (event.getGestureSource() != battlefieldNode
+                    && event.getDragboard().hasContent(CharacterListCell.CHARACTER_ID)) {
                 event.acceptTransferModes(TransferMode.MOVE);
             }
             event.consume();
         });
 
         battlefieldNode. setOnDragDropped(event -> {
-            Dragboard db = event.getDragboard();
-            boolean success = false;
-
-            if (db.hasString()) {
-                String characterInfo = db.getString();
-                Character character = getCharacterFromListItem(characterInfo);
-
-                if (character != null && selectedLocation != null) {
-                    String characterName = character.getName();
-                    if (selectedLocation.removeCharacter(character)) {
-                        battlefield.addCharacter(character);
-                        gameState.addEvent("Transferred " + characterName + " to " + battlefield.getName());
-                        updateDisplay();
-                        updateMapVisualization();
-                        success = true;
-                    }
-                }
-            }
-
+            boolean success = transferToBattlefield(event.getDragboard(), battlefield);
             event.setDropCompleted(success);
             event.consume();
         });
     }
 
     /**
-     * Get a character from the location by name
+     * Move the character dragged from the selected location to a battlefield
+     * @return true if the character was moved
      */
-    private Character getCharacterFromLocation(Location location, String name) {
-        if (location == null) return null;
+    private boolean transferToBattlefield(Dragboard db, Battlefield battlefield) {
+        if (!db.hasContent(CharacterListCell.CHARACTER_ID)) return false;
 
-        for (Character c : location. getCharacters()) {
-            if (c.getName().equals(name)) {
-                return c;
+        Character character = findSelectedCharacter((Long) db.getContent(CharacterListCell.CHARACTER_ID));
+
+        if (character != null && selectedLocation != null) {
+            int index;
+            synchronized (selectedLocation) {
+                index = selectedLocation.indexOfCharacter(character.getId());
+            }
+            // Enregistré pour la relecture ; rejoint un combat éventuellement en cours entre deux rounds
+            gameState.execute(selectedLocation, "battlefield", String.valueOf(index), battlefieldIndex(battlefield));
+            boolean moved;
+            synchronized (battlefield) {
+                moved = battlefield.getCharacterById(character.getId()) != null;
+            }
+            if (moved) {
+                gameState.addEvent("Transferred " + character.getName() + " to " + battlefield.getName());
+                requestRefresh();
+                return true;
             }
         }
-        return null;
+        return false;
     }
 
     /**
-     * Extract character from a list item string
+     * Index of a battlefield among those of the theater, the argument of the battlefield commands
      */
-    private Character getCharacterFromListItem(String listItem) {
-        if (selectedLocation == null || listItem == null) return null;
+    private String battlefieldIndex(Battlefield battlefield) {
+        return String.valueOf(gameState.getTheater().getBattlefields().indexOf(battlefield));
+    }
 
-        String[] parts = listItem.split(" \\(");
-        if (parts.length > 0) {
-            String name = parts[0];
-            return getCharacterFromLocation(selectedLocation, name);
+    /**
+     * Find a character of the selected location from its id
+     * @return the character, or null if it is not there anymore
+     */
+    private Character findSelectedCharacter(long id) {
+        Location location = selectedLocation;
+        if (location == null) return null;
+        synchronized (location) { // Un combat peut tourner sur ce lieu
+            return location.getCharacterById(id);
         }
-        return null;
     }
 
     /**
-     * Update the map visualization
+     * Ask for the display to be refreshed at the next frame. Callable from any thread;
+     * several requests before the frame make a single refresh.
      */
-    private void updateMapVisualization() {
-        for (Map.Entry<Location, LocationMapNode> entry : locationNodeMap.entrySet()) {
-            entry.getValue().updateDisplay();
+    private void requestRefresh() {
+        refreshRequested.set(true);
+    }
+
+    /**
+     * Redraw the map nodes, statistics and details of the locations changed since they were last displayed
+     */
+    private void refreshChanged() {
+        boolean changed = false;
+        for (LocationMapNode node : locationNodeMap.values()) {
+            changed |= node.refresh();
+        }
+        if (mapCanvas != null) {
+            changed |= mapCanvas.refresh();
+        }
+        if (changed) {
+            gameState.updateTotalPopulation();
+            updateStatistics();
+        }
+        if (selectedLocation != renderedLocation
+                || (selectedLocation != null && selectedLocation.getRevision() != renderedLocationRevision)) {
+            updateLocationDetails();
         }
     }
 
@@ -247,45 +342,80 @@ public class GameViewController implements Initializable {
         for (Map.Entry<Location, LocationMapNode> entry : locationNodeMap.entrySet()) {
             entry.getValue().setSelected(entry.getKey() == location);
         }
+        if (mapCanvas != null) {
+            mapCanvas.setSelected(location);
+        }
     }
 
     /**
      * Update the location details panel
      */
     private void updateLocationDetails() {
+        renderedLocation = selectedLocation;
         if (selectedLocation == null) {
             locationNameLabel.setText("No location selected");
             locationTypeLabel. setText("");
             locationAreaLabel.setText("");
-            characterList.setItems(FXCollections.observableArrayList());
-            foodList.setItems(FXCollections.observableArrayList());
+            characterList.getItems().clear();
+            foodList.getItems().clear();
             hideBattlefieldControls();
             return;
         }
 
+        // Lue avant le contenu : un changement pendant l'affichage sera redessiné à l'image suivante
+        renderedLocationRevision = selectedLocation.getRevision();
         locationNameLabel.setText(selectedLocation. getName());
         locationTypeLabel. setText("Type: " + selectedLocation.getType());
         locationAreaLabel. setText("Area: " + selectedLocation.getSuperficie());
 
-        ObservableList<String> characters = FXCollections.observableArrayList();
-        for (Character c : selectedLocation.getCharacters()) {
-            String charInfo = String.format("%s (Health: %. 1f, Hungry: %s)",
-                    c.getName(), c.getHealth(), c.isHungry() ? "Yes" : "No");
-            characters.add(charInfo);
-        }
-        characterList.setItems(characters);
-
-        ObservableList<String> foods = FXCollections. observableArrayList();
-        for (Food f : selectedLocation.getFoods()) {
-            foods. add(f.toString());
+        List<Long> characters = new ArrayList<>();
+        List<String> foods = new ArrayList<>();
+        synchronized (selectedLocation) { // Un combat peut tourner sur ce lieu
+            for (Character c : selectedLocation.getCharactersView()) {
+                characters.add(c.getId());
+            }
+            for (Food f : selectedLocation.getFoodsView()) {
+                foods. add(f.toString());
+            }
         }
-        foodList.setItems(foods);
+        updateRows(characterList.getItems(), characters);
+        CharacterListCell.refreshAll(characterCells); // Santé et faim des lignes visibles
+        updateRows(foodList.getItems(), foods);
 
         if (selectedLocation instanceof Battlefield) {
             showBattlefieldControls((Battlefield) selectedLocation);
         } else {
             hideBattlefieldControls();
         }
+        updateFightButton();
+    }
+
+    /**
+     * Replace the rows of a list by new ones, touching only the rows that differ,
+     * or all of them at once when most differ
+     */
+    private static <T> void updateRows(ObservableList<T> rows, List<T> updated) {
+        int common = Math.min(rows.size(), updated.size());
+        int changes = Math.abs(rows.size() - updated.size());
+        for (int i = 0; i < common && changes <= MAX_ROW_UPDATES; i++) {
+            if (!rows.get(i).equals(updated.get(i))) {
+                changes++;
+            }
+        }
+        if (changes > MAX_ROW_UPDATES) {
+            rows.setAll(updated);
+            return;
+        }
+        for (int i = 0; i < common; i++) {
+            if (!rows.get(i).equals(updated.get(i))) {
+                rows.set(i, updated.get(i));
+            }
+        }
+        if (rows.size() > common) {
+            rows.remove(common, rows.size());
+        } else if (updated.size() > common) {
+            rows.addAll(updated.subList(common, updated.size()));
+        }
     }
 
     /**
@@ -309,31 +439,41 @@ public class GameViewController implements Initializable {
         statusLabel.setStyle("-fx-font-weight: bold;");
 
         // NOUVEAU : Afficher le statut du combat
-        long aliveCount = battlefield.getCharacters().stream()
-                .filter(c -> c.getHealth() > 0)
-                .count();
+        long aliveCount;
+        synchronized (battlefield) {
+            aliveCount = battlefield.getCharactersView().stream()
+                    .filter(c -> c.getHealth() > 0)
+                    .count();
+        }
 
         Label combatStatusLabel = new Label("Combattants vivants: " + aliveCount);
         combatStatusLabel. setStyle("-fx-font-size: 12px;");
 
+        BattleScheduler scheduler = gameState.getBattleScheduler();
+        Label throughputLabel = new Label(String.format("Combats en cours : %d (%.1f rounds/s)",
+                scheduler.getActiveBattleCount(), scheduler.getThroughput()));
+        throughputLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: gray;");
+
+        Button allFightsBtn = new Button("Combattre partout");
+        allFightsBtn.setDisable(!isRunning);
+        allFightsBtn.setOnAction(e -> startAllFights());
+
         Button startBattleBtn = new Button("Start Battle");
-        startBattleBtn.setDisable(! battlefield.canStartBattle());
+        startBattleBtn.setDisable(! battlefield.canStartBattle() || scheduler.isFighting(battlefield));
         startBattleBtn.setOnAction(e -> {
-            battlefield.startBattle();
+            gameState.execute(battlefield, "battle", "", battlefieldIndex(battlefield));
             gameState.addEvent("Battle started at " + battlefield.getName());
             gameState.addEvent("Battle ended with " + battlefield.getCharactersNbr() + " survivors");
-            updateLocationDetails();
-            updateMapVisualization();
+            requestRefresh();
         });
 
         Button returnAllBtn = new Button("Return All to Origins");
-        returnAllBtn.setDisable(battlefield.getCharactersNbr() == 0);
+        returnAllBtn.setDisable(battlefield.getCharactersNbr() == 0 || scheduler.isFighting(battlefield));
         returnAllBtn.setOnAction(e -> {
             int count = battlefield.getCharactersNbr();
-            battlefield.returnSurvivorsToOrigins();
+            gameState.execute(battlefield, "return", "", battlefieldIndex(battlefield));
             gameState.addEvent("Returned " + count + " characters to their origins from " + battlefield.getName());
-            updateLocationDetails();
-            updateMapVisualization();
+            requestRefresh();
         });
 
         Label infoLabel = new Label();
@@ -351,7 +491,8 @@ public class GameViewController implements Initializable {
             infoLabel.setStyle("-fx-text-fill: orange;");
         }
 
-        battlefieldControlsBox. getChildren().addAll(statusLabel, combatStatusLabel, infoLabel, startBattleBtn, returnAllBtn);
+        battlefieldControlsBox. getChildren().addAll(statusLabel, combatStatusLabel, throughputLabel, infoLabel,
+                startBattleBtn, allFightsBtn, returnAllBtn);
     }
 
     /**
@@ -380,27 +521,11 @@ public class GameViewController implements Initializable {
      * Update statistics labels
      */
     private void updateStatistics() {
-        Theater theater = gameState.getTheater();
+        GameState.GameStatistics statistics = gameState.getStatistics();
 
-        int gaulCount = 0;
-        int romanCount = 0;
-        int lycanthropeCount = 0;
-
-        for (Location location : theater.getLocations()) {
-            for (Character character : location.getCharacters()) {
-                if (character instanceof models.people.Gaul) {
-                    gaulCount++;
-                } else if (character instanceof models.people.Roman) {
-                    romanCount++;
-                } else if (character instanceof models.people.Werewolf) {
-                    lycanthropeCount++;
-                }
-            }
-        }
-
-        gaulCountLabel.setText(String.valueOf(gaulCount));
-        romanCountLabel.setText(String.valueOf(romanCount));
-        lycanthropeCountLabel.setText(String.valueOf(lycanthropeCount));
+        gaulCountLabel.setText(String.valueOf(statistics.gaulCount));
+        romanCountLabel.setText(String.valueOf(statistics.romanCount));
+        lycanthropeCountLabel.setText(String.valueOf(statistics.lycanthropeCount));
     }
 
     /**
@@ -442,11 +567,6 @@ public class GameViewController implements Initializable {
             isRunning = false;
             playPauseButton.setText("Play");
 
-            // Arrêter le combat en cours
-            if (fightInProgress) {
-                stopFight();
-            }
-
             stopSimulation();
             gameState. addEvent("⏸️ Partie en pause");
 
@@ -460,7 +580,7 @@ public class GameViewController implements Initializable {
     }
 
     /**
-     * NOUVEAU : Démarrer le combat continu
+     * NOUVEAU : Démarrer ou arrêter le combat du champ de bataille sélectionné
      */
     @FXML
     private void onStartFight() {
@@ -477,124 +597,90 @@ public class GameViewController implements Initializable {
         }
 
         Battlefield battlefield = (Battlefield) selectedLocation;
+        BattleScheduler scheduler = gameState.getBattleScheduler();
 
-        // Vérifier qu'il y a des combattants
-        if (battlefield. getCharacters().isEmpty()) {
-            showAlert("Info", "Aucun combattant sur ce champ de bataille !");
+        // Un second clic arrête le combat de ce champ de bataille seulement
+        if (scheduler.cancel(battlefield)) {
+            updateFightButton();
             return;
         }
 
-        // Démarrer le combat continu
-        fightInProgress = true;
-        startFightButton.setText("Combat en cours.. .");
-        startFightButton.setDisable(true);
-
-        gameState.addEvent("⚔️ Combat lancé sur " + battlefield.getName() + " !");
+        // Vérifier qu'il y a des adversaires
+        if (!battlefield.canStartBattle()) {
+            showAlert("Info", "Il faut des Gaulois et des Romains sur ce champ de bataille !");
+            return;
+        }
 
-        // Lancer le timer de combat
-        startContinuousFight(battlefield);
+        startFight(battlefield);
+        updateFightButton();
     }
 
     /**
-     * NOUVEAU :  Système de combat continu
+     * NOUVEAU : Lancer en même temps le combat de chaque champ de bataille prêt
      */
-    private void startContinuousFight(Battlefield battlefield) {
-        fightTimer = new Timer(true);
-
-        fightTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    // Vérifier si le jeu est en pause
-                    if (!isRunning) {
-                        stopFight();
-                        return;
-                    }
-
-                    // Vérifier s'il reste des combattants vivants
-                    List<Character> aliveCombatants = battlefield. getCharacters().stream()
-                            .filter(c -> c. getHealth() > 0)
-                            .collect(Collectors. toList());
-
-                    if (aliveCombatants.size() < 2) {
-                        // Plus assez de combattants
-                        stopFight();
-                        gameState.addEvent("🏁 Combat terminé - " + aliveCombatants.size() + " survivant(s)");
-
-                        // Renvoyer les survivants à leur lieu d'origine
-                        returnSurvivorsToOrigin(battlefield);
-                        return;
-                    }
-
-                    // Effectuer un round de combat
-                    performFightRound(battlefield, aliveCombatants);
-
-                    // Mettre à jour l'affichage
-                    updateLocationDetails();
-                });
+    private void startAllFights() {
+        for (Location location : gameState.getTheater().getLocations()) {
+            if (location instanceof Battlefield battlefield && battlefield.canStartBattle()
+                    && !gameState.getBattleScheduler().isFighting(battlefield)) {
+                startFight(battlefield);
             }
-        }, 0, 2000); // Combat toutes les 2 secondes
+        }
+        updateLocationDetails();
     }
 
-    /**
-     * NOUVEAU : Arrêter le combat
-     */
-    private void stopFight() {
-        if (fightTimer != null) {
-            fightTimer.cancel();
-            fightTimer = null;
+    private void startFight(Battlefield battlefield) {
+        BattleScheduler scheduler = gameState.getBattleScheduler();
+        scheduler.setRoundsPerSecond(BattleScheduler.DEFAULT_ROUNDS_PER_SECOND * gameState.getSimulationSpeed());
+        if (scheduler.getActiveBattleCount() == 0) {
+            scheduler.resetThroughput();
         }
+        scheduler.start(battlefield);
+        gameState.addEvent("⚔️ Combat lancé sur " + battlefield.getName() + " !");
+    }
 
-        fightInProgress = false;
+    /**
+     * NOUVEAU : Fin d'un combat, sur le thread FX
+     */
+    private void onFightEnded(BattleScheduler.Battle battle) {
+        Battlefield battlefield = battle.getBattlefield();
+        if (battle.isCancelled()) {
+            gameState.addEvent("⏹️ Combat arrêté sur " + battlefield.getName());
+        } else {
+            gameState.addEvent("🏁 Combat terminé sur " + battlefield.getName() + " - "
+                    + battlefield.getCharactersNbr() + " survivant(s)");
 
-        if (startFightButton != null) {
-            startFightButton. setText("Démarrer Combat");
-            startFightButton. setDisable(false);
+            // Renvoyer les survivants à leur lieu d'origine
+            returnSurvivorsToOrigin(battlefield);
+        }
+        if (selectedLocation == battlefield) {
+            updateLocationDetails();
         }
     }
 
     /**
-     * NOUVEAU : Effectuer un round de combat
+     * NOUVEAU : Texte du bouton de combat selon le champ de bataille sélectionné
      */
-    private void performFightRound(Battlefield battlefield, List<Character> combatants) {
-        Random random = new Random();
-
-        if (combatants.size() >= 2) {
-            Character fighter1 = combatants.get(random.nextInt(combatants.size()));
-            Character fighter2 = combatants.get(random.nextInt(combatants.size()));
-
-            if (fighter1 != fighter2) {
-                // Combat entre les deux
-                fighter1.fight(fighter2);
-
-                gameState.addEvent(String.format("⚔️ %s attaque %s (HP: %.0f)",
-                        fighter1.getName(),
-                        fighter2.getName(),
-                        fighter2.getHealth()));
-
-                // Vérifier si quelqu'un est mort
-                if (fighter2.getHealth() <= 0) {
-                    gameState.addEvent("💀 " + fighter2.getName() + " est tombé au combat !");
-                }
-            }
-        }
+    private void updateFightButton() {
+        if (startFightButton == null) return;
+        boolean fighting = selectedLocation instanceof Battlefield battlefield
+                && gameState.getBattleScheduler().isFighting(battlefield);
+        startFightButton.setText(fighting ? "Arrêter Combat" : "Démarrer Combat");
+        startFightButton.setDisable(!gameStarted);
     }
 
     /**
      * NOUVEAU : Renvoyer les survivants à leur lieu d'origine
      */
     private void returnSurvivorsToOrigin(Battlefield battlefield) {
-        List<Character> survivors = battlefield.getCharacters().stream()
-                .filter(c -> c.getHealth() > 0)
-                .collect(Collectors.toList());
-
-        for (Character survivor : survivors) {
-            gameState.addEvent("🏠 " + survivor.getName() + " retourne à sa base");
+        synchronized (battlefield) {
+            for (Character survivor : battlefield.getCharactersView()) {
+                if (survivor.getHealth() > 0) {
+                    gameState.addEvent("🏠 " + survivor.getName() + " retourne à sa base");
+                }
+            }
         }
-
-        battlefield.returnSurvivorsToOrigins();
-        updateDisplay();
-        updateMapVisualization();
+        gameState.execute(battlefield, "return", "", battlefieldIndex(battlefield));
+        requestRefresh();
     }
 
     // ==================== FIN DES NOUVELLES MÉTHODES ====================
@@ -612,42 +698,103 @@ public class GameViewController implements Initializable {
     }
 
     private void startSimulation() {
-        if (simulationTimer != null) {
-            simulationTimer.cancel();
-        }
-
-        simulationTimer = new Timer(true);
-        simulationTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform. runLater(() -> {
-                    gameState.incrementTurn();
-                    gameState.getTheater().simulationStep();
-                    updateDisplay();
-                    updateMapVisualization();
-                });
-            }
-        }, 0, 5000);
+        SimulationEngine engine = gameState.getSimulationEngine();
+        engine.stop();
+        if (turnListener != null) {
+            engine.removeTurnListener(turnListener);
+        }
+
+        // Le moteur cadence les tours, mais chaque tour s'exécute sur le thread FX
+        turnListener = turn -> {
+            gameState.incrementTurn();
+            requestRefresh(); // Rien n'est redessiné si aucun lieu n'a changé pendant le tour
+        };
+        engine.addTurnListener(turnListener);
+        engine.setStepExecutor(Platform::runLater);
+        engine.setMode(SimulationEngine.Mode.REAL_TIME);
+        engine.start();
     }
 
     /**
      * MODIFIÉ : Arrêter aussi le combat lors de la pause
      */
     private void stopSimulation() {
-        if (simulationTimer != null) {
-            simulationTimer.cancel();
-            simulationTimer = null;
+        SimulationEngine engine = gameState.getSimulationEngine();
+        engine.stop();
+        if (turnListener != null) {
+            engine.removeTurnListener(turnListener);
+            turnListener = null;
         }
 
-        // NOUVEAU : Arrêter aussi le combat
-        if (fightInProgress) {
-            stopFight();
-            gameState.addEvent("⏸️ Combat interrompu (pause)");
+        // NOUVEAU : Arrêter aussi les combats
+        if (gameState.getBattleScheduler().getActiveBattleCount() > 0) {
+            gameState.getBattleScheduler().cancelAll();
+            gameState.addEvent("⏸️ Combats interrompus (pause)");
+        }
+    }
+
+    // ==================== SAUVEGARDE ====================
+
+    /**
+     * Sauvegarde automatique tous les {@link #AUTOSAVE_INTERVAL} tours, dans le dossier de l'utilisateur
+     */
+    private void enableAutosave() {
+        if (gameState.getAutosave() != null) return;
+        try {
+            Files.createDirectories(AUTOSAVE_PATH.getParent());
+            gameState.enableAutosave(AUTOSAVE_PATH, AUTOSAVE_INTERVAL);
+        } catch (IOException e) {
+            gameState.addEvent("⚠️ Sauvegarde automatique désactivée : " + e.getMessage());
+        }
+    }
+
+    private FileChooser saveFileChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Partie Armorique", "*" + SAVE_EXTENSION));
+        if (Files.isDirectory(AUTOSAVE_PATH.getParent())) {
+            chooser.setInitialDirectory(AUTOSAVE_PATH.getParent().toFile());
+        }
+        return chooser;
+    }
+
+    @FXML
+    private void onSave() {
+        File file = saveFileChooser("Sauvegarder la partie").showSaveDialog(mapPane.getScene().getWindow());
+        if (file == null) return;
+        try {
+            gameState.saveGame(file.toPath());
+            gameState.addEvent("💾 Partie sauvegardée (tour " + gameState.getTurnNumber() + ")");
+        } catch (IOException e) {
+            showAlert("Erreur", "Sauvegarde impossible : " + e.getMessage());
         }
     }
 
+    @FXML
+    private void onLoad() {
+        File file = saveFileChooser("Charger une partie").showOpenDialog(mapPane.getScene().getWindow());
+        if (file == null) return;
+        if (isRunning) {
+            onPlayPause(); // Les tours et les combats de l'ancien théâtre s'arrêtent
+        }
+        try {
+            gameState.loadGame(file.toPath());
+        } catch (IOException e) {
+            showAlert("Erreur", "Chargement impossible : " + e.getMessage());
+            return;
+        }
+        selectedLocation = null;
+        renderedLocation = null;
+        updateLocationDetails();
+        createMapVisualization();
+        updateDisplay();
+        updateClanChiefInfo();
+    }
+
     @FXML
     private void onMenu() {
+        gameState.getBattleScheduler().removeBattleListener(battleListener);
+        refreshTimer.stop();
         ArmoriqueApp.showMainMenu();
     }
 
@@ -658,13 +805,10 @@ public class GameViewController implements Initializable {
             return;
         }
 
-        ClanLeader chief = gameState.getPlayerClanLeader();
-        if (chief != null) {
-            chief.setLocation(selectedLocation);
-            chief.createCharacter(chief.randomCharacterData());
+        if (gameState.getPlayerClanLeader() != null) {
+            gameState.execute(selectedLocation, "create", "", "");
             gameState.addEvent("Character created at " + selectedLocation.getName());
-            updateDisplay();
-            updateMapVisualization();
+            requestRefresh();
         }
     }
 
@@ -675,12 +819,10 @@ public class GameViewController implements Initializable {
             return;
         }
 
-        ClanLeader chief = gameState. getPlayerClanLeader();
-        if (chief != null) {
-            chief.setLocation(selectedLocation);
-            chief.healCharacters();
+        if (gameState.getPlayerClanLeader() != null) {
+            gameState.execute(selectedLocation, "heal", "", "");
             gameState.addEvent("All characters healed at " + selectedLocation.getName());
-            updateLocationDetails();
+            requestRefresh();
         }
     }
 
@@ -691,12 +833,10 @@ public class GameViewController implements Initializable {
             return;
         }
 
-        ClanLeader chief = gameState.getPlayerClanLeader();
-        if (chief != null) {
-            chief.setLocation(selectedLocation);
-            chief.feedCharacters();
+        if (gameState.getPlayerClanLeader() != null) {
+            gameState.execute(selectedLocation, "feed", "", "");
             gameState. addEvent("All characters fed at " + selectedLocation.getName());
-            updateLocationDetails();
+            requestRefresh();
         }
     }
 
@@ -707,10 +847,8 @@ public class GameViewController implements Initializable {
             return;
         }
 
-        ClanLeader chief = gameState.getPlayerClanLeader();
-        if (chief != null) {
-            chief.setLocation(selectedLocation);
-            boolean success = chief.preparePotion();
+        if (gameState.getPlayerClanLeader() != null) {
+            boolean success = "Potion prepared".equals(gameState.execute(selectedLocation, "magic", "", ""));
             if (success) {
                 gameState.addEvent("Potion prepared at " + selectedLocation.getName());
                 showAlert("Success", "Magic potion prepared successfully!");
@@ -718,7 +856,7 @@ public class GameViewController implements Initializable {
                 gameState.addEvent("Failed to prepare potion at " + selectedLocation.getName());
                 showAlert("Failed", "Could not prepare potion. Need druid and ingredients.");
             }
-            updateLocationDetails();
+            requestRefresh();
         }
     }
 
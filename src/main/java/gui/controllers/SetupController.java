@@ -15,7 +15,7 @@ import models.people.Character;
 import models.theater.Theater;
 
 import java.net.URL;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.ResourceBundle;
 
 /**
@@ -180,7 +180,7 @@ public class SetupController implements Initializable {
      */
     private void setupCustomGame() {
         Theater theater = new Theater();
-        Random random = new Random();
+        SplittableRandom random = theater.getRandomSource().split();
 
         // Get configuration from UI
         String theaterName = theaterNameField.getText();
@@ -263,7 +263,7 @@ public class SetupController implements Initializable {
     /**
      * Create a random character appropriate for the location type
      */
-    private Character createRandomCharacterForLocation(LocationType type, double strength, Random random) {
+    private Character createRandomCharacterForLocation(LocationType type, double strength, SplittableRandom random) {
         String[] names = {"Marcus", "Julius", "Asterix", "Obelix", "Getafix", "Vitalstatistix",
                 "Fulliautomatix", "Cacofonix", "Impedimenta", "Panacea"};
         String name = names[random.nextInt(names.length)] + random.nextInt(100);
@@ -1,87 +1,212 @@
 package gui.utils;
 
+import javafx.application.Platform;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import models.utils.BoundedLruCache;
 
-import java.util.HashMap;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility class for loading and caching game assets
+ * <p>
+ * Images are decoded on background threads and kept in an LRU cache bounded by their decoded size
+ * (4 bytes per pixel). The non-blocking methods return a placeholder until the image is ready, so the
+ * FX thread never waits for a decode; resources found missing are remembered and not looked up again.
+ * Every method can be called from any thread.
  */
 public class AssetLoader {
-    
-    private static AssetLoader instance;
-    private final Map<String, Image> imageCache = new HashMap<>();
-    
-    private AssetLoader() {
-        // Private constructor for singleton
-    }
-    
+
+    public static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final String VIEW_PATH_KEY = "assetLoader.path";
+
+    private static final class Holder {
+        private static final AssetLoader INSTANCE = new AssetLoader(DEFAULT_CACHE_BYTES);
+    }
+
+    private final BoundedLruCache<String, Image> imageCache;
+    private final Set<String> missing = ConcurrentHashMap.newKeySet(); // Cache négatif
+    private final Map<String, CompletableFuture<Image>> decoding = new ConcurrentHashMap<>();
+    private final ExecutorService decoder;
+    private Image placeholder;
+
+    AssetLoader(long cacheBytes) {
+        imageCache = new BoundedLruCache<>(cacheBytes, AssetLoader::decodedBytes);
+        AtomicInteger count = new AtomicInteger();
+        int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors()));
+        decoder = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public static AssetLoader getInstance() {
-        if (instance == null) {
-            instance = new AssetLoader();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Memory taken by a decoded image
+     */
+    static long decodedBytes(Image image) {
+        return (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4;
+    }
+
+    // ==================== CHARGEMENT ====================
+
+    /**
+     * Get an image without waiting: the cached image, or the placeholder while it is being decoded
+     * @return the image, the placeholder, or null if the resource does not exist
+     */
+    public Image getImage(String path) {
+        CompletableFuture<Image> pending = loadImageAsync(path);
+        return pending.isDone() ? pending.join() : getPlaceholder();
     }
-    
+
     /**
-     * Load an image from resources
+     * Decode an image in the background, or get it from the cache
+     * @return the image once decoded, completed with null if the resource does not exist
+     */
+    public CompletableFuture<Image> loadImageAsync(String path) {
+        Image cached = imageCache.get(path);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        if (missing.contains(path)) return CompletableFuture.completedFuture(null);
+        return decodeAsync(path);
+    }
+
+    private CompletableFuture<Image> decodeAsync(String path) {
+        // Un seul décodage par image, même demandée par plusieurs cellules à la fois
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> running = decoding.putIfAbsent(path, created);
+        if (running != null) return running;
+        decoder.execute(() -> {
+            Image image = decode(path); // Déjà en cache, ou marquée manquante, avant de quitter la table
+            decoding.remove(path, created);
+            created.complete(image);
+        });
+        return created;
+    }
+
+    /**
+     * Load an image from resources, waiting for it to be decoded. Do not call it on the FX thread:
+     * use {@link #getImage} or {@link #loadInto} there.
+     * @return the image, or null if the resource does not exist
      */
     public Image loadImage(String path) {
-        if (imageCache.containsKey(path)) {
-            return imageCache.get(path);
+        return loadImageAsync(path).join();
+    }
+
+    /**
+     * Show an image in a view: the placeholder right away, the image once decoded. If the view is given
+     * another image in between, the late one is dropped.
+     */
+    public void loadInto(ImageView view, String path) {
+        view.getProperties().put(VIEW_PATH_KEY, path);
+        // Une seule consultation du cache : le décodage éventuel est celui qu'on attend ensuite
+        CompletableFuture<Image> pending = loadImageAsync(path);
+        if (pending.isDone()) {
+            view.setImage(pending.join());
+            return;
         }
-        
-        try {
-            var stream = getClass().getResourceAsStream(path);
+        view.setImage(getPlaceholder());
+        pending.thenAccept(loaded -> Platform.runLater(() -> {
+            if (path.equals(view.getProperties().get(VIEW_PATH_KEY))) {
+                view.setImage(loaded);
+            }
+        }));
+    }
+
+    private Image decode(String path) {
+        try (InputStream stream = getClass().getResourceAsStream(path)) {
             if (stream == null) {
                 System.err.println("Resource not found: " + path);
+                missing.add(path);
                 return null;
             }
             Image image = new Image(stream);
+            if (image.isError()) {
+                throw image.getException() != null
+                        ? image.getException() : new IllegalStateException("decoding failed");
+            }
             imageCache.put(path, image);
             return image;
         } catch (Exception e) {
             System.err.println("Failed to load image: " + path + " - " + e.getMessage());
+            missing.add(path);
             return null;
         }
     }
-    
+
+    /**
+     * Image shown while the real one is being decoded: a single transparent pixel
+     */
+    public synchronized Image getPlaceholder() {
+        if (placeholder == null) {
+            placeholder = new WritableImage(1, 1);
+        }
+        return placeholder;
+    }
+
     /**
      * Load a character portrait
      */
     public Image loadCharacterPortrait(String characterType) {
         String path = "/images/portraits/" + characterType.toLowerCase() + ".png";
-        return loadImage(path);
+        return getImage(path);
     }
-    
+
     /**
      * Load a location icon
      */
     public Image loadLocationIcon(String locationType) {
         String path = "/images/icons/" + locationType.toLowerCase() + ".png";
-        return loadImage(path);
+        return getImage(path);
     }
-    
+
     /**
      * Load a food icon
      */
     public Image loadFoodIcon(String foodType) {
         String path = "/images/icons/food/" + foodType.toLowerCase() + ".png";
-        return loadImage(path);
+        return getImage(path);
     }
-    
+
+    // ==================== CACHE ====================
+
     /**
-     * Clear the cache
+     * Clear the cache, including the resources known to be missing
      */
     public void clearCache() {
         imageCache.clear();
+        missing.clear();
     }
-    
+
     /**
      * Get cache size
      */
     public int getCacheSize() {
         return imageCache.size();
     }
+
+    /**
+     * Get the hit, miss and eviction counters and the decoded bytes cached
+     */
+    public BoundedLruCache.Stats getCacheStats() {
+        return imageCache.stats();
+    }
+
+    /**
+     * Get the number of resources known to be missing
+     */
+    public int getMissingCount() {
+        return missing.size();
+    }
 }
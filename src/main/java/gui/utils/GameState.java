@@ -1,12 +1,33 @@
 package gui.utils;
 
 import models.theater.Theater;
+import models.theater.TheaterListener;
+import models.location.Battlefield;
 import models.location.Location;
+import models.people.Character;
+import models.people.Gaul;
+import models.people.Roman;
+import models.people.Werewolf;
 import models.clanLeader. ClanLeader;
+import models.persistence.Autosave;
+import models.persistence.MappedTheaterFile;
+import models.replay.ReplayEngine;
+import models.simulation.BattleScheduler;
+import models.simulation.SimulationEngine;
+import models.utils.RandomSource;
+import models.utils.EventRing;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * GameState manages the state of the simulation and provides observable properties
  * for UI binding
@@ -15,6 +36,11 @@ public class GameState {
 
     private Theater theater;
     private ClanLeader playerClanLeader;
+    private SimulationEngine simulationEngine;
+    private BattleScheduler battleScheduler;
+    private volatile ReplayEngine replayEngine; // Lu par les threads des combats
+
+    public static final int REPLAY_CHECKPOINT_INTERVAL = 50;
 
     // Observable properties for UI binding
     private final IntegerProperty turnNumber = new SimpleIntegerProperty(0);
@@ -23,13 +49,58 @@ public class GameState {
     private final IntegerProperty totalPopulation = new SimpleIntegerProperty(0);
     private final ObservableList<String> eventLog = FXCollections.observableArrayList();
 
+    // Events are published to a lock-free ring from any thread and copied to eventLog once per frame
+    public static final int DEFAULT_EVENT_LOG_CAPACITY = 100;
+    private volatile EventRing<String> events = new EventRing<>(DEFAULT_EVENT_LOG_CAPACITY);
+    private int eventLogCapacity = DEFAULT_EVENT_LOG_CAPACITY;
+    private long eventCursor = 0;
+    private final List<String> eventBatch = new ArrayList<>();
+    private AnimationTimer eventPump;
+
+    // Sauvegarde automatique, null si désactivée
+    private Autosave autosave;
+
     // Game configuration
     private String theaterName = "Armorique";
     private int mapSize = 5;
     private double simulationSpeed = 1.0;
 
+    // Statistics kept up to date by the theater events, from the FX thread and the battle threads
+    private int population;
+    private int gaulCount;
+    private int romanCount;
+    private int lycanthropeCount;
+    private int battlefieldCount;
+    private final AtomicInteger deathCount = new AtomicInteger();
+    private final TheaterListener statisticsListener = new TheaterListener() {
+        @Override
+        public void onCharacterAdded(Location location, Character character) {
+            count(character, 1);
+        }
+
+        @Override
+        public void onCharacterRemoved(Location location, Character character) {
+            count(character, -1);
+        }
+
+        @Override
+        public void onCharacterDied(Location location, Character character) {
+            deathCount.incrementAndGet();
+        }
+
+        @Override
+        public void onLocationAdded(Location location) {
+            count(location, 1);
+        }
+
+        @Override
+        public void onLocationRemoved(Location location) {
+            count(location, -1);
+        }
+    };
+
     public GameState() {
-        this.theater = new Theater();
+        setTheater(new Theater());
     }
 
     // ==================== GETTERS AND SETTERS ====================
@@ -39,7 +110,91 @@ public class GameState {
     }
 
     public void setTheater(Theater theater) {
+        if (this.theater != null) {
+            this.theater.removeListener(statisticsListener);
+        }
+        if (battleScheduler != null) {
+            battleScheduler.cancelAll(); // Les combats de l'ancien théâtre s'arrêtent
+            battleScheduler.setRoundLock(null);
+        }
+        replayEngine = null;
         this.theater = theater;
+        recountStatistics();
+        if (theater != null) {
+            theater.addListener(statisticsListener);
+        }
+    }
+
+    /**
+     * Get the engine driving the current theater, created on first use.
+     * A new engine is created whenever the theater has been replaced.
+     */
+    public SimulationEngine getSimulationEngine() {
+        if (simulationEngine == null || simulationEngine.getTheater() != theater) {
+            if (simulationEngine != null) {
+                simulationEngine.stop();
+            }
+            simulationEngine = new SimulationEngine(theater);
+            simulationEngine.setSpeed(simulationSpeed);
+        }
+        simulationEngine.setRecorder(getReplayEngine()); // Chaque tour est enregistré
+        return simulationEngine;
+    }
+
+    /**
+     * Get the scheduler running the battles of every battlefield, created on first use.
+     * Its rounds are recorded by the replay engine of the game.
+     */
+    public BattleScheduler getBattleScheduler() {
+        if (battleScheduler == null) {
+            battleScheduler = new BattleScheduler();
+            battleScheduler.addBattleListener(new BattleScheduler.BattleListener() {
+                @Override
+                public void onRound(BattleScheduler.Battle battle) {
+                    ReplayEngine engine = replayEngine;
+                    if (engine != null) {
+                        engine.recordRound(battle.getBattlefield());
+                    }
+                }
+            });
+            if (replayEngine != null) {
+                battleScheduler.setRoundLock(replayEngine.getRoundLock());
+            }
+        }
+        return battleScheduler;
+    }
+
+    /**
+     * Get the engine recording the game, started on first use and again whenever the theater or the
+     * clan leader has been replaced: the game can then be replayed from that point (see
+     * {@link ReplayEngine#seek}). Starting a recording gives the theater new random generators.
+     */
+    public ReplayEngine getReplayEngine() {
+        ReplayEngine engine = replayEngine;
+        if (engine == null || engine.getTheater() != theater
+                || (playerClanLeader != null && engine.getLeader() != playerClanLeader)) {
+            engine = startRecording(ReplayEngine.record(theater, playerClanLeader, REPLAY_CHECKPOINT_INTERVAL));
+        }
+        return engine;
+    }
+
+    private ReplayEngine startRecording(ReplayEngine engine) {
+        replayEngine = engine;
+        getBattleScheduler().setRoundLock(engine.getRoundLock());
+        return engine;
+    }
+
+    /**
+     * Run a clan leader command on a location of the theater, recorded for replay.
+     * The clan leader moves to that location.
+     * @param location the location
+     * @param input the command (see {@link ClanLeader#garmin})
+     * @param charId the character argument
+     * @param locId the location argument
+     * @return the feedback of the command
+     */
+    public String execute(Location location, String input, String charId, String locId) {
+        return getReplayEngine().execute(location, input, charId, locId);
     }
 
     public ClanLeader getPlayerClanLeader() {
@@ -69,6 +224,9 @@ public class GameState {
      */
     public void incrementTurn() {
         turnNumber.set(turnNumber.get() + 1);
+        if (autosave != null && theater != null) {
+            autosave.onTurn(theater, turnNumber.get());
+        }
     }
 
     public StringProperty selectedLocationNameProperty() {
@@ -111,10 +269,76 @@ public class GameState {
         return eventLog;
     }
 
+    /**
+     * Publish an event, from any thread. It shows in {@link #getEventLog()} at the next frame
+     * once {@link #startEventPump()} has been called, or at the next {@link #flushEvents()}.
+     */
     public void addEvent(String event) {
-        eventLog.add(0, event); // Add to beginning
-        if (eventLog.size() > 100) {
-            eventLog.remove(100, eventLog.size()); // Keep only last 100 events
+        events.publish(event);
+    }
+
+    /**
+     * Copy the events published since the last flush to the event log, newest first,
+     * with a single insertion. Must be called on the FX thread.
+     * @return the number of events added
+     */
+    public int flushEvents() {
+        eventCursor = events.drain(eventCursor, eventBatch::add);
+        int added = eventBatch.size();
+        if (added == 0) return 0;
+
+        Collections.reverse(eventBatch);
+        if (eventBatch.size() > eventLogCapacity) {
+            eventBatch.subList(eventLogCapacity, eventBatch.size()).clear();
+        }
+        eventLog.addAll(0, eventBatch);
+        if (eventLog.size() > eventLogCapacity) {
+            eventLog.remove(eventLogCapacity, eventLog.size()); // Keep only the last events
+        }
+        eventBatch.clear();
+        return added;
+    }
+
+    /**
+     * Flush the events at every frame (FX thread). Events published in between are coalesced.
+     */
+    public void startEventPump() {
+        if (eventPump != null) return;
+        eventPump = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flushEvents();
+            }
+        };
+        eventPump.start();
+    }
+
+    public void stopEventPump() {
+        if (eventPump != null) {
+            eventPump.stop();
+            eventPump = null;
+        }
+    }
+
+    public int getEventLogCapacity() {
+        return eventLogCapacity;
+    }
+
+    /**
+     * Set how many events the log keeps (100 by default). Must be called on the FX thread;
+     * events published by other threads during the change may be lost.
+     * @param capacity the number of events kept
+     */
+    public void setEventLogCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Event log capacity must be at least 1: " + capacity);
+        }
+        flushEvents();
+        eventLogCapacity = capacity;
+        events = new EventRing<>(capacity);
+        eventCursor = 0;
+        if (eventLog.size() > capacity) {
+            eventLog.remove(capacity, eventLog.size());
         }
     }
 
@@ -122,6 +346,7 @@ public class GameState {
      * NOUVEAU : Effacer le log d'événements
      */
     public void clearEventLog() {
+        eventCursor = events.getPublished();
         eventLog.clear();
     }
 
@@ -149,25 +374,70 @@ public class GameState {
 
     public void setSimulationSpeed(double simulationSpeed) {
         this.simulationSpeed = simulationSpeed;
+        if (simulationEngine != null) {
+            simulationEngine.setSpeed(simulationSpeed);
+        }
     }
 
     // ==================== GAME LOGIC ====================
 
     /**
-     * Calculate and update total population from all locations
+     * Update the total population property from the maintained counter
      */
     public void updateTotalPopulation() {
-        int total = 0;
+        int current;
+        synchronized (this) {
+            current = population;
+        }
+        setTotalPopulation(current);
+    }
 
-        if (theater != null && theater.getLocations() != null) {
+    /**
+     * Get the number of deaths in the theater since it was set
+     */
+    public int getDeathCount() {
+        return deathCount.get();
+    }
+
+    /**
+     * Count the whole theater once; the theater events keep the counters up to date afterwards
+     */
+    private synchronized void recountStatistics() {
+        population = 0;
+        gaulCount = 0;
+        romanCount = 0;
+        lycanthropeCount = 0;
+        battlefieldCount = 0;
+        deathCount.set(0);
+        if (theater != null) {
             for (Location location : theater.getLocations()) {
-                if (location != null && location.getCharacters() != null) {
-                    total += location.getCharacters().size();
-                }
+                count(location, 1);
             }
         }
+    }
 
-        setTotalPopulation(total);
+    private synchronized void count(Location location, int delta) {
+        if (location instanceof Battlefield) {
+            battlefieldCount += delta;
+        }
+        // Compteurs du répertoire pour un lieu pas encore chargé : on ne le charge pas
+        population += delta * location.getCharactersNbr();
+        gaulCount += delta * location.countCharacters(Gaul.class);
+        romanCount += delta * location.countCharacters(Roman.class);
+        lycanthropeCount += delta * location.countCharacters(Werewolf.class);
+    }
+
+    private synchronized void count(Character character, int delta) {
+        population += delta;
+        if (character instanceof Gaul) {
+            gaulCount += delta;
+        }
+        if (character instanceof Roman) {
+            romanCount += delta;
+        }
+        if (character instanceof Werewolf) {
+            lycanthropeCount += delta;
+        }
     }
 
     /**
@@ -178,15 +448,87 @@ public class GameState {
         selectedLocationName.set("");
         simulationRunning.set(false);
         totalPopulation.set(0);
-        eventLog.clear();
+        clearEventLog();
 
         // Créer un nouveau théâtre vide
-        this.theater = new Theater();
+        setTheater(new Theater());
         this.playerClanLeader = null;
 
         addEvent("🔄 Jeu réinitialisé");
     }
 
+    /**
+     * Save the theater and the current turn (see {@link MappedTheaterFile} for the format)
+     * @param path the save file
+     * @throws IOException if the file cannot be written
+     */
+    public void saveGame(Path path) throws IOException {
+        MappedTheaterFile.save(theater, getTurnNumber(), path);
+    }
+
+    /**
+     * Replace the theater and the turn by a saved game. The clan leader, if any, moves to the
+     * location of the same name in the loaded theater, or to its first location.
+     * Locations are read from the file the first time their content is needed. The recording of the
+     * game starts again from the loaded turn.
+     * @param path the save file
+     * @throws IOException if the file cannot be read or is not a valid save
+     */
+    public void loadGame(Path path) throws IOException {
+        MappedTheaterFile.Mapping save = MappedTheaterFile.map(path);
+        Theater loaded = save.open(RandomSource.forEpoch(save.getSeed(), save.getTurn()));
+        setTheater(loaded);
+        turnNumber.set((int) save.getTurn());
+        updateTotalPopulation();
+
+        if (playerClanLeader != null) {
+            Location location = playerClanLeader.getLocation() == null ? null
+                    : loaded.getLocationByName(playerClanLeader.getLocation().getName());
+            if (location == null && !loaded.getLocations().isEmpty()) {
+                location = loaded.getLocations().get(0);
+            }
+            playerClanLeader.setTheater(loaded);
+            playerClanLeader.setLocation(location);
+        }
+        // Le tour 0 de l'enregistrement est la sauvegarde rouverte : aucun lieu n'est chargé pour le copier
+        startRecording(ReplayEngine.record(loaded, playerClanLeader, REPLAY_CHECKPOINT_INTERVAL, save::open));
+        addEvent("💾 Partie chargée (tour " + save.getTurn() + ")");
+    }
+
+    /**
+     * Autosave the theater every {@code interval} turns (see {@link #incrementTurn()}), writing only the
+     * locations that changed since the previous autosave; the file is written on a background thread.
+     * Replaces the current autosave, if any.
+     * @param path the autosave file
+     * @param interval the number of turns between two autosaves
+     */
+    public void enableAutosave(Path path, int interval) {
+        disableAutosave();
+        autosave = new Autosave(path, interval);
+        autosave.setListener(result -> {
+            if (result.error() != null) {
+                addEvent("⚠️ Sauvegarde automatique impossible : " + result.error().getMessage());
+            } else {
+                addEvent("💾 Sauvegarde automatique (tour " + result.turn() + ", "
+                        + result.written() + "/" + result.locations() + " lieux)");
+            }
+        });
+    }
+
+    /**
+     * Stop autosaving, after the autosave being written if any
+     */
+    public void disableAutosave() {
+        if (autosave != null) {
+            autosave.close();
+            autosave = null;
+        }
+    }
+
+    public Autosave getAutosave() {
+        return autosave;
+    }
+
     /**
      * NOUVEAU : Obtenir le statut actuel du jeu
      */
@@ -212,93 +554,23 @@ public class GameState {
     /**
      * NOUVEAU :  Obtenir des statistiques du jeu
      */
-    public GameStatistics getStatistics() {
+    public synchronized GameStatistics getStatistics() {
         return new GameStatistics(
                 getTurnNumber(),
-                getTotalPopulation(),
-                countGauls(),
-                countRomans(),
-                countLycanthropes(),
-                countBattles()
+                population,
+                gaulCount,
+                romanCount,
+                lycanthropeCount,
+                battlefieldCount
         );
     }
 
-    /**
-     * NOUVEAU : Compter les Gaulois
-     */
-    private int countGauls() {
-        int count = 0;
-        if (theater != null && theater.getLocations() != null) {
-            for (Location location : theater. getLocations()) {
-                if (location != null && location.getCharacters() != null) {
-                    for (models.people.Character character : location.getCharacters()) {
-                        if (character instanceof models.people.Gaul) {
-                            count++;
-                        }
-                    }
-                }
-            }
-        }
-        return count;
-    }
-
-    /**
-     * NOUVEAU : Compter les Romains
-     */
-    private int countRomans() {
-        int count = 0;
-        if (theater != null && theater.getLocations() != null) {
-            for (Location location : theater.getLocations()) {
-                if (location != null && location.getCharacters() != null) {
-                    for (models.people.Character character : location. getCharacters()) {
-                        if (character instanceof models.people. Roman) {
-                            count++;
-                        }
-                    }
-                }
-            }
-        }
-        return count;
-    }
-
-    /**
-     * NOUVEAU : Compter les Lycanthropes
-     */
-    private int countLycanthropes() {
-        int count = 0;
-        if (theater != null && theater.getLocations() != null) {
-            for (Location location : theater.getLocations()) {
-                if (location != null && location.getCharacters() != null) {
-                    for (models.people.Character character : location.getCharacters()) {
-                        if (character instanceof models.people.Werewolf) {
-                            count++;
-                        }
-                    }
-                }
-            }
-        }
-        return count;
-    }
-
-    /**
-     * NOUVEAU : Compter les champs de bataille
-     */
-    private int countBattles() {
-        int count = 0;
-        if (theater != null && theater.getLocations() != null) {
-            for (Location location :  theater.getLocations()) {
-                if (location instanceof models.location. Battlefield) {
-                    count++;
-                }
-            }
-        }
-        return count;
-    }
-
     public void initializeNewGame() {
         turnNumber.set(0);
         selectedLocationName.set("");
         simulationRunning.set(false);
+        replayEngine = null; // Nouvel enregistrement, même sur le même théâtre
+        getReplayEngine();
     }
 
     /**
@@ -3,7 +3,7 @@ package models.clanLeader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import models.food.Food;
 import models.location.Battlefield;
@@ -26,11 +26,17 @@ public class ClanLeader {
     public int age;
     private Location location;
     private Theater theater;
+    private SplittableRandom random = new SplittableRandom();
 
     private static final String[] CHARACTERSTYPE  = {
             "Blacksmith", "Druid", "General", "Innkeeper", "Legionary", "Merchant", "Prefect", "Werewolf"
     };
 
+    private static final List<Class<? extends Character>> CHARACTERSCLASS = List.of(
+            Blacksmith.class, Druid.class, General.class, InnKeeper.class,
+            Legionary.class, Merchant.class, Prefect.class, Werewolf.class
+    );
+
     private static final String[] NAMES = {
             "Aelia", "Cassius", "Livia", "Marcus", "Tara", "Gwen",
             "Ulric", "Serena", "Hadrian", "Lucius", "Freya"
@@ -48,17 +54,16 @@ public class ClanLeader {
      * @param rand as the random variable
      * @return a type of character
      */
-    private String getRandomType(Random rand) {
+    private String getRandomType(SplittableRandom rand) {
 
         if (getLocation() == null) {
             return CHARACTERSTYPE[rand.nextInt(CHARACTERSTYPE.length)];
         }
         Location location = getLocation();
         List<String> allowedTypes = new ArrayList<>();
-        for (String type : CHARACTERSTYPE) {
-            Character dummy = createCharacterInstance(List.of(type, "Tmp", 'm', 1.0, 30, 1.0));
-            if (LocationRestriction.isAllowed(location.getType(), dummy)) {
-                allowedTypes.add(type);
+        for (int i = 0; i < CHARACTERSTYPE.length; i++) {
+            if (LocationRestriction.isAllowed(location.getType(), CHARACTERSCLASS.get(i))) {
+                allowedTypes.add(CHARACTERSTYPE[i]);
             }
         }
         if (allowedTypes.isEmpty()) {
@@ -73,7 +78,7 @@ public class ClanLeader {
      * @param rand as the random variable
      * @return a name as a string
      */
-    private String getRandomName(Random rand) {
+    private String getRandomName(SplittableRandom rand) {
         return NAMES[rand.nextInt(NAMES.length)];
     }
 
@@ -96,6 +101,16 @@ public class ClanLeader {
      */
     public void setTheater(Theater theater) {
         this.theater = theater;
+        if (theater != null) {
+            this.random = theater.getRandomSource().split();
+        }
+    }
+
+    /**
+     * Replace the random generator used to create characters.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = Objects.requireNonNull(random);
     }
 
     /**
@@ -164,7 +179,7 @@ public class ClanLeader {
      * @return all the data (type of character, name, sex, height, age, strength
      */
     public List<Object> randomCharacterData() {
-        Random rand = new Random();
+        SplittableRandom rand = random;
         String type;
         type = getRandomType(rand);
         String name;
@@ -186,7 +201,7 @@ public class ClanLeader {
      */
     public void healCharacters() {
         if (getLocation() == null) return;
-        getLocation().healCharacters(10.0);
+        getLocation().healCharacters();
     }
 
     /**
@@ -205,12 +220,12 @@ public class ClanLeader {
         // require a druid present in the location to prepare potion
         if (getLocation() == null) return false;
         boolean haveDruid = false;
-        for (Character c : getLocation().getCharacters()) {
+        for (Character c : getLocation().getCharactersView()) {
             if (c instanceof Druid) { haveDruid = true; break; }
         }
         if (!haveDruid) return false;
 
-        ArrayList<Food> ingredient = getLocation().getMagicPotion().sortFoods(new ArrayList<>(getLocation().getFoods()));
+        ArrayList<Food> ingredient = getLocation().getMagicPotion().sortFoods(new ArrayList<>(getLocation().getFoodsView()));
         for (Food food : ingredient) {
             if (getLocation().getMagicPotion().addToCurrentRecipes(food)) {
                 getLocation().removeFood(food);
@@ -226,7 +241,12 @@ public class ClanLeader {
      * Makes a character drink magic potion
      */
     public void makeCharacterDrink(Character character) {
-        character.drinkPotion(getLocation().getMagicPotion());
+        Location location = getLocation();
+        double level = character.getMagicPotionLevel();
+        character.drinkPotion(location.getMagicPotion());
+        if (location.getJournal() != null && character.getMagicPotionLevel() > level) {
+            location.getJournal().potion(location.getJournalId(), character, character.getMagicPotionLevel());
+        }
     }
 
     /**
@@ -293,7 +313,7 @@ public class ClanLeader {
                 if (preparePotion()) {return "Potion prepared";}
                 else {return "No potion prepared";}
             case "move":
-                Character character = getLocation().getCharacters().get(Integer. parseInt(charId));
+                Character character = getLocation().getCharacter(Integer. parseInt(charId));
                 Location newLocation = getTheater().getLocations().get(Integer. parseInt(locId));
                 moveCharacter(newLocation, character);
                 return "The selected Character have move to selected location";
@@ -307,7 +327,7 @@ public class ClanLeader {
                     int charIndex = Integer.parseInt(charId);
                     int locIndex = Integer.parseInt(locId);
                     
-                    List<Character> chars = getLocation().getCharacters();
+                    List<Character> chars = getLocation().getCharactersView();
                     if (charIndex < 0 || charIndex >= chars.size()) {
                         return "Error: Invalid character index. Available: 0-" + (chars.size() - 1);
                     }
@@ -334,6 +354,49 @@ public class ClanLeader {
                 } catch (NumberFormatException e) {
                     return "Error: Invalid number format. Use integers for character and battlefield IDs";
                 }
+            case "fight":
+                // One round of battle on a battlefield
+                if (getTheater() == null) {
+                    return "Error: No theater assigned";
+                }
+                try {
+                    int locIndex = Integer.parseInt(locId);
+                    List<Battlefield> battlefields = getTheater().getBattlefields();
+                    if (locIndex < 0 || locIndex >= battlefields.size()) {
+                        return "Error: Invalid battlefield index. Available: 0-" + (battlefields.size() - 1);
+                    }
+                    Battlefield battlefield = battlefields.get(locIndex);
+                    if (battlefield.resolveRounds(1) == 0) {
+                        return "No battle on " + battlefield.getName();
+                    }
+                    return "Round fought on " + battlefield.getName();
+                } catch (NumberFormatException e) {
+                    return "Error: Invalid number format. Use an integer for the battlefield ID";
+                }
+            case "battle":
+            case "return":
+                // Toute la bataille d'un champ de bataille, ou le retour des survivants à leur lieu d'origine
+                if (getTheater() == null) {
+                    return "Error: No theater assigned";
+                }
+                try {
+                    int locIndex = Integer.parseInt(locId);
+                    List<Battlefield> battlefields = getTheater().getBattlefields();
+                    if (locIndex < 0 || locIndex >= battlefields.size()) {
+                        return "Error: Invalid battlefield index. Available: 0-" + (battlefields.size() - 1);
+                    }
+                    Battlefield battlefield = battlefields.get(locIndex);
+                    synchronized (battlefield) {
+                        if (input.equals("battle")) {
+                            battlefield.startBattle();
+                            return battlefield.getBattleStatus() + " on " + battlefield.getName();
+                        }
+                        battlefield.returnSurvivorsToOrigins();
+                    }
+                    return "Survivors of " + battlefield.getName() + " returned to their origins";
+                } catch (NumberFormatException e) {
+                    return "Error: Invalid number format. Use an integer for the battlefield ID";
+                }
             case "create":
                 createCharacter(randomCharacterData());
                 return "Character successfully created";
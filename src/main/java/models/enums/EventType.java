@@ -0,0 +1,37 @@
+package models.enums;
+
+/**
+ * Enum representing the kinds of events recorded in the simulation journal.
+ * The ordinal is the code stored in the binary records: only append new constants.
+ * @author Project Team
+ */
+public enum EventType {
+    /** A character hit another one (value: damage). */
+    ATTACK,
+    /** A character died (target: unused). */
+    DEATH,
+    /** A character moved to a battlefield (value: id of the origin location). */
+    TRANSFER,
+    /** A character was healed (value: amount). */
+    HEAL,
+    /** A character ate (value: ordinal of the food). */
+    FEED,
+    /** A character drank magic potion (value: potion level after drinking). */
+    POTION,
+    /** Healing herbs grew in a location (value: herbs available). */
+    HERB_SPAWN;
+
+    private static final EventType[] VALUES = values();
+
+    /**
+     * Get the event type of a record code.
+     * @param code the code, as returned by {@link #ordinal()}
+     * @return the event type
+     */
+    public static EventType fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Invalid event type code: " + code);
+        }
+        return VALUES[code];
+    }
+}
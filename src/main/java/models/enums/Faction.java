@@ -0,0 +1,100 @@
+package models.enums;
+
+import models.people.Character;
+
+/**
+ * Enum representing the allegiance of a character, used for admission and battles.
+ * The factions of each character class are computed once and cached as a bit mask.
+ * @author Project Team
+ */
+public enum Faction {
+    GAUL,
+    ROMAN,
+    FANTASTIC,
+    NONE;
+
+    private static final ClassValue<Integer> MASKS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return classify(type);
+        }
+    };
+
+    /**
+     * Get the bit of this faction in a faction mask.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Get the factions of a character class as a bit mask, computed once per class.
+     * @param type the character class
+     * @return the mask of {@link #bit()} values, the NONE bit for an unaffiliated class
+     */
+    public static int maskOf(Class<?> type) {
+        return MASKS.get(type);
+    }
+
+    /**
+     * Get the main faction of a character.
+     * @param character the character to classify
+     * @return the faction, NONE for a null or unaffiliated character
+     */
+    public static Faction of(Character character) {
+        if (character == null) return NONE;
+        int mask = maskOf(character.getClass());
+        if ((mask & GAUL.bit()) != 0) return GAUL;
+        if ((mask & ROMAN.bit()) != 0) return ROMAN;
+        if ((mask & FANTASTIC.bit()) != 0) return FANTASTIC;
+        return NONE;
+    }
+
+    /**
+     * Classify a class by the names of the interfaces it implements and by its own name.
+     * Matching on names lets test doubles and future species declare their faction
+     * through an interface of the same name.
+     */
+    private static int classify(Class<?> type) {
+        int mask = 0;
+        if (implementsInterfaceNamed(type, "Roman")) {
+            mask |= ROMAN.bit();
+        }
+        if (implementsInterfaceNamed(type, "Gaul") || implementsInterfaceNamed(type, "Gaulois")) {
+            mask |= GAUL.bit();
+        }
+        String simpleName = type.getSimpleName().toLowerCase();
+        if (implementsInterfaceNamed(type, "Lycanthrope") || implementsInterfaceNamed(type, "Fantastique")
+                || simpleName.contains("lycanth") || simpleName.contains("werewolf")
+                || simpleName.contains("fantast")) {
+            mask |= FANTASTIC.bit();
+        }
+        return mask == 0 ? NONE.bit() : mask;
+    }
+
+    /**
+     * Checks if a class or one of its ancestors implements an interface with the given simple name.
+     */
+    private static boolean implementsInterfaceNamed(Class<?> type, String ifaceSimpleName) {
+        for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            for (Class<?> iface : cls.getInterfaces()) {
+                if (interfaceNamed(iface, ifaceSimpleName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean interfaceNamed(Class<?> iface, String ifaceSimpleName) {
+        if (iface.getSimpleName().equalsIgnoreCase(ifaceSimpleName)) {
+            return true;
+        }
+        for (Class<?> parent : iface.getInterfaces()) {
+            if (interfaceNamed(parent, ifaceSimpleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
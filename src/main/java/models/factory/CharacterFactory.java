@@ -2,6 +2,8 @@ package models.factory;
 
 import models.people.*;
 
+import java.util.SplittableRandom;
+
 /**
  * Factory class for creating different types of characters.
  * Implements the Factory design pattern as required by project specifications.
@@ -9,6 +11,13 @@ import models.people.*;
  */
 public class CharacterFactory {
 
+    private static final ClassValue<CharacterType> TYPES = new ClassValue<>() {
+        @Override
+        protected CharacterType computeValue(Class<?> type) {
+            return CharacterType.valueOf(type.getSimpleName().toUpperCase());
+        }
+    };
+
     /**
      * Character type enumeration.
      */
@@ -65,6 +74,34 @@ public class CharacterFactory {
         return createCharacter(type, name, sex, height, age, strength);
     }
 
+    /**
+     * Get the class of the characters of a type.
+     * @param type the type of character
+     * @return the class created by {@link #createCharacter(CharacterType, String, char, double, int, double)}
+     */
+    public static Class<? extends models.people.Character> classOf(CharacterType type) {
+        return switch (type) {
+            case BLACKSMITH -> Blacksmith.class;
+            case DRUID -> Druid.class;
+            case GENERAL -> General.class;
+            case INNKEEPER -> InnKeeper.class;
+            case LEGIONARY -> Legionary.class;
+            case MERCHANT -> Merchant.class;
+            case PREFECT -> Prefect.class;
+            case WEREWOLF -> Werewolf.class;
+        };
+    }
+
+    /**
+     * Get the type of a character, computed once per class.
+     * @param character the character
+     * @return its type
+     * @throws IllegalArgumentException if the class of the character has no type
+     */
+    public static CharacterType typeOf(models.people.Character character) {
+        return TYPES.get(character.getClass());
+    }
+
     /**
      * Create a random character with given attributes.
      * @param name the name of the character
@@ -76,8 +113,24 @@ public class CharacterFactory {
      */
     public static models.people.Character createRandomCharacter(String name, char sex, 
                                                   double height, int age, double strength) {
+        return createRandomCharacter(name, sex, height, age, strength, new SplittableRandom());
+    }
+
+    /**
+     * Create a character of a type drawn from the given generator.
+     * @param name the name of the character
+     * @param sex the sex of the character
+     * @param height the height of the character
+     * @param age the age of the character
+     * @param strength the strength of the character
+     * @param random the generator choosing the type
+     * @return a randomly selected character type
+     */
+    public static models.people.Character createRandomCharacter(String name, char sex,
+                                                  double height, int age, double strength,
+                                                  SplittableRandom random) {
         CharacterType[] types = CharacterType.values();
-        CharacterType randomType = types[(int) (Math.random() * types.length)];
+        CharacterType randomType = types[random.nextInt(types.length)];
         return createCharacter(randomType, name, sex, height, age, strength);
     }
 }
@@ -0,0 +1,247 @@
+package models.journal;
+
+import models.enums.EventType;
+import models.people.Character;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only binary journal of simulation events, written through memory-mapped chunks.
+ * Every event is a fixed-width record, so recording costs a few buffer writes and no
+ * string formatting, and a journal of millions of events can be read back or analysed offline.
+ *
+ * <pre>
+ * header (32 bytes): int magic, int version, int record size, int unused, long record count, long unused
+ * record (40 bytes): long turn, byte type, 3 unused bytes, int location, long actor, long target, double value
+ * </pre>
+ * The record count in the header is updated by {@link #flush()} and {@link #close()}.
+ */
+public final class EventJournal implements Closeable {
+
+    public static final int MAGIC = 0x41524A4C; // "ARJL"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 40;
+
+    private static final int CHUNK_RECORDS = 1 << 16;
+    private static final long CHUNK_SIZE = (long) CHUNK_RECORDS * RECORD_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer chunk;
+    private long chunkIndex = -1;
+    private long count;
+    private volatile long turn;
+
+    private EventJournal(Path path, FileChannel channel, long count) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        this.header.order(ByteOrder.LITTLE_ENDIAN);
+        this.count = count;
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_SIZE).putLong(16, count);
+    }
+
+    /**
+     * Create a new journal, replacing any file at that path.
+     * @param path the journal file
+     * @return the journal, ready to append
+     * @throws IOException if the file cannot be created
+     */
+    public static EventJournal create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new EventJournal(path, channel, 0);
+    }
+
+    /**
+     * Open a journal to append to it, creating it if needed.
+     * @param path the journal file
+     * @return the journal, positioned after its last record
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static EventJournal open(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return create(path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new EventJournal(path, channel, readCount(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Get the turn stamped on the records appended from now on.
+     */
+    public long getTurn() {
+        return turn;
+    }
+
+    public void setTurn(long turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * Get the number of records in the journal.
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Append a record, from any thread.
+     * @param type the kind of event
+     * @param location the journal id of the location, or -1
+     * @param actor the id of the character acting, or 0
+     * @param target the id of the other character, or 0
+     * @param value the value of the event
+     */
+    public synchronized void append(EventType type, int location, long actor, long target, double value) {
+        long index = count;
+        long chunkOfRecord = index / CHUNK_RECORDS;
+        if (chunkOfRecord != chunkIndex) {
+            mapChunk(chunkOfRecord);
+        }
+        int offset = (int) (index % CHUNK_RECORDS) * RECORD_SIZE;
+        chunk.putLong(offset, turn)
+                .put(offset + 8, (byte) type.ordinal())
+                .putInt(offset + 12, location)
+                .putLong(offset + 16, actor)
+                .putLong(offset + 24, target)
+                .putDouble(offset + 32, value);
+        count = index + 1;
+    }
+
+    public void attack(int location, Character attacker, Character defender, double damage) {
+        append(EventType.ATTACK, location, attacker.getId(), defender.getId(), damage);
+    }
+
+    public void death(int location, Character character) {
+        append(EventType.DEATH, location, character.getId(), 0, 0);
+    }
+
+    public void transfer(int battlefield, Character character, int origin) {
+        append(EventType.TRANSFER, battlefield, character.getId(), 0, origin);
+    }
+
+    public void heal(int location, Character character, double amount) {
+        append(EventType.HEAL, location, character.getId(), 0, amount);
+    }
+
+    public void feed(int location, Character character, int food) {
+        append(EventType.FEED, location, character.getId(), 0, food);
+    }
+
+    public void potion(int location, Character character, double level) {
+        append(EventType.POTION, location, character.getId(), 0, level);
+    }
+
+    public void herbSpawn(int location, int herbs) {
+        append(EventType.HERB_SPAWN, location, 0, 0, herbs);
+    }
+
+    private void mapChunk(long index) {
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + index * CHUNK_SIZE, CHUNK_SIZE);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            chunkIndex = index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow journal " + path, e);
+        }
+    }
+
+    /**
+     * Write the record count to the header and force the mapped pages to the disk.
+     */
+    public synchronized void flush() {
+        header.putLong(16, count);
+        if (chunk != null) {
+            chunk.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        // The tail of the last chunk stays preallocated: readers stop at the record count
+        channel.close();
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Read every record of a journal, in order, chunk by chunk.
+     * @param path the journal file
+     * @param consumer receives the records
+     * @return the number of records read
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static long read(Path path, Consumer<? super JournalRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long count = readCount(channel);
+            for (long first = 0; first < count; first += CHUNK_RECORDS) {
+                int records = (int) Math.min(CHUNK_RECORDS, count - first);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * RECORD_SIZE, (long) records * RECORD_SIZE);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < records; i++) {
+                    int offset = i * RECORD_SIZE;
+                    consumer.accept(new JournalRecord(
+                            buffer.getLong(offset),
+                            EventType.fromCode(buffer.get(offset + 8)),
+                            buffer.getInt(offset + 12),
+                            buffer.getLong(offset + 16),
+                            buffer.getLong(offset + 24),
+                            buffer.getDouble(offset + 32)));
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Read every record of a journal into a list (for small journals and tests).
+     */
+    public static List<JournalRecord> readAll(Path path) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        read(path, records::add);
+        return records;
+    }
+
+    private static long readCount(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Not an event journal: too short");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an event journal: bad magic number");
+        }
+        if (buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Unsupported event journal version " + buffer.getInt(4));
+        }
+        return buffer.getLong(16);
+    }
+}
@@ -0,0 +1,15 @@
+package models.journal;
+
+import models.enums.EventType;
+
+/**
+ * One event read back from an {@link EventJournal}.
+ * @param turn the simulation turn of the event
+ * @param type the kind of event
+ * @param location the journal id of the location, or -1
+ * @param actor the id of the character acting (or affected), or 0
+ * @param target the id of the other character, or 0
+ * @param value the value of the event, see {@link EventType}
+ */
+public record JournalRecord(long turn, EventType type, int location, long actor, long target, double value) {
+}
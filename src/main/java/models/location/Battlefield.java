@@ -1,12 +1,16 @@
 package models.location;
 
+import models.enums.Faction;
+import models.journal.EventJournal;
 import models.people.Character;
-import models.people.Gaul;
-import models.people.Roman;
+import models.people.CharacterStore;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * Battlefield location where combat takes place
@@ -14,13 +18,37 @@ import java.util.Random;
 public class Battlefield extends Location {
 
     private final Map<Character, Location> characterOrigins = new HashMap<>();
+    private final int[] factionCounts = new int[Faction.values().length];
     private String battleStatus = "Waiting";
-    private final Random random = new Random();
+    private SplittableRandom random = new SplittableRandom();
 
     public Battlefield(String name, double superficie) {
         super(name, superficie, LocationType.BATTLEFIELD);
     }
 
+    /**
+     * Get the random generator of this battle
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Replace the random generator of this battle, e.g. with one split from the theater seed
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = Objects.requireNonNull(random);
+    }
+
+    /**
+     * Get the location a character came from
+     * @return the origin, or null if the character was not added with one
+     */
+    public Location getCharacterOrigin(Character character) {
+        ensureLoaded();
+        return characterOrigins.get(character);
+    }
+
     /**
      * Add a character from an origin location
      */
@@ -32,19 +60,37 @@ public class Battlefield extends Location {
         return false;
     }
 
+    @Override
+    protected void onCharacterAdded(Character character) {
+        factionCounts[Faction.of(character).ordinal()]++;
+    }
+
+    @Override
+    protected void onCharacterRemoved(Character character) {
+        factionCounts[Faction.of(character).ordinal()]--;
+    }
+
+    @Override
+    protected void discardContent() {
+        super.discardContent();
+        characterOrigins.clear();
+        battleStatus = "Waiting";
+    }
+
     /**
-     * Check if there are opposing factions
+     * Get the number of characters of a faction on this battlefield
      */
-    public boolean hasOpposingFactions() {
-        boolean hasGauls = false;
-        boolean hasRomans = false;
-
-        for (Character c : getCharacters()) {
-            if (c instanceof Gaul) hasGauls = true;
-            if (c instanceof Roman) hasRomans = true;
-        }
+    public int getFactionCount(Faction faction) {
+        ensureLoaded();
+        return factionCounts[faction.ordinal()];
+    }
 
-        return hasGauls && hasRomans;
+    /**
+     * Check if there are opposing factions, in constant time
+     */
+    public boolean hasOpposingFactions() {
+        ensureLoaded();
+        return factionCounts[Faction.GAUL.ordinal()] > 0 && factionCounts[Faction.ROMAN.ordinal()] > 0;
     }
 
     /**
@@ -58,41 +104,63 @@ public class Battlefield extends Location {
      * Get battle status
      */
     public String getBattleStatus() {
+        ensureLoaded();
         return battleStatus;
     }
 
+    /**
+     * Restore the battle status, e.g. from a snapshot
+     */
+    public void setBattleStatus(String battleStatus) {
+        ensureLoaded();
+        this.battleStatus = Objects.requireNonNull(battleStatus);
+        markDirty();
+    }
+
     /**
      * Start a battle
      */
     public void startBattle() {
         if (! canStartBattle()) {
             battleStatus = "Cannot start battle";
+            markDirty();
             return;
         }
 
         battleStatus = "Battle in progress";
 
         // Simple combat simulation
-        while (getCharactersNbr() > 1 && hasOpposingFactions()) {
-            performCombatRound();
+        CharacterStore store = getSharedStore();
+        if (store != null) {
+            fightOnStore(store);
+        } else {
+            while (getCharactersNbr() > 1 && hasOpposingFactions()) {
+                performCombatRound();
+            }
         }
 
         battleStatus = "Battle ended";
+        markDirty();
     }
 
     /**
      * Perform one round of combat
      */
     private void performCombatRound() {
-        var characters = getCharacters();
-        if (characters.size() < 2) return;
+        int count = getCharactersNbr();
+        if (count < 2) return;
 
         // Pick two random characters
-        Character fighter1 = characters.get(random. nextInt(characters.size()));
-        Character fighter2 = characters. get(random.nextInt(characters.size()));
+        Character fighter1 = getCharacter(random.nextInt(count));
+        Character fighter2 = getCharacter(random.nextInt(count));
 
         if (fighter1 != fighter2) {
+            EventJournal journal = getJournal();
+            double health = journal != null ? fighter2.getHealth() : 0;
             fighter1.fight(fighter2);
+            if (journal != null && fighter2.getHealth() < health) {
+                journal.attack(getJournalId(), fighter1, fighter2, health - fighter2.getHealth());
+            }
 
             // Remove dead characters
             if (fighter2.getHealth() <= 0) {
@@ -102,6 +170,151 @@ public class Battlefield extends Location {
         }
     }
 
+    // ==================== BATCH RESOLUTION ====================
+
+    /**
+     * Resolve up to {@code n} rounds of the battle. In a round every living Gaul strikes a Roman
+     * and every living Roman strikes a Gaul, opponents being paired at random; the damage of all
+     * the hits is computed from the state at the start of the round and applied together, then the
+     * dead are removed from the roster in one pass.
+     * @param n the maximum number of rounds
+     * @return the number of rounds resolved, less than n if the battle got decided
+     */
+    public int resolveRounds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of rounds must not be negative: " + n);
+        }
+        int rounds = 0;
+        while (rounds < n && hasOpposingFactions()) {
+            battleStatus = "Battle in progress";
+            resolveRound();
+            rounds++;
+        }
+        if (!hasOpposingFactions()) {
+            battleStatus = "Battle ended";
+        }
+        if (rounds > 0) {
+            markDirty();
+        }
+        return rounds;
+    }
+
+    /**
+     * Resolve rounds until only one faction is left.
+     * @return the number of rounds resolved
+     */
+    public int resolveUntilDecided() {
+        return resolveRounds(Integer.MAX_VALUE);
+    }
+
+    private void resolveRound() {
+        List<Character> gauls = new ArrayList<>(factionCounts[Faction.GAUL.ordinal()]);
+        List<Character> romans = new ArrayList<>(factionCounts[Faction.ROMAN.ordinal()]);
+        forEachCharacter(c -> {
+            if (c.isDead()) return;
+            Faction faction = Faction.of(c);
+            if (faction == Faction.GAUL) gauls.add(c);
+            else if (faction == Faction.ROMAN) romans.add(c);
+        });
+
+        if (!gauls.isEmpty() && !romans.isEmpty()) {
+            shuffle(gauls);
+            shuffle(romans);
+
+            // Damage of the whole round, then applied at once
+            double[] gaulDamage = new double[gauls.size()];
+            double[] romanDamage = new double[romans.size()];
+            EventJournal journal = getJournal();
+            for (int i = 0; i < gauls.size(); i++) {
+                int target = i % romans.size();
+                int damage = gauls.get(i).getAttackDamage(romans.get(target));
+                romanDamage[target] += damage;
+                if (journal != null) {
+                    journal.attack(getJournalId(), gauls.get(i), romans.get(target), damage);
+                }
+            }
+            for (int i = 0; i < romans.size(); i++) {
+                int target = i % gauls.size();
+                int damage = romans.get(i).getAttackDamage(gauls.get(target));
+                gaulDamage[target] += damage;
+                if (journal != null) {
+                    journal.attack(getJournalId(), romans.get(i), gauls.get(target), damage);
+                }
+            }
+            for (int i = 0; i < gauls.size(); i++) {
+                if (gaulDamage[i] > 0) gauls.get(i).takeDamage(gaulDamage[i]);
+            }
+            for (int i = 0; i < romans.size(); i++) {
+                if (romanDamage[i] > 0) romans.get(i).takeDamage(romanDamage[i]);
+            }
+        }
+
+        // Remove dead characters, including the ones restored dead with some health left
+        removeCharactersIf(c -> {
+            if (!c.isDead() && c.getHealth() > 0) return false;
+            characterOrigins.remove(c);
+            return true;
+        });
+    }
+
+    private void shuffle(List<Character> fighters) {
+        for (int i = fighters.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Character tmp = fighters.get(i);
+            fighters.set(i, fighters.get(j));
+            fighters.set(j, tmp);
+        }
+    }
+
+    /**
+     * Get the store holding every fighter, or null if some fighter is not in that store
+     */
+    private CharacterStore getSharedStore() {
+        if (getCharactersNbr() == 0) return null;
+        CharacterStore store = getCharacter(0).getStore();
+        if (store == null) return null;
+        for (Character c : getCharactersView()) {
+            if (c.getStore() != store) return null;
+        }
+        return store;
+    }
+
+    /**
+     * Same battle as the performCombatRound loop, run on the store columns.
+     * The id array mirrors the roster order (including the swap on removal),
+     * so a seed gives the same battle on both paths.
+     */
+    private void fightOnStore(CharacterStore store) {
+        int count = getCharactersNbr();
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = getCharacter(i).getStoreId();
+        }
+
+        EventJournal journal = getJournal();
+        while (count > 1 && hasOpposingFactions()) {
+            int index1 = random.nextInt(count);
+            int index2 = random.nextInt(count);
+            if (index1 == index2) continue;
+
+            double health = store.getHealth(ids[index2]);
+            store.fight(ids[index1], ids[index2]);
+            if (journal != null && store.getHealth(ids[index2]) < health) {
+                journal.attack(getJournalId(), store.get(ids[index1]), store.get(ids[index2]),
+                        health - store.getHealth(ids[index2]));
+            }
+
+            // Remove dead characters
+            if (store.getHealth(ids[index2]) <= 0) {
+                Character dead = store.get(ids[index2]);
+                removeCharacter(dead);
+                characterOrigins.remove(dead);
+                ids[index2] = ids[count - 1];
+                count--;
+            }
+        }
+    }
+
     /**
      * Return survivors to their origin locations
      */
@@ -124,6 +337,8 @@ public class Battlefield extends Location {
     public String toString() {
         StringBuilder sb = new StringBuilder(super.toString());
         sb.append("Battle Status: ").append(battleStatus).append("\n");
+        sb.append("Gauls: ").append(getFactionCount(Faction.GAUL)).append("\n");
+        sb.append("Romans: ").append(getFactionCount(Faction.ROMAN)).append("\n");
         sb.append("Has Opposing Factions: ").append(hasOpposingFactions()).append("\n");
         return sb.toString();
     }
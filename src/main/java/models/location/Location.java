@@ -1,12 +1,19 @@
 package models.location;
 
 import models.food.Food;
+import models.journal.EventJournal;
 import models.people.Character;
 import models.potion.MagicPotion;
 
 import java. util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java. util.List;
+import java.util.Map;
 import java. util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The location class representing a place in the simulation.
@@ -24,10 +31,22 @@ public class Location {
 
     private Character clanLeader;
     private final List<Character> characters = new ArrayList<>();
+    private final Map<Long, Integer> characterSlots = new HashMap<>(); // id -> position in characters
     private final List<Food> foods = new ArrayList<>();
+    private final List<Character> charactersView = Collections.unmodifiableList(characters);
+    private final List<Food> foodsView = Collections.unmodifiableList(foods);
     private MagicPotion magicPotion = new MagicPotion();
     private int healingHerbs = 0;
     private int turnsSinceLastHerbSpawn = 0;
+    private final List<LocationListener> listeners = new ArrayList<>();
+    private final Consumer<Character> deathRelay = this::fireCharacterDied;
+    private EventJournal journal;
+    private int journalId = -1;
+    private volatile LocationLoader loader; // Contenu pas encore chargé
+    private boolean loading = false;
+    private volatile boolean dirty = true; // Modifié depuis la dernière sauvegarde
+    private int savedKettleModifications = 0;
+    private final AtomicLong revision = new AtomicLong(); // Nombre de modifications, pour l'affichage
 
     public Location(String name, double superficie, LocationType type) {
         this.name = Objects.requireNonNull(name);
@@ -50,79 +69,451 @@ public class Location {
     }
 
     public Character getChefDeClan() {
+        ensureLoaded();
         return clanLeader;
     }
 
     public void setChefDeClan(Character clanLeader) {
+        ensureLoaded();
         this.clanLeader = clanLeader;
+        markDirty();
     }
 
     public List<Character> getCharacters() {
+        ensureLoaded();
         return new ArrayList<>(characters);
     }
 
     public List<Food> getFoods() {
+        ensureLoaded();
         return new ArrayList<>(foods);
     }
 
+    /**
+     * Get a read-only live view of the characters, without copying.
+     * The view reflects later additions and removals: copy it with {@link #getCharacters()}
+     * before moving characters out of this location while iterating.
+     * @return an unmodifiable view of the characters
+     */
+    public List<Character> getCharactersView() {
+        ensureLoaded();
+        return charactersView;
+    }
+
+    /**
+     * Get a read-only live view of the foods, without copying.
+     * @return an unmodifiable view of the foods
+     */
+    public List<Food> getFoodsView() {
+        ensureLoaded();
+        return foodsView;
+    }
+
+    /**
+     * Visit every character without allocating an iterator or a copy.
+     * The action must not add or remove characters of this location.
+     * @param action the action to apply to each character
+     */
+    public void forEachCharacter(Consumer<? super Character> action) {
+        ensureLoaded();
+        for (int i = 0, n = characters.size(); i < n; i++) {
+            action.accept(characters.get(i));
+        }
+    }
+
+    /**
+     * Get the character at the given position in this location.
+     * @param index position between 0 and {@link #getCharactersNbr()} - 1
+     * @return the character
+     */
+    public Character getCharacter(int index) {
+        ensureLoaded();
+        return characters.get(index);
+    }
+
+    /**
+     * Get the number of characters, without loading them if the location is not loaded yet
+     */
     public int getCharactersNbr() {
-        return characters.size();
+        LocationLoader pending = loader;
+        return pending != null ? pending.characterCount() : characters.size();
+    }
+
+    /**
+     * Count the characters that are instances of a type, without loading them if the location is not loaded yet
+     * @param type a class or interface, e.g. {@code Gaul.class}
+     * @return the number of characters of that type
+     */
+    public int countCharacters(Class<?> type) {
+        LocationLoader pending = loader;
+        if (pending != null) {
+            return pending.characterCount(type);
+        }
+        int count = 0;
+        for (int i = 0, n = characters.size(); i < n; i++) {
+            if (type.isInstance(characters.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check whether a character is in this location, in constant time
+     * @param character the character
+     * @return true if the character is in the roster
+     */
+    public boolean containsCharacter(Character character) {
+        return character != null && getCharacterById(character.getId()) == character;
+    }
+
+    /**
+     * Get a character of this location from its id, in constant time
+     * @param id the id of the character
+     * @return the character, or null if it is not in this location
+     */
+    public Character getCharacterById(long id) {
+        ensureLoaded();
+        Integer slot = characterSlots.get(id);
+        return slot == null ? null : characters.get(slot);
+    }
+
+    /**
+     * Get the position of a character in the roster from its id, in constant time
+     * @param id the id of the character
+     * @return the index of the character, or -1 if it is not in this location
+     */
+    public int indexOfCharacter(long id) {
+        ensureLoaded();
+        Integer slot = characterSlots.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    public int getFoodsNbr() {
+        ensureLoaded();
+        return foods.size();
     }
 
     public MagicPotion getMagicPotion() {
+        ensureLoaded();
         return magicPotion;
     }
 
     public int getHealingHerbs() {
+        ensureLoaded();
         return healingHerbs;
     }
 
     public void addHealingHerbs(int amount) {
+        ensureLoaded();
         this.healingHerbs += amount;
+        markDirty();
+    }
+
+    public int getTurnsSinceLastHerbSpawn() {
+        ensureLoaded();
+        return turnsSinceLastHerbSpawn;
+    }
+
+    /**
+     * Restore the herb stock and spawn countdown, e.g. from a snapshot
+     */
+    public void restoreHerbs(int healingHerbs, int turnsSinceLastHerbSpawn) {
+        ensureLoaded();
+        this.healingHerbs = healingHerbs;
+        this.turnsSinceLastHerbSpawn = turnsSinceLastHerbSpawn;
+        markDirty();
     }
 
     public void spawnHerbsIfNeeded() {
+        ensureLoaded();
         turnsSinceLastHerbSpawn++;
         if (turnsSinceLastHerbSpawn >= HERB_SPAWN_INTERVAL) {
             if (type == LocationType.GAUL_TOWN || type == LocationType.ROMAIN_TOWN ||
                     type == LocationType.GAUL_ROMAIN_VILLAGE) {
                 healingHerbs += HERB_SPAWN_AMOUNT;
                 turnsSinceLastHerbSpawn = 0;
+                markDirty();
+                if (journal != null) {
+                    journal.herbSpawn(journalId, healingHerbs);
+                }
             }
         }
     }
 
     // ==================== GESTION DES PERSONNAGES ====================
 
+    /**
+     * Add a character, if the location type allows it and it is not already here.
+     * @param p the character
+     * @return true if added
+     */
     public boolean addCharacter(Character p) {
         if (p == null) return false;
+        ensureLoaded();
         if (!LocationRestriction. isAllowed(type, p)) return false;
-        return characters. add(p);
+        if (characterSlots.putIfAbsent(p.getId(), characters.size()) != null) return false;
+        characters.add(p);
+        p.setDeathListener(deathRelay);
+        onCharacterAdded(p);
+        markDirty();
+        if (loading) return true;
+        for (LocationListener listener : listeners) {
+            listener.onCharacterAdded(this, p);
+        }
+        return true;
     }
 
+    /**
+     * Remove a character in constant time. The last character of the roster takes its place,
+     * so the order of the remaining characters is not preserved.
+     * @param p the character
+     * @return true if removed
+     */
     public boolean removeCharacter(Character p) {
         if (p == null) return false;
-        return characters.remove(p);
+        if (!containsCharacter(p)) return false; // Charge le lieu si besoin
+        // Swap-remove: the last character takes the freed slot
+        int slot = characterSlots.remove(p.getId());
+        Character last = characters.remove(characters.size() - 1);
+        if (last != p) {
+            characters.set(slot, last);
+            characterSlots.put(last.getId(), slot);
+        }
+        characterLeft(p);
+        return true;
+    }
+
+    /**
+     * Remove every character matching a filter, compacting the roster in a single pass.
+     * @param filter the characters to remove
+     * @return the number of characters removed
+     */
+    public int removeCharactersIf(Predicate<Character> filter) {
+        ensureLoaded();
+        // Compaction en une passe, dans l'ordre du roster
+        int kept = 0;
+        int size = characters.size();
+        List<Character> removed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Character p = characters.get(i);
+            if (filter.test(p)) {
+                characterSlots.remove(p.getId());
+                removed.add(p);
+            } else {
+                if (kept != i) {
+                    characters.set(kept, p);
+                    characterSlots.put(p.getId(), kept);
+                }
+                kept++;
+            }
+        }
+        characters.subList(kept, size).clear();
+        for (Character p : removed) {
+            characterLeft(p);
+        }
+        return removed.size();
+    }
+
+    private void characterLeft(Character p) {
+        if (p.getDeathListener() == deathRelay) {
+            p.setDeathListener(null);
+        }
+        onCharacterRemoved(p);
+        markDirty();
+        for (LocationListener listener : listeners) {
+            listener.onCharacterRemoved(this, p);
+        }
+    }
+
+    private void fireCharacterDied(Character p) {
+        for (LocationListener listener : listeners) {
+            listener.onCharacterDied(this, p);
+        }
+    }
+
+    // ==================== CHARGEMENT DIFFÉRÉ ====================
+
+    /**
+     * Defer the content of this location to a loader, called on the first access to the characters,
+     * foods, herbs or kettle. Until then the location is empty apart from its character counts.
+     * @param loader the loader, or null if the location is already complete
+     */
+    public void setLoader(LocationLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Check whether the content of this location has been loaded
+     */
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    /**
+     * Load the content of this location now if it was deferred to a loader
+     */
+    protected final void ensureLoaded() {
+        if (loader != null) {
+            materialize();
+        }
+    }
+
+    private synchronized void materialize() {
+        // Les autres threads attendent la fin du chargement ; le chargeur lui-même ne recommence pas
+        LocationLoader pending = loader;
+        if (pending == null || loading) return;
+        loading = true;
+        try {
+            pending.load(this);
+            loader = null;
+        } catch (RuntimeException e) {
+            // Un chargement interrompu ne doit pas passer pour le contenu du lieu : on repart à vide
+            discardContent();
+            throw e;
+        } finally {
+            loading = false;
+        }
+    }
+
+    /**
+     * Empty this location after a failed load, so that it can be loaded again and is never saved half-filled.
+     */
+    protected void discardContent() {
+        for (Character p : characters) {
+            if (p.getDeathListener() == deathRelay) {
+                p.setDeathListener(null);
+            }
+            onCharacterRemoved(p);
+        }
+        characters.clear();
+        characterSlots.clear();
+        foods.clear();
+        clanLeader = null;
+        magicPotion = new MagicPotion();
+        healingHerbs = 0;
+        turnsSinceLastHerbSpawn = 0;
+    }
+
+    // ==================== SUIVI DES MODIFICATIONS ====================
+
+    /**
+     * Record that the content of this location changed since the last save. Called by the roster,
+     * food and herb methods; code changing the characters of this location directly (damage, potions...)
+     * must call it too. Changes made while the location is being loaded do not count.
+     */
+    public void markDirty() {
+        if (!loading) {
+            dirty = true;
+            revision.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get a number that changes every time the location is {@link #markDirty() marked dirty} or its kettle
+     * changes. Unlike {@link #isDirty()} it is not reset by saves: a view compares it with the revision it
+     * last displayed to know whether to redraw.
+     */
+    public long getRevision() {
+        return revision.get() + magicPotion.getModificationCount();
+    }
+
+    /**
+     * Check whether the roster, foods, herbs or kettle changed since the last save.
+     * The herb spawn countdown alone does not make a location dirty.
+     */
+    public boolean isDirty() {
+        return dirty || magicPotion.getModificationCount() != savedKettleModifications;
+    }
+
+    /**
+     * Mark this location as saved. Call it before reading the content to save, so that a change
+     * made during the save marks the location dirty again.
+     * @return true if the location was dirty
+     */
+    public boolean clearDirty() {
+        boolean wasDirty = isDirty();
+        dirty = false;
+        savedKettleModifications = magicPotion.getModificationCount();
+        return wasDirty;
+    }
+
+    // ==================== JOURNAL ====================
+
+    /**
+     * Record the events of this location (heals, meals, herbs...) in a journal.
+     * @param journal the journal, or null to stop recording
+     * @param journalId the id of this location in the journal records
+     */
+    public void setJournal(EventJournal journal, int journalId) {
+        this.journal = journal;
+        this.journalId = journalId;
+    }
+
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    public int getJournalId() {
+        return journalId;
+    }
+
+    // ==================== LISTENERS ====================
+
+    /**
+     * Register a listener of the population changes of this location.
+     * @param listener the listener
+     */
+    public void addListener(LocationListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(LocationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Hook called after a character joined this location.
+     * @param character the character added
+     */
+    protected void onCharacterAdded(Character character) {
+    }
+
+    /**
+     * Hook called after a character left this location.
+     * @param character the character removed
+     */
+    protected void onCharacterRemoved(Character character) {
     }
 
     // ==================== GESTION DE LA NOURRITURE ====================
 
     public boolean addFood(Food a) {
         if (a == null) return false;
+        ensureLoaded();
+        markDirty();
         return foods.add(a);
     }
 
     public boolean removeFood(Food a) {
         if (a == null) return false;
-        return foods.remove(a);
+        ensureLoaded();
+        if (!foods.remove(a)) return false;
+        markDirty();
+        return true;
     }
 
     // ==================== MÉTHODES D'ACTION ====================
 
     public void healCharacters() {
+        ensureLoaded();
         if (healingHerbs > 0) {
+            markDirty();
             for (Character character : characters) {
                 character.heal(HERB_HEALING_AMOUNT);
+                if (journal != null) {
+                    journal.heal(journalId, character, HERB_HEALING_AMOUNT);
+                }
                 healingHerbs--;
                 if (healingHerbs <= 0) break;
             }
@@ -130,11 +521,16 @@ public class Location {
     }
 
     public void feedCharacters() {
+        ensureLoaded();
         for (Character character : characters) {
             if (character.isHungry() && ! foods.isEmpty()) {
                 Food food = foods.get(0);
                 character.eat(food);
+                if (journal != null) {
+                    journal.feed(journalId, character, food.ordinal());
+                }
                 foods.remove(0);
+                markDirty();
             }
         }
     }
@@ -143,6 +539,7 @@ public class Location {
 
     @Override
     public String toString() {
+        ensureLoaded();
         StringBuilder sb = new StringBuilder();
         sb.append("Location: ").append(name).append("\n");
         sb.append("Type: ").append(type).append("\n");
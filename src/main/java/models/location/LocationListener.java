@@ -0,0 +1,27 @@
+package models.location;
+
+import models.people.Character;
+
+/**
+ * Listener of the population changes of a location.
+ * Additions and removals are published by the thread changing the roster; deaths by the
+ * thread applying the fatal damage, which may be a simulation step worker.
+ */
+public interface LocationListener {
+
+    /**
+     * Called after a character joined a location.
+     */
+    void onCharacterAdded(Location location, Character character);
+
+    /**
+     * Called after a character left a location.
+     */
+    void onCharacterRemoved(Location location, Character character);
+
+    /**
+     * Called when a character of a location dies (it stays in the roster until removed).
+     */
+    default void onCharacterDied(Location location, Character character) {
+    }
+}
@@ -0,0 +1,27 @@
+package models.location;
+
+/**
+ * Source of the content of a location that is loaded on first use (see {@link Location#setLoader}).
+ * A location knows its name, type and area up front; its characters, foods, herbs and kettle
+ * are only read when one of them is first accessed.
+ */
+public interface LocationLoader {
+
+    /**
+     * Get the number of characters the location holds, without loading them.
+     */
+    int characterCount();
+
+    /**
+     * Get the number of characters of the location that are instances of a type, without loading them.
+     * @param type a class or interface, e.g. {@code Gaul.class}
+     */
+    int characterCount(Class<?> type);
+
+    /**
+     * Fill the location with its content. Called once; characters added here are not reported to
+     * the location listeners, since they were already part of the location.
+     * @param location the location to fill
+     */
+    void load(Location location);
+}
@@ -1,5 +1,6 @@
 package models.location;
 
+import models.enums.Faction;
 import models.people.Character;
 
 public final class LocationRestriction {
@@ -9,6 +10,8 @@ public final class LocationRestriction {
 /**
  * 
  * In this method, we check if a character is allowed in a specific location type based on their affiliation.
+ * The affiliation of each character class is computed once (see {@link Faction#maskOf(Class)}),
+ * so the check is a lookup and a bit test.
  * @param type The type of location.
  * @param character The character to check.
  * @return true if the character is allowed in the location, false otherwise.
@@ -17,70 +20,21 @@ public final class LocationRestriction {
 
     public static boolean isAllowed(LocationType type, Character character) {
         if (character == null) return false;
-        if (type == LocationType.BATTLEFIELD) return true; // tout le monde peut s'y rendre
-
-        // Détection via instanceof si les interfaces/classes existent (sécurisé en compilation
-        // si vous importez explicitement) — ici on fait la détection générique via reflection.
-        boolean isRoman = implementsInterfaceNamed(character, "Roman");
-        boolean isGaulois = implementsInterfaceNamed(character, "Gaul");
-        boolean isFantastique = implementsInterfaceNamed(character, "Lycanthrope") ||
-                implementsInterfaceNamed(character, "Fantastique") ||
-                character.getClass().getSimpleName().toLowerCase().contains("lycanth") ||
-                character.getClass().getSimpleName().toLowerCase().contains("werewolf") ||
-                character.getClass().getSimpleName().toLowerCase().contains("fantast");
-
-        return switch (type) {
-            case GAUL_TOWN -> isGaulois || isFantastique;
-            case ROMAIN_CAMP, ROMAIN_TOWN -> isRoman || isFantastique;
-            case GAUL_ROMAIN_VILLAGE -> isGaulois || isRoman;
-            case ENCLOSURE -> isFantastique;
-            case BATTLEFIELD -> isGaulois || isRoman || isFantastique;
-            default -> false;
-        };
-    }
-/**
- * 
- * Checks if an object implements an interface with the given simple name.
- * @param obj The object to check.
- * @param ifaceSimpleName The simple name of the interface.
- * @return true if the object implements the interface, false otherwise.
- * 
- */
-
-    private static boolean implementsInterfaceNamed(Object obj, String ifaceSimpleName) {
-        Class<?> cls = obj.getClass();
-        while (cls != null && cls != Object.class) {
-            for (Class<?> iface : cls.getInterfaces()) {
-                if (iface.getSimpleName().equalsIgnoreCase(ifaceSimpleName)) {
-                    return true;
-                }
-                if (implementsInterfaceNamedRecursive(iface, ifaceSimpleName)) {
-                    return true;
-                }
-            }
-            cls = cls.getSuperclass();
-        }
-        return false;
+        return isAllowed(type, character.getClass());
     }
 
 /**
  * 
- * Helpers method to recursively check parent interfaces.
- * @param iface The interface to check.
- * @param ifaceSimpleName The simple name of the interface.
- * @return true if the interface or any of its parents match the name, false otherwise.
+ * Checks if characters of a given class are allowed in a specific location type,
+ * without having to create one.
+ * @param type The type of location.
+ * @param characterClass The class of character to check.
+ * @return true if characters of this class are allowed in the location, false otherwise.
  * 
  */
 
-    private static boolean implementsInterfaceNamedRecursive(Class<?> iface, String ifaceSimpleName) {
-        for (Class<?> parent : iface.getInterfaces()) {
-            if (parent.getSimpleName().equalsIgnoreCase(ifaceSimpleName)) {
-                return true;
-            }
-            if (implementsInterfaceNamedRecursive(parent, ifaceSimpleName)) {
-                return true;
-            }
-        }
-        return false;
+    public static boolean isAllowed(LocationType type, Class<? extends Character> characterClass) {
+        if (type == null || characterClass == null) return false;
+        return type.admits(Faction.maskOf(characterClass));
     }
-}
\ No newline at end of file
+}
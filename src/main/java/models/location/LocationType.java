@@ -1,13 +1,47 @@
 package models.location;
 
+import models.enums.Faction;
+
+import java.util.EnumSet;
+
 /**
  * Types de lieux compatibles avec la simulation.
+ * Chaque type connaît les factions qu'il admet.
  */
 public enum LocationType {
-    GAUL_TOWN,
-    ROMAIN_CAMP,
-    ROMAIN_TOWN,
-    GAUL_ROMAIN_VILLAGE,
-    ENCLOSURE,
-    BATTLEFIELD;
-}
\ No newline at end of file
+    GAUL_TOWN(EnumSet.of(Faction.GAUL, Faction.FANTASTIC)),
+    ROMAIN_CAMP(EnumSet.of(Faction.ROMAN, Faction.FANTASTIC)),
+    ROMAIN_TOWN(EnumSet.of(Faction.ROMAN, Faction.FANTASTIC)),
+    GAUL_ROMAIN_VILLAGE(EnumSet.of(Faction.GAUL, Faction.ROMAN)),
+    ENCLOSURE(EnumSet.of(Faction.FANTASTIC)),
+    BATTLEFIELD(EnumSet.allOf(Faction.class)); // tout le monde peut s'y rendre
+
+    private final EnumSet<Faction> allowedFactions;
+    private final int allowedMask;
+
+    LocationType(EnumSet<Faction> allowedFactions) {
+        this.allowedFactions = allowedFactions;
+        int mask = 0;
+        for (Faction faction : allowedFactions) {
+            mask |= faction.bit();
+        }
+        this.allowedMask = mask;
+    }
+
+    /**
+     * Get the factions admitted in this type of location.
+     * @return a copy of the admitted factions
+     */
+    public EnumSet<Faction> getAllowedFactions() {
+        return EnumSet.copyOf(allowedFactions);
+    }
+
+    /**
+     * Check if a faction mask (see {@link Faction#maskOf(Class)}) is admitted.
+     * @param factionMask the factions of a character
+     * @return true if at least one of the factions is admitted
+     */
+    public boolean admits(int factionMask) {
+        return (allowedMask & factionMask) != 0;
+    }
+}
@@ -1,6 +1,8 @@
 package models.people;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import models.factory.CharacterFactory.CharacterType;
 import models.food.Food;
@@ -8,8 +10,11 @@ import static models.people.Gaul.availableFoods;
 import models.potion.MagicPotion;
 
 public abstract class Character {
-    private static final int STRENGTH_MULTIPLIER = 100; // Converts strength decimal to combat damage
+    static final int STRENGTH_MULTIPLIER = 100; // Converts strength decimal to combat damage
+    static final double HUNGER_THRESHOLD = 50; // Hungry below this hunger indicator
+    private static final AtomicLong NEXT_ID = new AtomicLong();
 
+    private final long id = NEXT_ID.incrementAndGet(); // Stable, unique for the whole run
     private final String name;
     private final char sex;
     private final double height;
@@ -25,6 +30,11 @@ public abstract class Character {
     private int magicPotionLevel;
     private boolean dead = false;
 
+    // When registered in a CharacterStore, the combat state lives in the store columns
+    private CharacterStore store;
+    private int storeId = -1;
+    private Consumer<Character> deathListener;
+
     public static final String[] CHARACTERSTYPE;
     static {
         CharacterType[] types = CharacterType.values();
@@ -70,10 +80,23 @@ public abstract class Character {
             return;
         }
 
+        if (store != null && opponent.store == store) {
+            store.fight(storeId, opponent.storeId);
+            return;
+        }
+
+        opponent.takeDamage(getAttackDamage(opponent));
+    }
+
+    /**
+     * Get the damage a hit of this character deals to an opponent, without applying it.
+     * @param opponent The opponent
+     * @return The damage, at least 1
+     */
+    public int getAttackDamage(Character opponent) {
         // Calculate damage: Attacker's Strength - (Defender's Endurance / 2) + Character Bonus
         int damage = (int) (this.strength * STRENGTH_MULTIPLIER - (opponent.getEndurance() / 2.0) + this.getCombatBonus());
-        damage = Math.max(1, damage); // Minimum 1 damage
-        opponent.takeDamage(damage);
+        return Math.max(1, damage); // Minimum 1 damage
     }
 
     /**
@@ -81,6 +104,10 @@ public abstract class Character {
      * @param damage The amount of damage to take
      */
     public void takeDamage(double damage) {
+        if (store != null) {
+            store.takeDamage(storeId, damage);
+            return;
+        }
         if (isDead()) {
             return;
         }
@@ -109,10 +136,7 @@ public abstract class Character {
         if (isDead()) {
             throw new IllegalStateException("Cannot heal dead character!");
         }
-        this.health += amount;
-        if (this.health > maxHealth) {
-            this.health = maxHealth;
-        }
+        setHealth(Math.min(getHealth() + amount, getMaxHealth()));
     }
 
     /**
@@ -121,12 +145,7 @@ public abstract class Character {
      */
     public void eat(Food food) {
         if (food != null) {
-            this.hungerIndicator += 20; // Augmente la satiété
-            if (this.hungerIndicator > 100) {
-                this.hungerIndicator = 100;
-            }
-            // Update boolean hunger flag based on indicator
-            this.hunger = (hungerIndicator < 50);
+            setHungerIndicator(Math.min(getHungerIndicator() + 20, 100)); // Augmente la satiété
         }
     }
 
@@ -134,8 +153,7 @@ public abstract class Character {
      * Makes this character hungry.
      */
     public void makeHungry() {
-        hungerIndicator = Math.max(0, hungerIndicator - 30);
-        hunger = (hungerIndicator < 50);
+        setHungerIndicator(Math.max(0, getHungerIndicator() - 30));
     }
 
     /**
@@ -143,7 +161,7 @@ public abstract class Character {
      * @return true if hunger indicator is below 50
      */
     public boolean isHungry() {
-        return hungerIndicator < 50;
+        return getHungerIndicator() < HUNGER_THRESHOLD;
     }
 
     /**
@@ -151,7 +169,17 @@ public abstract class Character {
      * @return The current hunger indicator level
      */
     public double getHungerIndicator() {
-        return hungerIndicator;
+        return store != null ? store.getHunger(storeId) : hungerIndicator;
+    }
+
+    private void setHungerIndicator(double value) {
+        if (store != null) {
+            store.setHunger(storeId, value);
+        } else {
+            hungerIndicator = value;
+        }
+        // Update boolean hunger flag based on indicator
+        hunger = value < HUNGER_THRESHOLD;
     }
 
     /**
@@ -159,7 +187,11 @@ public abstract class Character {
      */
     public void drinkPotion(MagicPotion magicPotion) {
         if (magicPotion.takeAPotion()) {
-            ++magicPotionLevel;
+            if (store != null) {
+                store.setPotionLevel(storeId, store.getPotionLevel(storeId) + 1);
+            } else {
+                ++magicPotionLevel;
+            }
         }
     }
 
@@ -167,8 +199,47 @@ public abstract class Character {
      * Makes this character die.
      */
     public void die() {
-        this.health = 0;
-        this.dead = true;
+        boolean wasDead = isDead();
+        setHealth(0);
+        setDead(true);
+        if (!wasDead) {
+            notifyDeath();
+        }
+    }
+
+    /**
+     * Restore the mutable state of this character, e.g. from a snapshot. No death is notified.
+     */
+    public void restoreState(double health, double maxHealth, double endurance, double hungerIndicator,
+                             int magicPotionLevel, boolean dead) {
+        setHealth(health);
+        setMaxHealth(maxHealth);
+        setEndurance(endurance);
+        setHungerIndicator(hungerIndicator);
+        if (store != null) {
+            store.setPotionLevel(storeId, magicPotionLevel);
+        } else {
+            this.magicPotionLevel = magicPotionLevel;
+        }
+        setDead(dead);
+    }
+
+    /**
+     * Set the callback told when this character dies (the location holding it).
+     * @param deathListener the callback, or null
+     */
+    public void setDeathListener(Consumer<Character> deathListener) {
+        this.deathListener = deathListener;
+    }
+
+    public Consumer<Character> getDeathListener() {
+        return deathListener;
+    }
+
+    void notifyDeath() {
+        if (deathListener != null) {
+            deathListener.accept(this);
+        }
     }
 
     /**
@@ -188,11 +259,47 @@ public abstract class Character {
     protected abstract int getCombatBonus();
 
     public boolean isDead() {
-        return dead;
+        return store != null ? store.isDead(storeId) : dead;
     }
 
     public void setDead(boolean dead) {
-        this.dead = dead;
+        if (store != null) {
+            store.setDead(storeId, dead);
+        } else {
+            this.dead = dead;
+        }
+    }
+
+    /**
+     * Get the store holding the state of this character
+     * @return the store, or null if the state lives in this object
+     */
+    public CharacterStore getStore() {
+        return store;
+    }
+
+    /**
+     * Get the id of this character in its store
+     * @return the id, or -1 if not registered
+     */
+    public int getStoreId() {
+        return storeId;
+    }
+
+    /**
+     * Make this character a handle on the given store columns (see {@link CharacterStore#register}).
+     */
+    void bind(CharacterStore store, int storeId) {
+        this.store = store;
+        this.storeId = storeId;
+    }
+
+    /**
+     * Get the stable identifier of this character, unique among all characters created in this run
+     * @return the id, strictly positive
+     */
+    public long getId() {
+        return id;
     }
 
     public String getName() {
@@ -216,11 +323,15 @@ public abstract class Character {
     }
 
     public double getEndurance() {
-        return endurance;
+        return store != null ? store.getEndurance(storeId) : endurance;
     }
 
     public void setEndurance(double endurance) {
-        this.endurance = endurance;
+        if (store != null) {
+            store.setEndurance(storeId, endurance);
+        } else {
+            this.endurance = endurance;
+        }
     }
 
     public double getStamina() {
@@ -232,15 +343,27 @@ public abstract class Character {
      * @return The current health level
      */
     public double getHealth() {
-        return health;
+        return store != null ? store.getHealth(storeId) : health;
+    }
+
+    private void setHealth(double health) {
+        if (store != null) {
+            store.setHealth(storeId, health);
+        } else {
+            this.health = health;
+        }
     }
 
     public double getMaxHealth() {
-        return maxHealth;
+        return store != null ? store.getMaxHealth(storeId) : maxHealth;
     }
 
     public void setMaxHealth(double maxHealth) {
-        this.maxHealth = maxHealth;
+        if (store != null) {
+            store.setMaxHealth(storeId, maxHealth);
+        } else {
+            this.maxHealth = maxHealth;
+        }
     }
 
     public boolean isBelligerence() {
@@ -248,7 +371,7 @@ public abstract class Character {
     }
 
     public double getMagicPotionLevel() {
-        return magicPotionLevel;
+        return store != null ? store.getPotionLevel(storeId) : magicPotionLevel;
     }
 
     public ArrayList<Food> getAvailableFoods() {return availableFoods;}
@@ -262,12 +385,12 @@ public abstract class Character {
                 ", age=" + age +
                 ", strength=" + strength +
                 ", stamina=" + stamina +
-                ", health=" + health +
-                ", hungerIndicator=" + hungerIndicator +
+                ", health=" + getHealth() +
+                ", hungerIndicator=" + getHungerIndicator() +
                 ", hunger=" + hunger +
                 ", belligerence=" + belligerence +
-                ", magicPotionLevel=" + magicPotionLevel +
-                ", dead=" + dead +
+                ", magicPotionLevel=" + (int) getMagicPotionLevel() +
+                ", dead=" + isDead() +
                 '}';
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package models.people;
+
+import java.util.Arrays;
+
+/**
+ * Columnar storage of the combat and survival state of many characters.
+ * Each registered character gets an id and its health, endurance, strength, hunger,
+ * combat bonus, potion level and death flag move into primitive arrays indexed by that id.
+ * The {@link Character} object then becomes a handle reading and writing these columns,
+ * so battles and simulation steps over large populations can scan contiguous memory.
+ */
+public final class CharacterStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Character[] handles = new Character[INITIAL_CAPACITY];
+    private double[] health = new double[INITIAL_CAPACITY];
+    private double[] maxHealth = new double[INITIAL_CAPACITY];
+    private double[] endurance = new double[INITIAL_CAPACITY];
+    private double[] strength = new double[INITIAL_CAPACITY];
+    private double[] hunger = new double[INITIAL_CAPACITY];
+    private int[] combatBonus = new int[INITIAL_CAPACITY];
+    private int[] potionLevel = new int[INITIAL_CAPACITY];
+    private int[] placements = new int[INITIAL_CAPACITY];
+    private boolean[] dead = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+    private int totalPlacements = 0;
+
+    /**
+     * Move the state of a character into the store and turn it into a handle.
+     * @param character the character to register
+     * @return the id of the character in this store
+     * @throws IllegalStateException if the character already belongs to another store
+     */
+    public int register(Character character) {
+        if (character.getStore() == this) {
+            return character.getStoreId();
+        }
+        if (character.getStore() != null) {
+            throw new IllegalStateException(character.getName() + " already belongs to another store");
+        }
+        ensureCapacity(size + 1);
+        int id = size++;
+        handles[id] = character;
+        health[id] = character.getHealth();
+        maxHealth[id] = character.getMaxHealth();
+        endurance[id] = character.getEndurance();
+        strength[id] = character.getStrength();
+        hunger[id] = character.getHungerIndicator();
+        combatBonus[id] = character.getCombatBonus();
+        potionLevel[id] = (int) character.getMagicPotionLevel();
+        dead[id] = character.isDead();
+        character.bind(this, id);
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the character handle of an id.
+     */
+    public Character get(int id) {
+        return handles[id];
+    }
+
+    // ==================== COLUMNS ====================
+
+    public double getHealth(int id) {
+        return health[id];
+    }
+
+    void setHealth(int id, double value) {
+        health[id] = value;
+    }
+
+    public double getMaxHealth(int id) {
+        return maxHealth[id];
+    }
+
+    void setMaxHealth(int id, double value) {
+        maxHealth[id] = value;
+    }
+
+    public double getEndurance(int id) {
+        return endurance[id];
+    }
+
+    void setEndurance(int id, double value) {
+        endurance[id] = value;
+    }
+
+    public double getStrength(int id) {
+        return strength[id];
+    }
+
+    public double getHunger(int id) {
+        return hunger[id];
+    }
+
+    void setHunger(int id, double value) {
+        hunger[id] = value;
+    }
+
+    public int getPotionLevel(int id) {
+        return potionLevel[id];
+    }
+
+    void setPotionLevel(int id, int value) {
+        potionLevel[id] = value;
+    }
+
+    public boolean isDead(int id) {
+        return dead[id];
+    }
+
+    void setDead(int id, boolean value) {
+        dead[id] = value;
+    }
+
+    /**
+     * Record that a character entered (+1) or left (-1) a location.
+     * Only characters placed in a location are affected by {@link #applyHungerDamage(double)}.
+     */
+    public void updatePlacement(int id, int delta) {
+        placements[id] += delta;
+        totalPlacements += delta;
+    }
+
+    /**
+     * Forget every placement, before counting them again from the locations
+     */
+    public void clearPlacements() {
+        Arrays.fill(placements, 0, size, 0);
+        totalPlacements = 0;
+    }
+
+    public boolean isPlaced(int id) {
+        return placements[id] > 0;
+    }
+
+    /**
+     * Get the number of places held by the characters of this store, over all locations.
+     */
+    public int getTotalPlacements() {
+        return totalPlacements;
+    }
+
+    // ==================== BULK OPERATIONS ====================
+
+    /**
+     * Same rules as {@link Character#takeDamage(double)}, on the columns.
+     */
+    public void takeDamage(int id, double damage) {
+        if (dead[id]) {
+            return;
+        }
+        health[id] -= damage;
+        if (health[id] <= 0) {
+            health[id] = 0;
+            dead[id] = true;
+            handles[id].notifyDeath();
+        }
+    }
+
+    /**
+     * Same rules as {@link Character#fight(Character)}, on the columns.
+     */
+    public void fight(int attacker, int defender) {
+        if (dead[attacker] || dead[defender] || health[defender] <= 0) {
+            return;
+        }
+        int damage = (int) (strength[attacker] * Character.STRENGTH_MULTIPLIER
+                - (endurance[defender] / 2.0) + combatBonus[attacker]);
+        takeDamage(defender, Math.max(1, damage));
+    }
+
+    /**
+     * Damage every placed, living and hungry character, in one pass over the columns.
+     * @param damage the damage taken by each hungry character
+     * @return the number of characters damaged
+     */
+    public int applyHungerDamage(double damage) {
+        int hit = 0;
+        for (int id = 0; id < size; id++) {
+            if (placements[id] > 0 && !dead[id] && hunger[id] < Character.HUNGER_THRESHOLD) {
+                takeDamage(id, damage);
+                hit++;
+            }
+        }
+        return hit;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= handles.length) return;
+        int newCapacity = Math.max(capacity, handles.length * 2);
+        handles = Arrays.copyOf(handles, newCapacity);
+        health = Arrays.copyOf(health, newCapacity);
+        maxHealth = Arrays.copyOf(maxHealth, newCapacity);
+        endurance = Arrays.copyOf(endurance, newCapacity);
+        strength = Arrays.copyOf(strength, newCapacity);
+        hunger = Arrays.copyOf(hunger, newCapacity);
+        combatBonus = Arrays.copyOf(combatBonus, newCapacity);
+        potionLevel = Arrays.copyOf(potionLevel, newCapacity);
+        placements = Arrays.copyOf(placements, newCapacity);
+        dead = Arrays.copyOf(dead, newCapacity);
+    }
+}
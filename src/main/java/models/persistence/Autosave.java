@@ -0,0 +1,220 @@
+package models.persistence;
+
+import models.location.Location;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot.LocationState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Saves a theater every N turns to a {@link MappedTheaterFile}, writing only the locations whose roster,
+ * foods, herbs or kettle changed since the previous autosave ({@link Location#isDirty()}).
+ * <p>
+ * At each autosave the state of the changed locations is copied on the calling thread (the one playing the
+ * turns), each under the monitor of its location; that copy is the only part that costs simulation time.
+ * Encoding and writing the file happen on a background thread.
+ * The first autosave of a theater, or one after locations were added or removed, copies every location.
+ * When more than half of the file is made of superseded blocks, the background thread compacts it.
+ */
+public final class Autosave implements AutoCloseable {
+
+    /**
+     * Outcome of an autosave, reported from the background thread.
+     * @param turn the turn saved
+     * @param written the number of locations written
+     * @param locations the number of locations of the theater
+     * @param full true if the whole file was rewritten
+     * @param error the error that made the save fail, null on success
+     */
+    public record Result(long turn, int written, int locations, boolean full, IOException error) {
+    }
+
+    private final Path path;
+    private final int interval;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Consumer<Result> listener;
+    private volatile Result lastResult;
+    private CompletableFuture<Result> pending = CompletableFuture.completedFuture(null);
+
+    // Lieux de la dernière sauvegarde complète, dans l'ordre du fichier
+    private Theater savedTheater;
+    private final List<Location> savedLocations = new ArrayList<>();
+    private volatile boolean fullSaveNeeded = true;
+
+    /**
+     * @param path the save file, rewritten at the first autosave
+     * @param interval the number of turns between two autosaves
+     */
+    public Autosave(Path path, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Autosave interval must be at least 1: " + interval);
+        }
+        this.path = Objects.requireNonNull(path);
+        this.interval = interval;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the outcome of the last autosave written, null if none yet
+     */
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Be told of every autosave written, on the background thread
+     * @param listener the listener, or null
+     */
+    public void setListener(Consumer<Result> listener) {
+        this.listener = listener;
+    }
+
+    // ==================== SAVING ====================
+
+    /**
+     * Autosave if the turn is a multiple of the interval. Call it after every turn, on the thread playing them.
+     * @param theater the theater
+     * @param turn the turn just played
+     * @return true if an autosave was started
+     */
+    public boolean onTurn(Theater theater, long turn) {
+        return turn % interval == 0 && save(theater, turn);
+    }
+
+    /**
+     * Copy the changed locations now, then encode and write them in the background. Nothing is done while
+     * the previous autosave is still being written: its changes stay marked for the next one.
+     * @param theater the theater
+     * @param turn the current turn
+     * @return true if an autosave was started
+     */
+    public synchronized boolean save(Theater theater, long turn) {
+        if (!pending.isDone()) return false;
+
+        List<Location> locations = theater.getLocations();
+        boolean full = fullSaveNeeded || theater != savedTheater || !locations.equals(savedLocations);
+        Map<Location, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < locations.size(); i++) {
+            indexes.put(locations.get(i), i);
+        }
+        List<Integer> changed = new ArrayList<>();
+        List<LocationState> states = new ArrayList<>();
+        int[] herbCountdowns = new int[locations.size()];
+        try {
+            for (int i = 0; i < locations.size(); i++) {
+                Location location = locations.get(i);
+                // Effacer avant de lire : un changement pendant la copie reste marqué
+                if (location.clearDirty() || full) {
+                    synchronized (location) {
+                        states.add(LocationState.of(location, indexes));
+                    }
+                    changed.add(i);
+                }
+                // Un lieu pas encore chargé n'a pas joué de tour : son compte à rebours n'a pas changé
+                herbCountdowns[i] = location.isLoaded() ? location.getTurnsSinceLastHerbSpawn() : -1;
+            }
+        } catch (RuntimeException e) {
+            // Marques déjà effacées : la prochaine sauvegarde réécrit tout
+            fullSaveNeeded = true;
+            report(new Result(turn, 0, locations.size(), full, new IOException("Autosave failed: " + e.getMessage(), e)));
+            return false;
+        }
+
+        if (full) {
+            savedTheater = theater;
+            savedLocations.clear();
+            savedLocations.addAll(locations);
+            fullSaveNeeded = false;
+        }
+        long seed = theater.getRandomSource().getSeed();
+        int count = locations.size();
+        pending = CompletableFuture.supplyAsync(
+                () -> write(seed, turn, changed, states, herbCountdowns, count, full), writer);
+        return true;
+    }
+
+    private Result write(long seed, long turn, List<Integer> changed, List<LocationState> states,
+                         int[] herbCountdowns, int count, boolean full) {
+        Result result;
+        try {
+            MappedTheaterFile.Encoder encoder = new MappedTheaterFile.Encoder();
+            List<MappedTheaterFile.Block> blocks = new ArrayList<>(states.size());
+            for (int i = 0; i < states.size(); i++) {
+                blocks.add(encoder.encode(changed.get(i), states.get(i)));
+            }
+            if (full) {
+                MappedTheaterFile.save(seed, turn, blocks, path);
+            } else {
+                long stale = MappedTheaterFile.update(path, turn, blocks, herbCountdowns);
+                if (stale > path.toFile().length() / 2) {
+                    MappedTheaterFile.compact(path);
+                }
+            }
+            result = new Result(turn, blocks.size(), count, full, null);
+        } catch (IOException e) {
+            fullSaveNeeded = true;
+            result = new Result(turn, 0, count, full, e);
+        } catch (RuntimeException e) {
+            fullSaveNeeded = true;
+            result = new Result(turn, 0, count, full, new IOException("Autosave failed: " + e.getMessage(), e));
+        }
+        report(result);
+        return result;
+    }
+
+    private void report(Result result) {
+        lastResult = result;
+        Consumer<Result> current = listener;
+        if (current != null) {
+            current.accept(result);
+        }
+    }
+
+    /**
+     * Wait for the autosave being written, if any
+     * @return its outcome, null if there was none
+     */
+    public Result awaitPending() {
+        CompletableFuture<Result> current;
+        synchronized (this) {
+            current = pending;
+        }
+        return current.join();
+    }
+
+    /**
+     * Finish the autosave being written and stop the background thread
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package models.persistence;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads what {@link BinaryWriter} wrote, streaming from a channel through a fixed buffer,
+ * or directly from a buffer already in memory (e.g. a mapped file).
+ */
+final class BinaryReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final List<String> strings = new ArrayList<>();
+
+    BinaryReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip(); // Empty until the first read
+    }
+
+    /**
+     * Read the remaining bytes of a buffer, without copying them
+     */
+    BinaryReader(ByteBuffer data) {
+        this.channel = null;
+        this.buffer = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    byte getByte() throws IOException {
+        ensure(1);
+        return buffer.get();
+    }
+
+    boolean getBoolean() throws IOException {
+        return getByte() != 0;
+    }
+
+    char getChar() throws IOException {
+        ensure(2);
+        return buffer.getChar();
+    }
+
+    int getInt() throws IOException {
+        ensure(4);
+        return buffer.getInt();
+    }
+
+    long getLong() throws IOException {
+        ensure(8);
+        return buffer.getLong();
+    }
+
+    double getDouble() throws IOException {
+        ensure(8);
+        return buffer.getDouble();
+    }
+
+    String getString() throws IOException {
+        int index = getInt();
+        if (index >= 0) {
+            if (index >= strings.size()) {
+                throw new IOException("Corrupted data: unknown string " + index);
+            }
+            return strings.get(index);
+        }
+        int length = getInt();
+        if (length < 0) {
+            throw new IOException("Corrupted data: string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        for (int offset = 0; offset < length; ) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (strings.size() < BinaryWriter.MAX_STRINGS) {
+            strings.add(value);
+        }
+        return value;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        if (channel == null) {
+            throw new EOFException("Unexpected end of data");
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of data");
+            }
+        }
+        buffer.flip();
+    }
+}
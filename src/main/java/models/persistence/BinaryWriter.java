@@ -0,0 +1,120 @@
+package models.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Little-endian primitive writer streaming to a channel through a fixed buffer.
+ * The first {@value #MAX_STRINGS} distinct strings are written once and referenced by index afterwards;
+ * later ones are always written in full, so unique names do not fill an unbounded table.
+ */
+final class BinaryWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    static final int MAX_STRINGS = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Map<String, Integer> strings = new HashMap<>();
+    private long written;
+
+    BinaryWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Get the number of bytes written so far, buffered ones included
+     */
+    long position() {
+        return written + buffer.position();
+    }
+
+    void putByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void putBoolean(boolean value) throws IOException {
+        putByte(value ? 1 : 0);
+    }
+
+    void putChar(char value) throws IOException {
+        ensure(2);
+        buffer.putChar(value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    void putDouble(double value) throws IOException {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Write a string: the index of its first occurrence, or -1 followed by its UTF-8 length and bytes
+     */
+    void putString(String value) throws IOException {
+        Integer index = strings.get(value);
+        if (index != null) {
+            putInt(index);
+            return;
+        }
+        if (strings.size() < MAX_STRINGS) {
+            strings.put(value, strings.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(-1);
+        putInt(bytes.length);
+        putBytes(bytes);
+    }
+
+    /**
+     * Write raw bytes
+     */
+    void putBytes(byte[] bytes) throws IOException {
+        for (int offset = 0; offset < bytes.length; ) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Forget the strings written so far: the next occurrences are written in full again.
+     * Used to make blocks that can be read independently.
+     */
+    void resetStrings() {
+        strings.clear();
+    }
+
+    /**
+     * Write the buffered bytes to the channel
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,563 @@
+package models.persistence;
+
+import models.factory.CharacterFactory;
+import models.factory.CharacterFactory.CharacterType;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationLoader;
+import models.location.LocationType;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot.CharacterState;
+import models.theater.TheaterSnapshot.LocationState;
+import models.utils.RandomSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Save file of a theater laid out for memory mapping: a directory of the locations at the head,
+ * then one independent block per location. Opening a save maps the file and reads the directory
+ * only; each location reads its block the first time its content is accessed
+ * (see {@link Location#setLoader}), so opening does not depend on the number of characters.
+ * A location can be saved again on its own: its new block is appended to the file and its
+ * directory entry rewritten in place ({@link #update}).
+ *
+ * <pre>
+ * header     int magic, int version, long seed, long turn, int location count, int directory size
+ * directory  per location: byte kind (0 location, 1 battlefield), byte type, double superficie,
+ *            long block offset, int block length, int character count, int count per character type,
+ *            int turns since last herb spawn (version 2), int name length, UTF-8 name
+ * blocks     per location: the location content of {@link TheaterCodec}, with its own string table
+ *            (codec version 1 up to version 2 of this file, with the rank of werewolves since version 3)
+ * </pre>
+ * The herb spawn countdown of the directory replaces the one of the block: it changes every turn,
+ * and keeping it out of the blocks lets a location that did not change keep its block.
+ */
+public final class MappedTheaterFile {
+
+    public static final int MAGIC = 0x41524D50; // "ARMP"
+    public static final int VERSION = 3;
+    public static final int HEADER_SIZE = 32;
+    // Below this size the file is read into the heap: a mapping is only released by the garbage collector
+    static final int MAP_THRESHOLD = 1 << 20;
+
+    private static final CharacterType[] CHARACTER_TYPES = CharacterType.values();
+    private static final LocationType[] LOCATION_TYPES = LocationType.values();
+
+    private MappedTheaterFile() {}
+
+    // ==================== DIRECTORY ====================
+
+    /**
+     * Directory entry of a location.
+     */
+    static final class Entry {
+        final boolean battlefield;
+        final LocationType type;
+        final double superficie;
+        final byte[] name;
+        long offset;
+        int length;
+        int characters;
+        int[] counts;
+        int herbCountdown;
+
+        private Entry(boolean battlefield, LocationType type, double superficie, byte[] name,
+                      int characters, int[] counts, int herbCountdown) {
+            this.battlefield = battlefield;
+            this.type = type;
+            this.superficie = superficie;
+            this.name = name;
+            this.characters = characters;
+            this.counts = counts;
+            this.herbCountdown = herbCountdown;
+        }
+
+        /**
+         * Describe a location, loading it if needed. Offset and length are set when its block is written.
+         */
+        static Entry of(Location location) {
+            int[] counts = new int[CHARACTER_TYPES.length];
+            location.forEachCharacter(c -> counts[CharacterFactory.typeOf(c).ordinal()]++);
+            return new Entry(location instanceof Battlefield, location.getType(), location.getSuperficie(),
+                    location.getName().getBytes(StandardCharsets.UTF_8), location.getCharactersNbr(), counts,
+                    location.getTurnsSinceLastHerbSpawn());
+        }
+
+        /**
+         * Describe a location copied beforehand
+         */
+        static Entry of(LocationState location) {
+            int[] counts = new int[CHARACTER_TYPES.length];
+            for (CharacterState character : location.characters()) {
+                counts[character.type().ordinal()]++;
+            }
+            return new Entry(location.isBattlefield(), location.type(), location.superficie(),
+                    location.name().getBytes(StandardCharsets.UTF_8), location.characters().size(), counts,
+                    location.turnsSinceLastHerbSpawn());
+        }
+
+        int size() {
+            return 1 + 1 + 8 + 8 + 4 + 4 + 4 * CHARACTER_TYPES.length + 4 + 4 + name.length;
+        }
+
+        void write(BinaryWriter out) throws IOException {
+            out.putBoolean(battlefield);
+            out.putByte(type.ordinal());
+            out.putDouble(superficie);
+            out.putLong(offset);
+            out.putInt(length);
+            out.putInt(characters);
+            for (int count : counts) {
+                out.putInt(count);
+            }
+            out.putInt(herbCountdown);
+            out.putInt(name.length);
+            out.putBytes(name);
+        }
+
+        static Entry read(ByteBuffer directory, int version) {
+            boolean battlefield = directory.get() != 0;
+            LocationType type = LOCATION_TYPES[directory.get()];
+            double superficie = directory.getDouble();
+            long offset = directory.getLong();
+            int length = directory.getInt();
+            int characters = directory.getInt();
+            int[] counts = new int[CHARACTER_TYPES.length];
+            for (int t = 0; t < counts.length; t++) {
+                counts[t] = directory.getInt();
+            }
+            int herbCountdown = version >= 2 ? directory.getInt() : -1;
+            byte[] name = new byte[directory.getInt()];
+            directory.get(name);
+            Entry entry = new Entry(battlefield, type, superficie, name, characters, counts, herbCountdown);
+            entry.offset = offset;
+            entry.length = length;
+            return entry;
+        }
+
+        /**
+         * Take the content description of a newer entry of the same location
+         */
+        void update(Entry newer) {
+            characters = newer.characters;
+            counts = newer.counts;
+            herbCountdown = newer.herbCountdown;
+        }
+    }
+
+    private record Header(int version, long seed, long turn, int count, int directorySize) {
+    }
+
+    /**
+     * The content of a location encoded as a block, ready to be written without the location.
+     * @param location the index of the location in the theater
+     */
+    record Block(int location, Entry entry, byte[] data) {
+    }
+
+    /**
+     * Encodes copied locations as blocks, reusing its buffers from one location to the next.
+     */
+    static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final BinaryWriter out = new BinaryWriter(Channels.newChannel(bytes));
+
+        Block encode(int index, LocationState location) throws IOException {
+            bytes.reset();
+            out.resetStrings();
+            TheaterCodec.writeLocation(out, location);
+            out.flush();
+            return new Block(index, Entry.of(location), bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Writes the block of a location.
+     */
+    @FunctionalInterface
+    interface BlockSource {
+        void write(int location, BinaryWriter out) throws IOException;
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Save a theater, loading every location that is not loaded yet. The file is written next to
+     * the target and moved over it, so a theater opened from the target keeps reading the old file.
+     * Each location is written holding its monitor, so battles may keep running meanwhile.
+     * @param theater the theater
+     * @param turn the current turn
+     * @param path the save file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(Theater theater, long turn, Path path) throws IOException {
+        List<Location> locations = theater.getLocations();
+        Map<Location, Integer> indexes = new IdentityHashMap<>();
+        List<Entry> entries = new ArrayList<>(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            indexes.put(locations.get(i), i);
+            entries.add(Entry.of(locations.get(i)));
+        }
+        writeFile(path, theater.getRandomSource().getSeed(), turn, entries, (i, out) -> {
+            Location location = locations.get(i);
+            // Un combat peut tourner sur un autre thread : le bloc et sa description sont pris ensemble
+            synchronized (location) {
+                entries.get(i).update(Entry.of(location));
+                TheaterCodec.writeLocation(out, location, indexes);
+            }
+        });
+    }
+
+    /**
+     * Write a whole save from blocks encoded beforehand, without touching the theater
+     * @param blocks the block of every location, in order
+     */
+    static void save(long seed, long turn, List<Block> blocks, Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            entries.add(block.entry());
+        }
+        writeFile(path, seed, turn, entries, (i, out) -> out.putBytes(blocks.get(i).data()));
+    }
+
+    private static void writeFile(Path path, long seed, long turn, List<Entry> entries, BlockSource source)
+            throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                int directorySize = 0;
+                for (Entry entry : entries) {
+                    directorySize += entry.size();
+                }
+
+                // Les blocs d'abord, le répertoire ensuite, une fois les positions connues
+                long start = HEADER_SIZE + directorySize;
+                channel.position(start);
+                BinaryWriter blocks = new BinaryWriter(channel);
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    entry.offset = start + blocks.position();
+                    blocks.resetStrings();
+                    source.write(i, blocks);
+                    entry.length = Math.toIntExact(start + blocks.position() - entry.offset);
+                }
+                blocks.flush();
+
+                writeDirectory(channel, seed, turn, entries, directorySize);
+                channel.force(false);
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeDirectory(FileChannel channel, long seed, long turn, List<Entry> entries,
+                                       int directorySize) throws IOException {
+        channel.position(0);
+        BinaryWriter out = new BinaryWriter(channel);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(seed);
+        out.putLong(turn);
+        out.putInt(entries.size());
+        out.putInt(directorySize);
+        for (Entry entry : entries) {
+            entry.write(out);
+        }
+        out.flush();
+    }
+
+    // ==================== INCREMENTAL UPDATE ====================
+
+    /**
+     * Save some locations again: their blocks are appended to the file, then the directory is rewritten
+     * in place. The old blocks stay where they were, so theaters opened from this file keep reading them.
+     * If the update is interrupted, every entry still points to a complete block, of either save.
+     * @param path a save of the same locations, in the same order
+     * @param turn the current turn
+     * @param blocks the locations that changed
+     * @param herbCountdowns the herb spawn countdown of every location, -1 to keep the saved one
+     * @return the number of bytes of the file no longer used by any entry
+     * @throws IOException if the file cannot be updated or does not hold the same locations
+     */
+    static long update(Path path, long turn, List<Block> blocks, int[] herbCountdowns) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header header = readHeader(channel, path);
+            if (header.version() != VERSION) {
+                throw new IOException("Save version " + header.version() + " cannot be updated: " + path);
+            }
+            if (header.count() != herbCountdowns.length) {
+                throw new IOException("Save of " + header.count() + " locations, theater of "
+                        + herbCountdowns.length + ": " + path);
+            }
+            List<Entry> entries = readDirectory(channel, header, path);
+
+            long end = channel.size();
+            channel.position(end);
+            BinaryWriter out = new BinaryWriter(channel);
+            for (Block block : blocks) {
+                Entry entry = entries.get(block.location());
+                entry.offset = end + out.position();
+                entry.length = block.data().length;
+                entry.update(block.entry());
+                out.putBytes(block.data());
+            }
+            out.flush();
+            channel.force(false);
+
+            long used = HEADER_SIZE + header.directorySize();
+            for (int i = 0; i < entries.size(); i++) {
+                if (herbCountdowns[i] >= 0) {
+                    entries.get(i).herbCountdown = herbCountdowns[i];
+                }
+                used += entries.get(i).length;
+            }
+            writeDirectory(channel, header.seed(), turn, entries, header.directorySize());
+            channel.force(false);
+            return channel.size() - used;
+        }
+    }
+
+    /**
+     * Rewrite a save without the blocks no entry uses any more. Reads the file only, not the theater.
+     * @param path the save file
+     * @throws IOException if the file cannot be read or written
+     */
+    static void compact(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, path);
+            List<Entry> entries = readDirectory(channel, header, path);
+            long[] offsets = new long[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                offsets[i] = entries.get(i).offset;
+            }
+            writeFile(path, header.seed(), header.turn(), entries,
+                    (i, out) -> out.putBytes(readFully(channel, offsets[i], entries.get(i).length).array()));
+        }
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Open a save: read the directory and create the locations, whose content is loaded on first access.
+     * The file stays mapped as long as a location of the theater is not loaded.
+     * @param path the save file
+     * @return the theater and the turn it was saved at
+     * @throws IOException if the file cannot be read or is not a valid save
+     */
+    public static TheaterCodec.SavedTheater open(Path path) throws IOException {
+        Mapping mapping = map(path);
+        return new TheaterCodec.SavedTheater(
+                mapping.open(RandomSource.forEpoch(mapping.getSeed(), mapping.getTurn())), mapping.getTurn());
+    }
+
+    /**
+     * Map a save without creating its theater yet (see {@link Mapping#open})
+     * @param path the save file
+     * @return the mapped save
+     * @throws IOException if the file cannot be read or is not a valid save
+     */
+    public static Mapping map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, path);
+            List<Entry> entries = readDirectory(channel, header, path);
+            Blocks blocks = new Blocks(channel, channel.size());
+            List<ByteBuffer> data = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                data.add(blocks.get(entry.offset, entry.length));
+            }
+            return new Mapping(header, entries, data);
+        }
+    }
+
+    /**
+     * A mapped save, from which any number of theaters in the state of the save can be opened, e.g. to
+     * replay a game from the turn it was loaded at. Later saves to the same file do not show: updates
+     * append their blocks after the mapped ones, and full saves replace the file.
+     * The file stays mapped as long as the mapping or a location not loaded yet is reachable.
+     */
+    public static final class Mapping {
+        private final Header header;
+        private final List<Entry> entries;
+        private final List<ByteBuffer> blocks;
+
+        private Mapping(Header header, List<Entry> entries, List<ByteBuffer> blocks) {
+            this.header = header;
+            this.entries = entries;
+            this.blocks = blocks;
+        }
+
+        public long getSeed() {
+            return header.seed();
+        }
+
+        public long getTurn() {
+            return header.turn();
+        }
+
+        /**
+         * Create a new theater in the state of the save, whose locations read their block on first access
+         * @param randomSource the source of the random generators of the theater
+         */
+        public Theater open(RandomSource randomSource) {
+            Theater theater = new Theater(randomSource);
+            List<Location> locations = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                String name = new String(entry.name, StandardCharsets.UTF_8);
+                Location location = entry.battlefield ? new Battlefield(name, entry.superficie)
+                        : new Location(name, entry.superficie, entry.type);
+                location.setLoader(new MappedLocation(blocks.get(i), entry, locations,
+                        codecVersion(header.version())));
+                location.clearDirty();
+                theater.addLocation(location);
+                locations.add(location);
+            }
+            return theater;
+        }
+    }
+
+    /**
+     * Version of the {@link TheaterCodec} format of the blocks of a save
+     */
+    private static int codecVersion(int version) {
+        return version >= 3 ? 2 : 1;
+    }
+
+    private static Header readHeader(FileChannel channel, Path path) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Not a theater save: " + path);
+        }
+        ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a theater save: " + path);
+        }
+        int version = header.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save version " + version + ": " + path);
+        }
+        int count = header.getInt(24);
+        int directorySize = header.getInt(28);
+        if (count < 0 || directorySize < 0 || HEADER_SIZE + (long) directorySize > channel.size()) {
+            throw new IOException("Corrupted save: " + path);
+        }
+        return new Header(version, header.getLong(8), header.getLong(16), count, directorySize);
+    }
+
+    private static List<Entry> readDirectory(FileChannel channel, Header header, Path path) throws IOException {
+        ByteBuffer directory = readFully(channel, HEADER_SIZE, header.directorySize());
+        long size = channel.size();
+        List<Entry> entries = new ArrayList<>(header.count());
+        try {
+            for (int i = 0; i < header.count(); i++) {
+                Entry entry = Entry.read(directory, header.version());
+                if (entry.offset < 0 || entry.length < 0 || entry.offset + entry.length > size) {
+                    throw new IOException("Corrupted save: block out of the file " + path);
+                }
+                entries.add(entry);
+            }
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Corrupted save: " + path, e);
+        }
+        return entries;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Corrupted save: unexpected end of file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * The blocks of an open file: slices of the whole file, read into the heap when it is small and
+     * mapped once otherwise, or one mapping per block past 2 GiB. Mappings stay valid once the channel is closed.
+     */
+    private static final class Blocks {
+        private final FileChannel channel;
+        private final ByteBuffer whole;
+
+        Blocks(FileChannel channel, long size) throws IOException {
+            this.channel = channel;
+            if (size < MAP_THRESHOLD) {
+                this.whole = readFully(channel, 0, (int) size);
+            } else {
+                this.whole = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+            }
+        }
+
+        ByteBuffer get(long offset, int length) throws IOException {
+            if (whole != null) {
+                return whole.slice((int) offset, length);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+    }
+
+    /**
+     * Content of a location read from its block of a mapped save.
+     */
+    private static final class MappedLocation implements LocationLoader {
+        private final ByteBuffer block;
+        private final Entry entry;
+        private final List<Location> locations;
+        private final int codecVersion;
+
+        MappedLocation(ByteBuffer block, Entry entry, List<Location> locations, int codecVersion) {
+            this.block = block;
+            this.entry = entry;
+            this.locations = locations;
+            this.codecVersion = codecVersion;
+        }
+
+        @Override
+        public int characterCount() {
+            return entry.characters;
+        }
+
+        @Override
+        public int characterCount(Class<?> type) {
+            int count = 0;
+            for (int t = 0; t < entry.counts.length; t++) {
+                if (entry.counts[t] > 0 && type.isAssignableFrom(CharacterFactory.classOf(CHARACTER_TYPES[t]))) {
+                    count += entry.counts[t];
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void load(Location location) {
+            try {
+                TheaterCodec.readLocation(new BinaryReader(block), location, locations, codecVersion);
+            } catch (IOException | IndexOutOfBoundsException e) {
+                throw new UncheckedIOException(new IOException("Corrupted block of " + location.getName(), e));
+            }
+            if (entry.herbCountdown >= 0) {
+                location.restoreHerbs(location.getHealingHerbs(), entry.herbCountdown);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package models.persistence;
+
+import models.factory.CharacterFactory;
+import models.factory.CharacterFactory.CharacterType;
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.people.Werewolf;
+import models.potion.MagicPotion;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot.CharacterState;
+import models.theater.TheaterSnapshot.LocationState;
+import models.theater.TheaterSnapshot.PotionState;
+import models.utils.RandomSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary save format of a theater, streamed through NIO channels: the theater is written
+ * location by location and character by character through a fixed buffer, and read back the same way,
+ * without building an intermediate copy of the world.
+ *
+ * <pre>
+ * header     int magic, int version, long seed, long turn, int location count
+ * table      per location: byte kind (0 location, 1 battlefield), string name, double superficie, byte type
+ * locations  per location: int herbs, int turns since last herb spawn,
+ *            kettle (int count + byte ingredients, int portions, byte effect flags),
+ *            int count + byte foods, [battlefield: string battle status], int clan leader index,
+ *            int count + characters
+ * character  byte type, string name, char sex, double height, int age, double strength, double health,
+ *            double max health, double endurance, double hunger, int potion level, byte dead,
+ *            [werewolf, version 2: byte rank], [battlefield: int origin location index, -1 if none]
+ * trailer    int magic
+ * </pre>
+ * Numbers are little-endian; a string is the index of its first occurrence among the first 65,536 distinct
+ * strings, or -1, its UTF-8 length and bytes.
+ * Random generators are not saved: a loaded theater draws from {@link RandomSource#forEpoch}(seed, turn).
+ */
+public final class TheaterCodec {
+
+    public static final int MAGIC = 0x41525356; // "ARSV"
+    public static final int VERSION = 2;
+
+    private static final CharacterType[] CHARACTER_TYPES = CharacterType.values();
+    private static final LocationType[] LOCATION_TYPES = LocationType.values();
+    private static final Food[] FOODS = Food.values();
+    private static final Werewolf.Rank[] RANKS = Werewolf.Rank.values();
+
+    private static final int METAMORPHOSIS = 1;
+    private static final int DUPLICATION = 2;
+    private static final int NUTRITIOUS = 4;
+
+    private TheaterCodec() {}
+
+    /**
+     * A theater read back from a save, with the turn it was saved at.
+     */
+    public record SavedTheater(Theater theater, long turn) {
+    }
+
+    // ==================== FILES ====================
+
+    /**
+     * Save a theater to a file, replacing it
+     * @param theater the theater
+     * @param turn the current turn
+     * @param path the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(Theater theater, long turn, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(theater, turn, channel);
+        }
+    }
+
+    /**
+     * Load a theater saved by {@link #save}
+     * @param path the file
+     * @return the theater and its turn
+     * @throws IOException if the file cannot be read or is not a valid save
+     */
+    public static SavedTheater load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Write a theater to a channel. The theater must not change while it is written.
+     * @param theater the theater
+     * @param turn the current turn
+     * @param channel the channel, left open
+     * @throws IOException if the channel cannot be written
+     */
+    public static void write(Theater theater, long turn, WritableByteChannel channel) throws IOException {
+        BinaryWriter out = new BinaryWriter(channel);
+        List<Location> locations = theater.getLocations();
+        Map<Location, Integer> indexes = new IdentityHashMap<>();
+
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(theater.getRandomSource().getSeed());
+        out.putLong(turn);
+        out.putInt(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            Location location = locations.get(i);
+            indexes.put(location, i);
+            out.putBoolean(location instanceof Battlefield);
+            out.putString(location.getName());
+            out.putDouble(location.getSuperficie());
+            out.putByte(location.getType().ordinal());
+        }
+        for (Location location : locations) {
+            writeLocation(out, location, indexes);
+        }
+        out.putInt(MAGIC);
+        out.flush();
+    }
+
+    /**
+     * Write the content of a location: herbs, kettle, foods, battle status, clan leader and characters
+     * @param indexes the index of every location of the theater, for the origins of battlefield characters
+     */
+    static void writeLocation(BinaryWriter out, Location location, Map<Location, Integer> indexes)
+            throws IOException {
+        out.putInt(location.getHealingHerbs());
+        out.putInt(location.getTurnsSinceLastHerbSpawn());
+
+        MagicPotion potion = location.getMagicPotion();
+        writeFoods(out, potion.getMissingIngredient());
+        out.putInt(potion.getPortionInKettle());
+        out.putByte((potion.metamorphosisEffect ? METAMORPHOSIS : 0) | (potion.duplicationEffect ? DUPLICATION : 0)
+                | (potion.nutritiousEffect ? NUTRITIOUS : 0));
+        writeFoods(out, location.getFoodsView());
+
+        Battlefield battlefield = location instanceof Battlefield ? (Battlefield) location : null;
+        if (battlefield != null) {
+            out.putString(battlefield.getBattleStatus());
+        }
+        List<Character> roster = location.getCharactersView();
+        out.putInt(location.getChefDeClan() == null ? -1 : roster.indexOf(location.getChefDeClan()));
+        out.putInt(roster.size());
+        for (Character character : roster) {
+            out.putByte(CharacterFactory.typeOf(character).ordinal());
+            out.putString(character.getName());
+            out.putChar(character.getSex());
+            out.putDouble(character.getHeight());
+            out.putInt(character.getAge());
+            out.putDouble(character.getStrength());
+            out.putDouble(character.getHealth());
+            out.putDouble(character.getMaxHealth());
+            out.putDouble(character.getEndurance());
+            out.putDouble(character.getHungerIndicator());
+            out.putInt((int) character.getMagicPotionLevel());
+            out.putBoolean(character.isDead());
+            if (character instanceof Werewolf werewolf) {
+                out.putByte(werewolf.getRank().ordinal());
+            }
+            if (battlefield != null) {
+                out.putInt(indexes.getOrDefault(battlefield.getCharacterOrigin(character), -1));
+            }
+        }
+    }
+
+    /**
+     * Write a location copied beforehand, in the same format as {@link #writeLocation(BinaryWriter, Location, Map)}
+     */
+    static void writeLocation(BinaryWriter out, LocationState location) throws IOException {
+        out.putInt(location.healingHerbs());
+        out.putInt(location.turnsSinceLastHerbSpawn());
+
+        PotionState potion = location.potion();
+        writeFoods(out, potion.missingIngredients());
+        out.putInt(potion.kettlePortion());
+        out.putByte((potion.metamorphosisEffect() ? METAMORPHOSIS : 0) | (potion.duplicationEffect() ? DUPLICATION : 0)
+                | (potion.nutritiousEffect() ? NUTRITIOUS : 0));
+        writeFoods(out, location.foods());
+
+        if (location.isBattlefield()) {
+            out.putString(location.battleStatus());
+        }
+        List<CharacterState> roster = location.characters();
+        out.putInt(location.clanLeader());
+        out.putInt(roster.size());
+        for (int i = 0; i < roster.size(); i++) {
+            CharacterState character = roster.get(i);
+            out.putByte(character.type().ordinal());
+            out.putString(character.name());
+            out.putChar(character.sex());
+            out.putDouble(character.height());
+            out.putInt(character.age());
+            out.putDouble(character.strength());
+            out.putDouble(character.health());
+            out.putDouble(character.maxHealth());
+            out.putDouble(character.endurance());
+            out.putDouble(character.hungerIndicator());
+            out.putInt(character.magicPotionLevel());
+            out.putBoolean(character.dead());
+            if (character.rank() != null) {
+                out.putByte(character.rank().ordinal());
+            }
+            if (location.isBattlefield()) {
+                out.putInt(location.origins().get(i));
+            }
+        }
+    }
+
+    private static void writeFoods(BinaryWriter out, List<Food> foods) throws IOException {
+        out.putInt(foods.size());
+        for (Food food : foods) {
+            out.putByte(food.ordinal());
+        }
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Read a theater written by {@link #write}
+     * @param channel the channel, left open
+     * @return the theater and its turn
+     * @throws IOException if the channel cannot be read or does not hold a valid save
+     */
+    public static SavedTheater read(ReadableByteChannel channel) throws IOException {
+        BinaryReader in = new BinaryReader(channel);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a theater save");
+        }
+        int version = in.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        long seed = in.getLong();
+        long turn = in.getLong();
+        int count = checkCount(in.getInt());
+        try {
+            return readTheater(in, version, seed, turn, count);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted save: " + e.getMessage(), e);
+        }
+    }
+
+    private static SavedTheater readTheater(BinaryReader in, int version, long seed, long turn, int count)
+            throws IOException {
+        Theater theater = new Theater(RandomSource.forEpoch(seed, turn));
+        List<Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean isBattlefield = in.getBoolean();
+            String name = in.getString();
+            double superficie = in.getDouble();
+            LocationType type = LOCATION_TYPES[in.getByte()];
+            Location location = isBattlefield ? new Battlefield(name, superficie) : new Location(name, superficie, type);
+            theater.addLocation(location);
+            locations.add(location);
+        }
+        for (Location location : locations) {
+            readLocation(in, location, locations, version);
+        }
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Corrupted save: missing trailer");
+        }
+        return new SavedTheater(theater, turn);
+    }
+
+    /**
+     * Read the content of a location written by {@link #writeLocation}
+     * @param locations the locations of the theater, for the origins of battlefield characters
+     * @param version the version of the format the location was written in
+     */
+    static void readLocation(BinaryReader in, Location location, List<Location> locations, int version)
+            throws IOException {
+        location.restoreHerbs(in.getInt(), in.getInt());
+
+        MagicPotion potion = location.getMagicPotion();
+        potion.missingIngredient = readFoods(in);
+        potion.kettlePortion = in.getInt();
+        int effects = in.getByte();
+        potion.metamorphosisEffect = (effects & METAMORPHOSIS) != 0;
+        potion.duplicationEffect = (effects & DUPLICATION) != 0;
+        potion.nutritiousEffect = (effects & NUTRITIOUS) != 0;
+        for (Food food : readFoods(in)) {
+            location.addFood(food);
+        }
+
+        Battlefield battlefield = location instanceof Battlefield ? (Battlefield) location : null;
+        if (battlefield != null) {
+            battlefield.setBattleStatus(in.getString());
+        }
+        int clanLeader = in.getInt();
+        int count = checkCount(in.getInt());
+        for (int i = 0; i < count; i++) {
+            CharacterType type = CHARACTER_TYPES[in.getByte()];
+            String name = in.getString();
+            char sex = in.getChar();
+            double height = in.getDouble();
+            int age = in.getInt();
+            double strength = in.getDouble();
+            double health = in.getDouble();
+            double maxHealth = in.getDouble();
+            double endurance = in.getDouble();
+            double hunger = in.getDouble();
+            int potionLevel = in.getInt();
+            boolean dead = in.getBoolean();
+            // Les sauvegardes de la version 1 n'ont pas de rang : leurs loups-garous restent gamma
+            Character character = type == CharacterType.WEREWOLF && version >= 2
+                    ? new Werewolf(name, sex, height, age, strength, RANKS[in.getByte()])
+                    : CharacterFactory.createCharacter(type, name, sex, height, age, strength);
+            character.restoreState(health, maxHealth, endurance, hunger, potionLevel, dead);
+            int origin = battlefield != null ? in.getInt() : -1;
+            boolean added = origin >= 0
+                    ? battlefield.addCharacterFromOrigin(character, locations.get(origin))
+                    : location.addCharacter(character);
+            if (!added) {
+                // Le personnage manquant décalerait aussi l'index du chef de clan
+                throw new IOException("Corrupted save: " + character.getName() + " rejected by " + location.getName());
+            }
+            if (i == clanLeader) {
+                location.setChefDeClan(character);
+            }
+        }
+    }
+
+    private static ArrayList<Food> readFoods(BinaryReader in) throws IOException {
+        int count = checkCount(in.getInt());
+        ArrayList<Food> foods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            foods.add(FOODS[in.getByte()]);
+        }
+        return foods;
+    }
+
+    private static int checkCount(int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Corrupted save: negative count " + count);
+        }
+        return count;
+    }
+}
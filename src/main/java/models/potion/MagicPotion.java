@@ -24,11 +24,12 @@ public class MagicPotion {
                     Food.MEAD,
                     Food.SECRETINGREDIENT
             ));
-    public ArrayList<Food> missingIngredient = recipeIngredients;
+    public ArrayList<Food> missingIngredient = new ArrayList<>(recipeIngredients);
     public int kettlePortion = 0;
     public boolean metamorphosisEffect = false;
     public boolean duplicationEffect = false;
     public boolean nutritiousEffect = false;
+    private int modifications = 0;
 
     /**
      * Get the main needed recipe for the magic potion
@@ -95,6 +96,11 @@ public class MagicPotion {
      */
     public boolean isKettleEmpty() {return kettlePortion == 0;}
 
+    /**
+     * Get the number of changes made to the kettle by its methods, to tell whether it changed since a save
+     */
+    public int getModificationCount() {return modifications;}
+
     /**
      * Check if the given food can be added to the kettle, if able, add it
      * @return Return true if it can be added, return false if cannot
@@ -102,6 +108,7 @@ public class MagicPotion {
      */
     public boolean addToCurrentRecipes(Food food) {
         if (isKettleEmpty()) {
+            modifications++;
             missingIngredient.remove(food);
             checkIfFullRecipe();
 
@@ -143,7 +150,8 @@ public class MagicPotion {
      */
     public boolean checkIfFullRecipe() {
         if (missingIngredient.isEmpty()) {
-            missingIngredient =  getRecipeIngredients();
+            modifications++;
+            missingIngredient = new ArrayList<>(getRecipeIngredients());
             kettlePortion = getKettleValue();
             return true;
         }
@@ -158,6 +166,7 @@ public class MagicPotion {
      */
     public boolean takeAPotion() {
         if (!isKettleEmpty()) {
+            modifications++;
             if (kettlePortion == 1) {
                 metamorphosisEffect = false;
                 duplicationEffect = false;
@@ -0,0 +1,13 @@
+package models.replay;
+
+/**
+ * A clan leader command recorded for replay: the arguments of {@link models.clanLeader.ClanLeader#garmin}
+ * and the location the clan leader was at.
+ * @param turn the number of turns played when the command was issued
+ * @param location the index of the location of the clan leader in the theater
+ * @param input the command
+ * @param charId the character argument
+ * @param locId the location argument
+ */
+public record Command(long turn, int location, String input, String charId, String locId) {
+}
@@ -0,0 +1,143 @@
+package models.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything needed to replay a game: the seed, the checkpoint interval, the commands in the
+ * order they were issued and the number of turns played.
+ */
+public final class CommandLog {
+
+    public static final int MAGIC = 0x4152434C; // "ARCL"
+    public static final int VERSION = 1;
+
+    private final long seed;
+    private final int checkpointInterval;
+    private final List<Command> commands = new ArrayList<>();
+    private final List<Command> commandsView = Collections.unmodifiableList(commands);
+    private long turns;
+
+    /**
+     * Create an empty log
+     * @param seed the seed of the game
+     * @param checkpointInterval the number of turns between two checkpoints
+     */
+    public CommandLog(long seed, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1: " + checkpointInterval);
+        }
+        this.seed = seed;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Get the commands, ordered by turn then by issue order
+     * @return read-only live list of the commands
+     */
+    public List<Command> getCommands() {
+        return commandsView;
+    }
+
+    /**
+     * Get the number of turns played
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    void add(Command command) {
+        if (command.turn() < turns) {
+            throw new IllegalArgumentException("Command issued before turn " + turns + ": " + command);
+        }
+        commands.add(command);
+    }
+
+    void setTurns(long turns) {
+        this.turns = turns;
+    }
+
+    /**
+     * Get the index of the first command issued at or after a turn
+     */
+    int firstCommandAt(long turn) {
+        int low = 0;
+        int high = commands.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (commands.get(middle).turn() < turn) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // ==================== FILES ====================
+
+    /**
+     * Write the log to a file, replacing it
+     * @param path the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeInt(checkpointInterval);
+            out.writeLong(turns);
+            out.writeInt(commands.size());
+            for (Command command : commands) {
+                out.writeLong(command.turn());
+                out.writeInt(command.location());
+                out.writeUTF(command.input());
+                out.writeUTF(command.charId());
+                out.writeUTF(command.locId());
+            }
+        }
+    }
+
+    /**
+     * Read a log written by {@link #write(Path)}
+     * @param path the file
+     * @return the log
+     * @throws IOException if the file cannot be read or is not a command log
+     */
+    public static CommandLog read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a command log: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported command log version " + version + ": " + path);
+            }
+            CommandLog log = new CommandLog(in.readLong(), in.readInt());
+            long turns = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                log.add(new Command(in.readLong(), in.readInt(), in.readUTF(), in.readUTF(), in.readUTF()));
+            }
+            log.setTurns(turns);
+            return log;
+        }
+    }
+}
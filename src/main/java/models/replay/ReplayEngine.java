@@ -0,0 +1,369 @@
+package models.replay;
+
+import models.clanLeader.ClanLeader;
+import models.location.Battlefield;
+import models.location.Location;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import models.utils.RandomSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Records a game as a seed and a command stream, and rebuilds the theater of any past turn.
+ * <p>
+ * The random state of a game cannot be copied, so at every checkpoint (turn 0 and every
+ * {@link CommandLog#getCheckpointInterval()} turns) the random generators of the theater and of the
+ * clan leader are derived again from the seed and the turn ({@link RandomSource#forEpoch}).
+ * A checkpoint is then a {@link TheaterSnapshot} alone, and seeking a turn replays the commands
+ * from the closest checkpoint before it instead of from turn 0.
+ * <p>
+ * Only the last {@value #RECENT_CHECKPOINTS} checkpoints are all kept. Older ones are thinned out to at
+ * most {@value #SPARSE_CHECKPOINTS}, evenly spaced, the spacing doubling each time they no longer fit;
+ * turn 0 is never dropped. Seeking far back thus replays more turns, but memory stays bounded.
+ * <p>
+ * Battles run by a {@link models.simulation.BattleScheduler} change the theater between turns: the
+ * scheduler plays its rounds holding {@link #getRoundLock()} and records them with
+ * {@link #recordRound}, while commands, turns and seeks exclude rounds, so the log keeps the order in
+ * which everything happened.
+ */
+public final class ReplayEngine {
+
+    /**
+     * Builds the initial theater of a game.
+     */
+    @FunctionalInterface
+    public interface Scenario {
+        /**
+         * @param randomSource the source of every random draw of the setup
+         * @return the theater at turn 0
+         */
+        Theater build(RandomSource randomSource);
+    }
+
+    private final Scenario scenario;
+    private final CommandLog log;
+    /** Number of most recent checkpoints all kept */
+    public static final int RECENT_CHECKPOINTS = 8;
+    /** Largest number of older checkpoints kept */
+    public static final int SPARSE_CHECKPOINTS = 16;
+
+    private final NavigableMap<Long, TheaterSnapshot> checkpoints = new TreeMap<>();
+    private long sparseStride; // Écart entre deux anciens checkpoints, multiple de l'intervalle
+
+    // Lecture : les rounds des combats, en parallèle ; écriture : commandes, tours et relectures
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Partie en cours d'enregistrement (null en relecture seule)
+    private Theater theater;
+    private ClanLeader leader;
+
+    private ReplayEngine(Scenario scenario, CommandLog log) {
+        this.scenario = Objects.requireNonNull(scenario);
+        this.log = Objects.requireNonNull(log);
+        this.sparseStride = log.getCheckpointInterval();
+    }
+
+    /**
+     * Start a game and record it
+     * @param scenario the setup of the game
+     * @param seed the seed of the game
+     * @param checkpointInterval the number of turns between two checkpoints
+     * @return the engine, at turn 0
+     */
+    public static ReplayEngine record(Scenario scenario, long seed, int checkpointInterval) {
+        ReplayEngine engine = new ReplayEngine(scenario, new CommandLog(seed, checkpointInterval));
+        engine.theater = engine.start();
+        engine.leader = engine.startEpoch(engine.theater, 0);
+        engine.addCheckpoint(0, TheaterSnapshot.capture(engine.theater));
+        return engine;
+    }
+
+    /**
+     * Record a game already set up, e.g. from the game view. The theater and the clan leader get new
+     * random generators derived from the seed of the theater, and the theater as it is now is turn 0.
+     * Turn 0 is copied, which loads every location: for a theater opened from a save, see
+     * {@link #record(Theater, ClanLeader, int, Scenario)}.
+     * @param theater the live theater
+     * @param leader the clan leader running the commands, or null to create one
+     * @param checkpointInterval the number of turns between two checkpoints
+     * @return the engine, at turn 0
+     */
+    public static ReplayEngine record(Theater theater, ClanLeader leader, int checkpointInterval) {
+        TheaterSnapshot initial = TheaterSnapshot.capture(theater);
+        ReplayEngine engine = record(theater, leader, checkpointInterval, initial::restore);
+        engine.addCheckpoint(0, initial);
+        return engine;
+    }
+
+    /**
+     * Record a game already set up, whose turn 0 can be built again without copying the live theater,
+     * e.g. by opening its save again. Nothing is read from the theater: its locations not loaded yet
+     * stay so until the game needs them.
+     * @param theater the live theater
+     * @param leader the clan leader running the commands, or null to create one
+     * @param checkpointInterval the number of turns between two checkpoints
+     * @param initial builds a new theater in the state of the live one now
+     * @return the engine, at turn 0
+     */
+    public static ReplayEngine record(Theater theater, ClanLeader leader, int checkpointInterval,
+                                      Scenario initial) {
+        ReplayEngine engine = new ReplayEngine(initial,
+                new CommandLog(theater.getRandomSource().getSeed(), checkpointInterval));
+        engine.theater = theater;
+        if (leader == null) {
+            engine.leader = engine.startEpoch(theater, 0);
+        } else {
+            engine.leader = leader;
+            engine.startEpoch(theater, leader, 0);
+        }
+        return engine;
+    }
+
+    /**
+     * Replay a recorded game
+     * @param scenario the setup the game was recorded with
+     * @param log the recorded commands
+     * @return the engine, ready to {@link #seek(long)}
+     */
+    public static ReplayEngine replay(Scenario scenario, CommandLog log) {
+        return new ReplayEngine(scenario, log);
+    }
+
+    public CommandLog getLog() {
+        return log;
+    }
+
+    /**
+     * Get the theater of the game being recorded
+     * @return the live theater, or null when only replaying
+     */
+    public Theater getTheater() {
+        return theater;
+    }
+
+    /**
+     * Get the clan leader running the commands of the game being recorded
+     * @return the clan leader, or null when only replaying
+     */
+    public ClanLeader getLeader() {
+        return leader;
+    }
+
+    /**
+     * Get the lock a battle holds while it plays a round (see {@link #recordRound})
+     */
+    public Lock getRoundLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Get the number of turns played
+     */
+    public long getTurn() {
+        return log.getTurns();
+    }
+
+    /**
+     * Get the number of checkpoints kept, recorded or built while seeking, at most
+     * {@code RECENT_CHECKPOINTS + SPARSE_CHECKPOINTS}
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Run a clan leader command on the live theater and record it. Commands that throw are not recorded.
+     * @param location the location of the clan leader
+     * @param input the command (see {@link ClanLeader#garmin})
+     * @param charId the character argument
+     * @param locId the location argument
+     * @return the feedback of the command
+     */
+    public String execute(Location location, String input, String charId, String locId) {
+        requireRecording();
+        lock.writeLock().lock();
+        try {
+            Command command = new Command(log.getTurns(), indexOf(location), Objects.requireNonNull(input),
+                    charId == null ? "" : charId, locId == null ? "" : locId);
+            String output = apply(theater, leader, command);
+            log.add(command);
+            return output;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record a battle round already played on the live theater, as a {@code fight} command.
+     * Must be called by the battle holding {@link #getRoundLock()}, right after the round.
+     * @param battlefield the battlefield of the round
+     */
+    public void recordRound(Battlefield battlefield) {
+        requireRecording();
+        int index = theater.getBattlefields().indexOf(battlefield);
+        if (index < 0) {
+            throw new IllegalArgumentException("Battlefield not in the theater: " + battlefield.getName());
+        }
+        Command command = new Command(log.getTurns(), indexOf(battlefield), "fight", "", String.valueOf(index));
+        synchronized (log) { // Les combats de champs de bataille différents enregistrent en parallèle
+            log.add(command);
+        }
+    }
+
+    /**
+     * Play one turn of the live theater
+     */
+    public void step() {
+        requireRecording();
+        lock.writeLock().lock();
+        try {
+            theater.simulationStep();
+            long turn = log.getTurns() + 1;
+            log.setTurns(turn);
+            if (turn % log.getCheckpointInterval() == 0) {
+                startEpoch(theater, leader, turn);
+                // Un checkpoint ne force jamais le chargement d'un lieu : la relecture repart du précédent
+                if (isLoaded(theater)) {
+                    addCheckpoint(turn, TheaterSnapshot.capture(theater));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isLoaded(Theater theater) {
+        for (Location location : theater.getLocations()) {
+            if (!location.isLoaded()) return false;
+        }
+        return true;
+    }
+
+    private int indexOf(Location location) {
+        int index = theater.getLocations().indexOf(location);
+        if (index < 0) {
+            throw new IllegalArgumentException("Location not in the theater: " + location.getName());
+        }
+        return index;
+    }
+
+    private void requireRecording() {
+        if (theater == null) {
+            throw new IllegalStateException("This engine only replays");
+        }
+    }
+
+    // ==================== REPLAY ====================
+
+    /**
+     * Rebuild the theater as it was right after a turn was played, before the commands of that turn.
+     * The theater is new: the live game, if any, is not touched, but its battles wait for the seek to end.
+     * Checkpoints met on the way are kept.
+     * @param turn the turn, from 0 to {@link #getTurn()}
+     * @return a new theater in the state of that turn
+     */
+    public Theater seek(long turn) {
+        lock.writeLock().lock();
+        try {
+            return seekLocked(turn);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Theater seekLocked(long turn) {
+        if (turn < 0 || turn > log.getTurns()) {
+            throw new IllegalArgumentException("Turn out of the recorded game (0-" + log.getTurns() + "): " + turn);
+        }
+        Map.Entry<Long, TheaterSnapshot> checkpoint = checkpoints.floorEntry(turn);
+        Theater replayed;
+        long current;
+        ClanLeader replayLeader;
+        if (checkpoint == null) {
+            replayed = start();
+            current = 0;
+            replayLeader = startEpoch(replayed, 0);
+            addCheckpoint(0, TheaterSnapshot.capture(replayed));
+        } else {
+            current = checkpoint.getKey();
+            replayed = checkpoint.getValue().restore(RandomSource.forEpoch(log.getSeed(), current));
+            replayLeader = newLeader(replayed);
+        }
+
+        List<Command> commands = log.getCommands();
+        int next = log.firstCommandAt(current);
+        while (current < turn) {
+            while (next < commands.size() && commands.get(next).turn() == current) {
+                apply(replayed, replayLeader, commands.get(next++));
+            }
+            replayed.simulationStep();
+            current++;
+            if (current % log.getCheckpointInterval() == 0) {
+                replayLeader = startEpoch(replayed, current);
+                addCheckpoint(current, TheaterSnapshot.capture(replayed));
+            }
+        }
+        return replayed;
+    }
+
+    // ==================== CHECKPOINTS ====================
+
+    /**
+     * Keep a checkpoint, unless one is already kept for that turn, then drop the ones no longer needed
+     */
+    private void addCheckpoint(long turn, TheaterSnapshot snapshot) {
+        checkpoints.putIfAbsent(turn, snapshot);
+        if (checkpoints.size() <= RECENT_CHECKPOINTS) return;
+
+        // Les K plus récents sont gardés, les plus anciens sont espacés de sparseStride tours
+        Long oldestRecent = checkpoints.descendingKeySet().stream()
+                .skip(RECENT_CHECKPOINTS - 1).findFirst().orElseThrow();
+        NavigableMap<Long, TheaterSnapshot> older = checkpoints.headMap(oldestRecent, false);
+        older.keySet().removeIf(t -> t != 0 && t % sparseStride != 0);
+        while (older.size() > SPARSE_CHECKPOINTS) {
+            sparseStride *= 2;
+            older.keySet().removeIf(t -> t != 0 && t % sparseStride != 0);
+        }
+    }
+
+    private Theater start() {
+        return scenario.build(new RandomSource(log.getSeed()));
+    }
+
+    /**
+     * Derive the random generators of a theater and of a new clan leader from the seed and the turn.
+     * Same order of splits as {@link TheaterSnapshot#restore} followed by {@link #newLeader}.
+     */
+    private ClanLeader startEpoch(Theater theater, long turn) {
+        theater.reseed(RandomSource.forEpoch(log.getSeed(), turn));
+        return newLeader(theater);
+    }
+
+    /**
+     * Same as {@link #startEpoch(Theater, long)}, keeping the clan leader of the live game
+     */
+    private void startEpoch(Theater theater, ClanLeader leader, long turn) {
+        theater.reseed(RandomSource.forEpoch(log.getSeed(), turn));
+        leader.setTheater(theater);
+    }
+
+    private static ClanLeader newLeader(Theater theater) {
+        ClanLeader leader = new ClanLeader("Replay", 'm', 40, null);
+        leader.setTheater(theater);
+        return leader;
+    }
+
+    private static String apply(Theater theater, ClanLeader leader, Command command) {
+        leader.setLocation(theater.getLocations().get(command.location()));
+        return leader.garmin(command.input(), command.charId(), command.locId());
+    }
+}
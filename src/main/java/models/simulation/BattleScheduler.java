@@ -0,0 +1,376 @@
+package models.simulation;
+
+import models.location.Battlefield;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Runs the battles of several battlefields at the same time on a bounded pool of worker threads.
+ * <p>
+ * Each battle plays one {@link Battlefield#resolveRounds(int) round} at a time, at the same pace for
+ * every battle ({@link #setRoundsPerSecond}), until a single faction is left or it is cancelled.
+ * Battlefields are independent, so different battles run in parallel; the rounds of one battle never
+ * overlap, and are resolved while holding the battlefield's monitor: code reading a battlefield from
+ * another thread during a battle should synchronize on it.
+ */
+public class BattleScheduler implements AutoCloseable {
+
+    /**
+     * Callbacks invoked on the worker thread of the battle. An exception thrown by a callback
+     * ends the battle and completes it exceptionally.
+     */
+    public interface BattleListener {
+        /**
+         * A round of the battle was resolved
+         * @param battle the battle
+         */
+        default void onRound(Battle battle) {
+        }
+
+        /**
+         * The battle is over: a single faction is left, or it was cancelled
+         * @param battle the battle
+         */
+        default void onBattleEnded(Battle battle) {
+        }
+    }
+
+    public static final double DEFAULT_ROUNDS_PER_SECOND = 0.5; // Un round toutes les 2 secondes
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<Battlefield, Battle> battles = new ConcurrentHashMap<>();
+    private final List<BattleListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile double roundsPerSecond = DEFAULT_ROUNDS_PER_SECOND;
+    private volatile Lock roundLock;
+
+    private final LongAdder rounds = new LongAdder();
+    private volatile long measureStart = System.nanoTime();
+    private volatile long measureRounds = 0;
+
+    /**
+     * Create a scheduler with one worker thread per available processor
+     */
+    public BattleScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads the number of worker threads, at least 1
+     */
+    public BattleScheduler(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Battle scheduler needs at least one thread: " + threads);
+        }
+        AtomicInteger count = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, task -> {
+            Thread thread = new Thread(task, "battle-scheduler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    // ==================== CONFIGURATION ====================
+
+    public int getThreadCount() {
+        return executor.getCorePoolSize();
+    }
+
+    public double getRoundsPerSecond() {
+        return roundsPerSecond;
+    }
+
+    /**
+     * Set the pace of every battle, running ones included (from their next round)
+     * @param roundsPerSecond the number of rounds per second and per battle, strictly positive;
+     *                        {@link Double#POSITIVE_INFINITY} plays the rounds back to back
+     */
+    public void setRoundsPerSecond(double roundsPerSecond) {
+        if (!(roundsPerSecond > 0)) {
+            throw new IllegalArgumentException("Round rate must be positive: " + roundsPerSecond);
+        }
+        this.roundsPerSecond = roundsPerSecond;
+    }
+
+    public Lock getRoundLock() {
+        return roundLock;
+    }
+
+    /**
+     * Play every round, and call its listeners, holding a lock taken before the battlefield's monitor,
+     * e.g. so that a recorder can keep other changes of the theater from interleaving with a round
+     * @param roundLock the lock, or null for none
+     */
+    public void setRoundLock(Lock roundLock) {
+        this.roundLock = roundLock;
+    }
+
+    public void addBattleListener(BattleListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeBattleListener(BattleListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ==================== BATTLES ====================
+
+    /**
+     * Start the battle of a battlefield. Its first round is played right away.
+     * @param battlefield the battlefield
+     * @return the battle, or the one already running on this battlefield
+     */
+    public Battle start(Battlefield battlefield) {
+        Objects.requireNonNull(battlefield);
+        Battle started = new Battle(battlefield);
+        Battle running = battles.putIfAbsent(battlefield, started);
+        if (running != null) {
+            return running;
+        }
+        started.schedule(0);
+        return started;
+    }
+
+    /**
+     * Cancel the battle of a battlefield, after its current round if one is being played
+     * @param battlefield the battlefield
+     * @return true if a battle was running there
+     */
+    public boolean cancel(Battlefield battlefield) {
+        Battle battle = battles.get(battlefield);
+        return battle != null && battle.cancel();
+    }
+
+    /**
+     * Cancel every running battle
+     */
+    public void cancelAll() {
+        for (Battle battle : new ArrayList<>(battles.values())) {
+            battle.cancel();
+        }
+    }
+
+    /**
+     * Get the battle running on a battlefield
+     * @return the battle, or null if none
+     */
+    public Battle getBattle(Battlefield battlefield) {
+        return battles.get(battlefield);
+    }
+
+    public boolean isFighting(Battlefield battlefield) {
+        return battles.containsKey(battlefield);
+    }
+
+    public int getActiveBattleCount() {
+        return battles.size();
+    }
+
+    // ==================== THROUGHPUT ====================
+
+    /**
+     * Get the number of rounds played by every battle since the scheduler was created
+     */
+    public long getRoundCount() {
+        return rounds.sum();
+    }
+
+    /**
+     * Throughput of all the battles together since the last {@link #resetThroughput()}.
+     * @return rounds per second, 0 if nothing was measured yet
+     */
+    public double getThroughput() {
+        long nanos = System.nanoTime() - measureStart;
+        return nanos <= 0 ? 0 : (rounds.sum() - measureRounds) * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Start measuring {@link #getThroughput()} again from now
+     */
+    public void resetThroughput() {
+        measureRounds = rounds.sum();
+        measureStart = System.nanoTime();
+    }
+
+    /**
+     * Cancel every battle and stop the worker threads
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdown();
+    }
+
+    private long periodNanos() {
+        double rate = roundsPerSecond;
+        return Double.isInfinite(rate) ? 0 : Math.max(1L, (long) (1_000_000_000L / rate));
+    }
+
+    /**
+     * The battle of one battlefield.
+     */
+    public final class Battle {
+        private final Battlefield battlefield;
+        private final CompletableFuture<Battle> completion = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> next;
+        private volatile boolean cancelled = false;
+        private volatile int playedRounds = 0;
+        private long nextRound = System.nanoTime();
+
+        private Battle(Battlefield battlefield) {
+            this.battlefield = battlefield;
+        }
+
+        public Battlefield getBattlefield() {
+            return battlefield;
+        }
+
+        /**
+         * Get the number of rounds played so far
+         */
+        public int getRounds() {
+            return playedRounds;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        /**
+         * Completed with this battle once it is over, after the listeners were told
+         */
+        public CompletableFuture<Battle> getCompletion() {
+            return completion;
+        }
+
+        /**
+         * Stop the battle, after its current round if one is being played
+         * @return false if the battle was already over
+         */
+        public boolean cancel() {
+            boolean stopped;
+            synchronized (this) {
+                if (completion.isDone() || cancelled) return false;
+                cancelled = true;
+                ScheduledFuture<?> pending = next;
+                stopped = pending != null && pending.cancel(false);
+            }
+            if (stopped) {
+                finish();
+            }
+            return true;
+        }
+
+        private void schedule(long delayNanos) {
+            boolean stopped;
+            // Le round planifié peut s'exécuter et replanifier avant l'affectation : le verrou garde next à jour
+            synchronized (this) {
+                try {
+                    next = executor.schedule(this::playRound, delayNanos, TimeUnit.NANOSECONDS);
+                    stopped = cancelled && next.cancel(false);
+                } catch (RejectedExecutionException e) {
+                    // Ordonnanceur fermé
+                    cancelled = true;
+                    stopped = true;
+                }
+            }
+            if (stopped) {
+                finish();
+            }
+        }
+
+        private void playRound() {
+            Lock lock = roundLock;
+            if (lock == null) {
+                playRoundLocked();
+                return;
+            }
+            lock.lock();
+            try {
+                playRoundLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void playRoundLocked() {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            int played;
+            boolean decided;
+            try {
+                synchronized (battlefield) {
+                    played = battlefield.resolveRounds(1);
+                    decided = !battlefield.hasOpposingFactions();
+                }
+            } catch (RuntimeException e) {
+                finish(e);
+                return;
+            }
+            if (played > 0) {
+                playedRounds++;
+                rounds.increment();
+                try {
+                    for (BattleListener listener : listeners) {
+                        listener.onRound(this);
+                    }
+                } catch (RuntimeException e) {
+                    // Un écouteur défaillant termine le combat au lieu de tuer la tâche en silence
+                    finish(e);
+                    return;
+                }
+            }
+            if (decided || cancelled) {
+                finish();
+                return;
+            }
+            // Cadence fixe, sans rattraper les rounds manqués après un retard
+            long now = System.nanoTime();
+            nextRound = Math.max(nextRound + periodNanos(), now);
+            schedule(nextRound - now);
+        }
+
+        private void finish() {
+            finish(null);
+        }
+
+        private void finish(Throwable error) {
+            if (!battles.remove(battlefield, this)) return;
+            for (BattleListener listener : listeners) {
+                try {
+                    listener.onBattleEnded(this);
+                } catch (RuntimeException e) {
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+            if (error == null) {
+                completion.complete(this);
+            } else {
+                completion.completeExceptionally(error);
+            }
+        }
+    }
+}
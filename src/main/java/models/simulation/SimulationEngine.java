@@ -0,0 +1,269 @@
+package models.simulation;
+
+import models.replay.ReplayEngine;
+import models.theater.Theater;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless driver of the simulation tick loop.
+ * Owns the turn counter and the pacing of {@link Theater#simulationStep()},
+ * without depending on any UI toolkit, so it can run on a server as well as behind the GUI.
+ */
+public class SimulationEngine {
+
+    /**
+     * Pacing strategies for the tick loop.
+     */
+    public enum Mode {
+        /** One turn every {@link #getTickMillis()} milliseconds, speed ignored. */
+        FIXED_STEP,
+        /** One turn every {@link #getTickMillis()} / speed milliseconds. */
+        REAL_TIME,
+        /** Turns back to back, as fast as the theater can be stepped. */
+        MAX_SPEED
+    }
+
+    /**
+     * Callback invoked after every completed turn.
+     */
+    @FunctionalInterface
+    public interface TurnListener {
+        void onTurn(long turn);
+    }
+
+    public static final long DEFAULT_TICK_MILLIS = 5000;
+    private static final int MAX_CATCH_UP_TURNS = 5;
+
+    private final Theater theater;
+    private final List<TurnListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Mode mode = Mode.REAL_TIME;
+    private volatile double speed = 1.0;
+    private volatile long tickMillis = DEFAULT_TICK_MILLIS;
+    private volatile Executor stepExecutor;
+    private volatile ReplayEngine recorder;
+
+    private volatile long turn = 0;
+    private volatile boolean running = false;
+    private volatile Thread worker;
+
+    private volatile long measuredTurns = 0;
+    private volatile long measuredNanos = 0;
+
+    public SimulationEngine(Theater theater) {
+        this.theater = Objects.requireNonNull(theater);
+    }
+
+    // ==================== CONFIGURATION ====================
+
+    public Theater getTheater() {
+        return theater;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = Objects.requireNonNull(mode);
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Set the real-time scale factor (the GUI passes {@code GameState.getSimulationSpeed()}).
+     * @param speed a strictly positive multiplier
+     */
+    public void setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Simulation speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Run each turn on the given executor instead of the loop thread (e.g. {@code Platform::runLater}).
+     * The loop waits for the turn to complete before scheduling the next one.
+     * @param stepExecutor the executor, or null to step on the loop thread
+     */
+    public void setStepExecutor(Executor stepExecutor) {
+        this.stepExecutor = stepExecutor;
+    }
+
+    public ReplayEngine getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Play every turn through a replay engine recording this theater, so that it can be replayed
+     * @param recorder the engine recording {@link #getTheater()}, or null to step the theater directly
+     */
+    public void setRecorder(ReplayEngine recorder) {
+        if (recorder != null && recorder.getTheater() != theater) {
+            throw new IllegalArgumentException("The replay engine records another theater");
+        }
+        this.recorder = recorder;
+    }
+
+    public void addTurnListener(TurnListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeTurnListener(TurnListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ==================== STEPPING ====================
+
+    public long getTurn() {
+        return turn;
+    }
+
+    /**
+     * Advance the theater by exactly one turn on the calling thread.
+     * @return the number of the turn just played
+     */
+    public long step() {
+        ReplayEngine replay = recorder;
+        if (replay != null) {
+            replay.step();
+        } else {
+            theater.simulationStep();
+        }
+        long current = ++turn;
+        for (TurnListener listener : listeners) {
+            listener.onTurn(current);
+        }
+        return current;
+    }
+
+    /**
+     * Play a batch of turns back to back on the calling thread and record the throughput.
+     * @param turns the number of turns to play
+     * @return the number of the last turn played
+     */
+    public long runTurns(long turns) {
+        long start = System.nanoTime();
+        for (long i = 0; i < turns; i++) {
+            step();
+        }
+        recordThroughput(turns, System.nanoTime() - start);
+        return turn;
+    }
+
+    /**
+     * Throughput of the last batch or of the loop since it was started.
+     * @return turns per second, 0 if nothing was measured yet
+     */
+    public double getTurnsPerSecond() {
+        long nanos = measuredNanos;
+        return nanos == 0 ? 0 : measuredTurns * 1_000_000_000.0 / nanos;
+    }
+
+    // ==================== TICK LOOP ====================
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start the tick loop on a daemon thread. Does nothing if already running.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::loop, "simulation-engine");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop the tick loop and wait for the current turn to finish.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        Thread current = worker;
+        worker = null;
+        if (current != null && current != Thread.currentThread()) {
+            LockSupport.unpark(current);
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void loop() {
+        long start = System.nanoTime();
+        long played = 0;
+        long nextTick = start;
+
+        while (running) {
+            if (mode != Mode.MAX_SPEED) {
+                long now = System.nanoTime();
+                if (now < nextTick) {
+                    LockSupport.parkNanos(nextTick - now);
+                    continue;
+                }
+                // Fixed step: never replay more than a few missed turns after a stall
+                long period = periodNanos();
+                if (now - nextTick > period * MAX_CATCH_UP_TURNS) {
+                    nextTick = now;
+                }
+                nextTick += period;
+            }
+
+            playTurn();
+            played++;
+            recordThroughput(played, System.nanoTime() - start);
+        }
+    }
+
+    private void playTurn() {
+        Executor executor = stepExecutor;
+        if (executor == null) {
+            step();
+            return;
+        }
+        // Wait for the turn without blocking stop(): a turn queued by a stopped loop is dropped
+        Thread self = Thread.currentThread();
+        CompletableFuture<Void> pending = CompletableFuture.runAsync(() -> {
+            if (worker == self) step();
+        }, executor);
+        pending.whenComplete((ignored, error) -> LockSupport.unpark(self));
+        while (running && !pending.isDone()) {
+            LockSupport.park(this);
+        }
+    }
+
+    private long periodNanos() {
+        double millis = mode == Mode.REAL_TIME ? tickMillis / speed : tickMillis;
+        return Math.max(1L, (long) (millis * 1_000_000L));
+    }
+
+    private void recordThroughput(long turns, long nanos) {
+        measuredTurns = turns;
+        measuredNanos = nanos;
+    }
+}
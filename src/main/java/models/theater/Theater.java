@@ -2,20 +2,213 @@ package models.theater;
 
 import models.location. Battlefield;
 import models.location.Location;
+import models.location.LocationListener;
+import models.location.LocationType;
+import models.journal.EventJournal;
 import models.people.Character;
+import models.people.CharacterStore;
+import models.utils.RandomSource;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Theater class that manages all locations in the simulation.
  */
 public class Theater {
+    private static final int LOCATIONS_PER_TASK = 8;
+    private static final double HUNGER_DAMAGE = 2.0;
+
     private final List<Location> locations;
+    // Index par nom (premier lieu ajouté pour un nom donné) et par type
+    private final Map<String, Location> locationsByName = new HashMap<>();
+    private final Map<LocationType, List<Location>> locationsByType = new EnumMap<>(LocationType.class);
+    private final List<Battlefield> battlefields = new ArrayList<>();
+    private final List<Battlefield> battlefieldsView = Collections.unmodifiableList(battlefields);
+    private ForkJoinPool stepPool;
+    private RandomSource randomSource;
+    private CharacterStore characterStore;
+    private final List<TheaterListener> listeners = new ArrayList<>();
+    private EventJournal journal;
+    private int nextJournalId = 0;
+    // Morts d'une étape parallèle, retenues par chaque tâche et publiées dans l'ordre des lieux
+    private final ThreadLocal<List<Death>> stepDeaths = new ThreadLocal<>();
+    private final LocationListener relay = new LocationListener() {
+        @Override
+        public void onCharacterAdded(Location location, Character character) {
+            CharacterStore store = characterStore;
+            if (store != null) {
+                if (character.getStore() == null) {
+                    store.register(character);
+                }
+                place(store, character, 1);
+            }
+            for (TheaterListener listener : listeners) {
+                listener.onCharacterAdded(location, character);
+            }
+        }
+
+        @Override
+        public void onCharacterRemoved(Location location, Character character) {
+            CharacterStore store = characterStore;
+            if (store != null) {
+                place(store, character, -1);
+            }
+            for (TheaterListener listener : listeners) {
+                listener.onCharacterRemoved(location, character);
+            }
+        }
+
+        @Override
+        public void onCharacterDied(Location location, Character character) {
+            List<Death> deaths = stepDeaths.get();
+            if (deaths != null) {
+                deaths.add(new Death(location, character));
+            } else {
+                publishDeath(location, character);
+            }
+        }
+    };
+
+    private record Death(Location location, Character character) {
+    }
+
+    /**
+     * Record a death in the journal and tell the listeners, on the thread running the step
+     */
+    private void publishDeath(Location location, Character character) {
+        if (journal != null) {
+            journal.death(location.getJournalId(), character);
+        }
+        for (TheaterListener listener : listeners) {
+            listener.onCharacterDied(location, character);
+        }
+    }
 
     public Theater() {
+        this(RandomSource.withRandomSeed());
+    }
+
+    /**
+     * Create a theater whose randomness is derived from the given source
+     * @param randomSource the source of every random generator of this theater
+     */
+    public Theater(RandomSource randomSource) {
         this.locations = new ArrayList<>();
+        this.randomSource = Objects.requireNonNull(randomSource);
+    }
+
+    /**
+     * Get the columnar store of the characters of this theater
+     * @return the store, or null if characters keep their state in their objects
+     */
+    public CharacterStore getCharacterStore() {
+        return characterStore;
+    }
+
+    /**
+     * Make the simulation step work on a columnar store (optional, for large populations).
+     * Every character currently in the theater is registered, and so are the characters added
+     * to its locations later. Placements are counted again from the locations, so characters
+     * registered before being placed are stepped too. The store must only hold characters of this theater.
+     * @param characterStore the store, or null to step the character objects
+     */
+    public void setCharacterStore(CharacterStore characterStore) {
+        this.characterStore = characterStore;
+        if (characterStore == null) return;
+        characterStore.clearPlacements();
+        for (Location location : locations) {
+            registerCharacters(location);
+        }
+    }
+
+    /**
+     * Register the unstored characters of a location and place all of its characters of the store
+     */
+    private void registerCharacters(Location location) {
+        location.forEachCharacter(character -> {
+            if (character.getStore() == null) {
+                characterStore.register(character);
+            }
+            place(characterStore, character, 1);
+        });
+    }
+
+    /**
+     * Count a character of the store in or out of a location of this theater. Only the locations
+     * of the theater place characters: a removed location no longer has its characters stepped.
+     */
+    private static void place(CharacterStore store, Character character, int delta) {
+        if (character.getStore() == store) {
+            store.updatePlacement(character.getStoreId(), delta);
+        }
+    }
+
+    /**
+     * Get the journal recording the events of this theater
+     * @return the journal, or null if events are not recorded
+     */
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Record the events of every location of this theater in a journal. Locations get
+     * journal ids in the order they were added; the turn of the journal follows the simulation steps.
+     * @param journal the journal, or null to stop recording
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+        for (Location location : locations) {
+            attachJournal(location);
+        }
+    }
+
+    private void attachJournal(Location location) {
+        if (journal == null) {
+            location.setJournal(null, location.getJournalId());
+        } else {
+            location.setJournal(journal, location.getJournalId() >= 0 ? location.getJournalId() : nextJournalId++);
+        }
+    }
+
+    /**
+     * Register a listener of the locations of this theater and of their population
+     * @param listener the listener
+     */
+    public void addListener(TheaterListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(TheaterListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the source of the random generators of this theater
+     * @return the random source
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * Derive the random generators of this theater from a new source: every battlefield gets
+     * a new generator, split in the order the battlefields were added.
+     * @param randomSource the new random source
+     */
+    public void reseed(RandomSource randomSource) {
+        this.randomSource = Objects.requireNonNull(randomSource);
+        for (Battlefield battlefield : battlefields) {
+            battlefield.setRandom(randomSource.split());
+        }
     }
 
     /**
@@ -33,7 +226,26 @@ public class Theater {
      */
     public boolean addLocation(Location location) {
         if (location == null) return false;
-        return locations.add(location);
+        if (location instanceof Battlefield) {
+            ((Battlefield) location).setRandom(randomSource.split());
+        }
+        locations.add(location);
+        locationsByName.putIfAbsent(location.getName(), location);
+        locationsByType.computeIfAbsent(location.getType(), t -> new ArrayList<>()).add(location);
+        if (location instanceof Battlefield) {
+            battlefields.add((Battlefield) location);
+        }
+        location.addListener(relay);
+        if (characterStore != null) {
+            registerCharacters(location);
+        }
+        if (journal != null) {
+            attachJournal(location);
+        }
+        for (TheaterListener listener : listeners) {
+            listener.onLocationAdded(location);
+        }
+        return true;
     }
 
     /**
@@ -43,21 +255,58 @@ public class Theater {
      */
     public boolean removeLocation(Location location) {
         if (location == null) return false;
-        return locations.remove(location);
+        if (!locations.remove(location)) return false;
+        unindex(location);
+        location.removeListener(relay);
+        CharacterStore store = characterStore;
+        if (store != null) {
+            location.forEachCharacter(character -> place(store, character, -1));
+        }
+        for (TheaterListener listener : listeners) {
+            listener.onLocationRemoved(location);
+        }
+        return true;
+    }
+
+    private void unindex(Location location) {
+        String name = location.getName();
+        if (locationsByName.get(name) == location) {
+            // Un autre lieu du même nom prend le relais, dans l'ordre d'ajout
+            locationsByName.remove(name);
+            for (Location other : locations) {
+                if (other.getName().equals(name)) {
+                    locationsByName.put(name, other);
+                    break;
+                }
+            }
+        }
+        List<Location> sameType = locationsByType.get(location.getType());
+        sameType.remove(location);
+        if (sameType.isEmpty()) {
+            locationsByType.remove(location.getType());
+        }
+        if (location instanceof Battlefield) {
+            battlefields.remove(location);
+        }
     }
 
     /**
-     * Get a location by name
+     * Get a location by name, in constant time
      * @param name the name of the location
-     * @return the location or null if not found
+     * @return the first location added with that name, or null if not found
      */
     public Location getLocationByName(String name) {
-        for (Location location : locations) {
-            if (location.getName().equals(name)) {
-                return location;
-            }
-        }
-        return null;
+        return locationsByName.get(name);
+    }
+
+    /**
+     * Get the locations of a type, in the order they were added
+     * @param type the location type
+     * @return read-only list of the locations of that type, empty if none
+     */
+    public List<Location> getLocationsByType(LocationType type) {
+        List<Location> sameType = locationsByType.get(type);
+        return sameType == null ? Collections.emptyList() : Collections.unmodifiableList(sameType);
     }
 
     /**
@@ -83,38 +332,185 @@ public class Theater {
             origin.addCharacter(character);
             return false;
         }
+        if (journal != null) {
+            journal.transfer(battlefield.getJournalId(), character, origin.getJournalId());
+        }
 
         return true;
     }
 
     /**
-     * Get all battlefields in the theater
-     * @return list of battlefields
+     * Get all battlefields in the theater, without copying
+     * @return read-only live list of battlefields, in the order they were added
      */
     public List<Battlefield> getBattlefields() {
-        return locations.stream()
-                .filter(loc -> loc instanceof Battlefield)
-                .map(loc -> (Battlefield) loc)
-                .collect(Collectors. toList());
+        return battlefieldsView;
+    }
+
+    /**
+     * Set the number of threads used by {@link #simulationStep()}.
+     * Locations are independent during a step, so the result does not depend on this value.
+     * @param parallelism 1 to step sequentially on the calling thread, more to use a fork-join pool
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (stepPool != null) {
+            if (stepPool.getParallelism() == parallelism) return;
+            stepPool.shutdown();
+            stepPool = null;
+        }
+        if (parallelism > 1) {
+            stepPool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * Get the number of threads used by {@link #simulationStep()}
+     * @return 1 when stepping sequentially
+     */
+    public int getParallelism() {
+        return stepPool == null ? 1 : stepPool.getParallelism();
     }
 
     /**
      * NOUVEAU : Effectuer une étape de simulation
      */
     public void simulationStep() {
-        // Faire apparaître des herbes médicinales
-        for (Location location : locations) {
-            location.spawnHerbsIfNeeded();
+        if (journal != null) {
+            journal.setTurn(journal.getTurn() + 1);
+        }
+        if (characterStore != null) {
+            // Herbes par lieu, puis la faim en une passe sur les colonnes du store
+            int placed = 0;
+            for (Location location : locations) {
+                synchronized (location) {
+                    location.spawnHerbsIfNeeded();
+                    placed += location.getCharactersNbr();
+                }
+            }
+            int[] hurt = new int[1];
+            // La passe touche aussi les combattants : aucun round ne doit se jouer pendant ce temps
+            withBattlefieldsLocked(0, () -> hurt[0] = characterStore.applyHungerDamage(HUNGER_DAMAGE));
+            if (hurt[0] > 0) {
+                // Le store ne sait pas où sont les affamés : tous les lieux peuplés ont pu changer
+                for (Location location : locations) {
+                    if (location.getCharactersNbr() > 0) location.markDirty();
+                }
+            }
+            if (placed != characterStore.getTotalPlacements()) {
+                stepUnstoredCharacters();
+            }
+        } else {
+            // Les herbes d'abord, dans l'ordre des lieux : le journal ne dépend pas du nombre de threads
+            for (Location location : locations) {
+                synchronized (location) {
+                    location.spawnHerbsIfNeeded();
+                }
+            }
+            stepHunger();
         }
+    }
 
-        // Faire vieillir certains personnages aléatoirement
+    /**
+     * Hunger damage of every location, in parallel if there are enough locations
+     */
+    private void stepHunger() {
+        if (stepPool == null || locations.size() <= LOCATIONS_PER_TASK) {
+            for (Location location : locations) {
+                stepLocation(location);
+            }
+        } else {
+            LocationStepTask step = new LocationStepTask(0, locations.size());
+            stepPool.invoke(step);
+            for (Death death : step.deaths) {
+                publishDeath(death.location(), death.character());
+            }
+        }
+    }
+
+    /**
+     * Hunger damage of the characters not registered in the store
+     */
+    private void stepUnstoredCharacters() {
         for (Location location : locations) {
-            for (Character character : location.getCharacters()) {
+            synchronized (location) {
+                location.forEachCharacter(character -> {
+                    if (character.getStore() == null && character.isHungry()) {
+                        character.takeDamage(HUNGER_DAMAGE);
+                        location.markDirty();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Run an action holding the monitor of every battlefield, taken in the order they were added.
+     * Battles lock a single battlefield, so this cannot deadlock with them.
+     */
+    private void withBattlefieldsLocked(int from, Runnable action) {
+        if (from == battlefields.size()) {
+            action.run();
+            return;
+        }
+        synchronized (battlefields.get(from)) {
+            withBattlefieldsLocked(from + 1, action);
+        }
+    }
+
+    /**
+     * Hunger damage of a single location. Only touches that location and its characters,
+     * holding its monitor so that a battle running on another thread does not overlap it.
+     */
+    private static void stepLocation(Location location) {
+        synchronized (location) {
+            location.forEachCharacter(character -> {
                 // Diminuer légèrement la santé si affamé
                 if (character.isHungry()) {
-                    character.takeDamage(2.0);
+                    character.takeDamage(HUNGER_DAMAGE);
+                    location.markDirty();
+                }
+            });
+        }
+    }
+
+    /**
+     * Steps a range of locations, splitting it in halves until it is small enough.
+     * Deaths are kept in location order instead of being published from the worker threads.
+     */
+    private class LocationStepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private transient List<Death> deaths = new ArrayList<>();
+
+        LocationStepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LOCATIONS_PER_TASK) {
+                stepDeaths.set(deaths);
+                try {
+                    for (int i = from; i < to; i++) {
+                        stepLocation(locations.get(i));
+                    }
+                } finally {
+                    stepDeaths.remove();
                 }
+                return;
             }
+            int middle = (from + to) >>> 1;
+            LocationStepTask first = new LocationStepTask(from, middle);
+            LocationStepTask second = new LocationStepTask(middle, to);
+            invokeAll(first, second);
+            deaths = first.deaths;
+            deaths.addAll(second.deaths);
         }
     }
 
@@ -0,0 +1,24 @@
+package models.theater;
+
+import models.location.Location;
+import models.location.LocationListener;
+
+/**
+ * Listener of the locations of a theater and of the population changes of all of them.
+ * Deaths caused by a parallel simulation step are published once the step is over,
+ * in location order, by the thread that ran it.
+ */
+public interface TheaterListener extends LocationListener {
+
+    /**
+     * Called after a location, possibly already populated, was added to the theater.
+     */
+    default void onLocationAdded(Location location) {
+    }
+
+    /**
+     * Called after a location was removed from the theater, with its population.
+     */
+    default void onLocationRemoved(Location location) {
+    }
+}
@@ -0,0 +1,177 @@
+package models.theater;
+
+import models.factory.CharacterFactory;
+import models.factory.CharacterFactory.CharacterType;
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.people.Werewolf;
+import models.potion.MagicPotion;
+import models.utils.RandomSource;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the state of a theater: its locations in order, their rosters, foods, herbs
+ * and kettles, and the origins of the characters on battlefields. Restoring it builds a new theater
+ * with new characters in the same state. Random generators, listeners, journal and character store
+ * are not part of the snapshot.
+ * @param locations the state of every location, in the order of {@link Theater#getLocations()}
+ */
+public record TheaterSnapshot(List<LocationState> locations) {
+
+    /**
+     * State of one character.
+     * @param rank the rank of a werewolf, null for the other characters
+     */
+    public record CharacterState(CharacterType type, String name, char sex, double height, int age,
+                                 double strength, double health, double maxHealth, double endurance,
+                                 double hungerIndicator, int magicPotionLevel, boolean dead, Werewolf.Rank rank) {
+
+        static CharacterState of(Character character) {
+            return new CharacterState(CharacterFactory.typeOf(character), character.getName(),
+                    character.getSex(), character.getHeight(), character.getAge(), character.getStrength(),
+                    character.getHealth(), character.getMaxHealth(), character.getEndurance(),
+                    character.getHungerIndicator(), (int) character.getMagicPotionLevel(), character.isDead(),
+                    character instanceof Werewolf werewolf ? werewolf.getRank() : null);
+        }
+
+        Character restore() {
+            // Le rang change le bonus de combat : la fabrique ne crée que des loups-garous gamma
+            Character character = rank != null ? new Werewolf(name, sex, height, age, strength, rank)
+                    : CharacterFactory.createCharacter(type, name, sex, height, age, strength);
+            character.restoreState(health, maxHealth, endurance, hungerIndicator, magicPotionLevel, dead);
+            return character;
+        }
+    }
+
+    /**
+     * State of the kettle of a location.
+     */
+    public record PotionState(List<Food> missingIngredients, int kettlePortion, boolean metamorphosisEffect,
+                              boolean duplicationEffect, boolean nutritiousEffect) {
+
+        static PotionState of(MagicPotion potion) {
+            return new PotionState(List.copyOf(potion.getMissingIngredient()), potion.getPortionInKettle(),
+                    potion.metamorphosisEffect, potion.duplicationEffect, potion.nutritiousEffect);
+        }
+
+        void restore(MagicPotion potion) {
+            potion.missingIngredient = new ArrayList<>(missingIngredients);
+            potion.kettlePortion = kettlePortion;
+            potion.metamorphosisEffect = metamorphosisEffect;
+            potion.duplicationEffect = duplicationEffect;
+            potion.nutritiousEffect = nutritiousEffect;
+        }
+    }
+
+    /**
+     * State of one location.
+     * @param clanLeader index of the clan leader in the roster, -1 if none
+     * @param battleStatus status of the battle, null if the location is not a battlefield
+     * @param origins for a battlefield, index in the theater of the origin of each character of the roster
+     *                (-1 if none); empty otherwise
+     */
+    public record LocationState(String name, double superficie, LocationType type, List<CharacterState> characters,
+                                List<Food> foods, int healingHerbs, int turnsSinceLastHerbSpawn, PotionState potion,
+                                int clanLeader, String battleStatus, List<Integer> origins) {
+
+        public boolean isBattlefield() {
+            return battleStatus != null;
+        }
+
+        /**
+         * Copy the state of a location. The caller holds its monitor if a battle may be running there.
+         * @param indexes the index of every location of the theater, for the origins of battlefield characters
+         */
+        public static LocationState of(Location location, Map<Location, Integer> indexes) {
+            List<Character> roster = location.getCharactersView();
+            List<CharacterState> characters = new ArrayList<>(roster.size());
+            for (Character character : roster) {
+                characters.add(CharacterState.of(character));
+            }
+            String battleStatus = null;
+            List<Integer> origins = List.of();
+            if (location instanceof Battlefield) {
+                Battlefield battlefield = (Battlefield) location;
+                battleStatus = battlefield.getBattleStatus();
+                origins = new ArrayList<>(roster.size());
+                for (Character character : roster) {
+                    origins.add(indexes.getOrDefault(battlefield.getCharacterOrigin(character), -1));
+                }
+            }
+            return new LocationState(location.getName(), location.getSuperficie(), location.getType(),
+                    List.copyOf(characters), List.copyOf(location.getFoodsView()), location.getHealingHerbs(),
+                    location.getTurnsSinceLastHerbSpawn(), PotionState.of(location.getMagicPotion()),
+                    roster.indexOf(location.getChefDeClan()), battleStatus, List.copyOf(origins));
+        }
+    }
+
+    /**
+     * Copy the state of a theater
+     * @param theater the theater
+     * @return the snapshot
+     */
+    public static TheaterSnapshot capture(Theater theater) {
+        List<Location> locations = theater.getLocations();
+        Map<Location, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < locations.size(); i++) {
+            indexes.put(locations.get(i), i);
+        }
+
+        List<LocationState> states = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            states.add(LocationState.of(location, indexes));
+        }
+        return new TheaterSnapshot(List.copyOf(states));
+    }
+
+    /**
+     * Build a new theater in the state of this snapshot
+     * @param randomSource the random source of the new theater (battlefields split it in order)
+     * @return the theater
+     */
+    public Theater restore(RandomSource randomSource) {
+        Theater theater = new Theater(randomSource);
+        List<Location> restored = new ArrayList<>(locations.size());
+        for (LocationState state : locations) {
+            Location location = state.isBattlefield()
+                    ? new Battlefield(state.name(), state.superficie())
+                    : new Location(state.name(), state.superficie(), state.type());
+            for (Food food : state.foods()) {
+                location.addFood(food);
+            }
+            location.restoreHerbs(state.healingHerbs(), state.turnsSinceLastHerbSpawn());
+            state.potion().restore(location.getMagicPotion());
+            theater.addLocation(location);
+            restored.add(location);
+        }
+
+        for (int i = 0; i < locations.size(); i++) {
+            LocationState state = locations.get(i);
+            Location location = restored.get(i);
+            List<CharacterState> characters = state.characters();
+            for (int j = 0; j < characters.size(); j++) {
+                Character character = characters.get(j).restore();
+                int origin = state.isBattlefield() ? state.origins().get(j) : -1;
+                if (origin >= 0) {
+                    ((Battlefield) location).addCharacterFromOrigin(character, restored.get(origin));
+                } else {
+                    location.addCharacter(character);
+                }
+                if (j == state.clanLeader()) {
+                    location.setChefDeClan(character);
+                }
+            }
+            if (state.isBattlefield()) {
+                ((Battlefield) location).setBattleStatus(state.battleStatus());
+            }
+        }
+        return theater;
+    }
+}
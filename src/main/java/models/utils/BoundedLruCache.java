@@ -0,0 +1,145 @@
+package models.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache bounded by the total weight of its values (bytes, pixels...) rather than their number.
+ * When a value does not fit, the least recently used ones are evicted until it does.
+ * Counts hits, misses and evictions.
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedLruCache<K, V> {
+
+    /**
+     * Counters of a cache at one point in time.
+     * @param hits the lookups that found a value
+     * @param misses the lookups that found nothing
+     * @param evictions the values evicted to make room
+     * @param weight the total weight of the values cached
+     * @param size the number of values cached
+     */
+    public record Stats(long hits, long misses, long evictions, long weight, int size) {
+        /**
+         * @return the share of lookups that found a value, 0 if none yet
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true); // Ordre d'accès
+
+    // Protégés par le moniteur du cache
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param maxWeight the largest total weight kept, strictly positive
+     * @param weigher the weight of a value, zero or more
+     */
+    public BoundedLruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache weight must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Look a value up, making it the most recently used
+     * @return the value, or null if not cached
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Cache a value, replacing the previous one of the key, and evict the least recently used values
+     * until the total weight fits again
+     * @return false if the value alone is heavier than the whole cache, and was not kept
+     */
+    public synchronized boolean put(K key, V value) {
+        Objects.requireNonNull(value);
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight < 0) {
+            throw new IllegalArgumentException("Negative weight for " + key + ": " + valueWeight);
+        }
+        remove(key);
+        if (valueWeight > maxWeight) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, valueWeight));
+        weight += valueWeight;
+
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weight > maxWeight) {
+            Entry<V> evicted = eldest.next();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * Remove the value of a key
+     * @return the value removed, or null if none
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) return null;
+        weight -= entry.weight;
+        return entry.value;
+    }
+
+    /**
+     * Remove every value. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, weight, entries.size());
+    }
+
+    /**
+     * Get the keys from the least to the most recently used, for tests and diagnostics
+     */
+    synchronized List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+}
@@ -0,0 +1,208 @@
+package models.utils;
+
+import models.location.Location;
+import models.people.Character;
+import models.theater.Theater;
+import models.utils.CharacterSorter.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked queries ("strongest N", "most wounded N"...) over a location or a whole theater.
+ * Characters are visited in place and the best K are kept in a bounded heap, in O(N log K)
+ * without copying or sorting the rosters.
+ * @author Project Team
+ */
+public class CharacterRanking {
+
+    private CharacterRanking() {}
+
+    /**
+     * Get the first K characters of a location in the natural order of a key
+     * (strongest, healthiest, youngest or highest potion level first).
+     * @param location the location
+     * @param key a numeric key (not NAME)
+     * @param k the maximum number of characters
+     * @return at most k characters, best first; ties keep the roster order
+     */
+    public static List<Character> top(Location location, Key key, int k) {
+        TopK topK = new TopK(key, k, false, location.getCharactersNbr());
+        location.forEachCharacter(topK::offer);
+        return topK.result();
+    }
+
+    /**
+     * Get the last K characters of a location in the natural order of a key
+     * (weakest, most wounded, oldest or lowest potion level first).
+     */
+    public static List<Character> bottom(Location location, Key key, int k) {
+        TopK topK = new TopK(key, k, true, location.getCharactersNbr());
+        location.forEachCharacter(topK::offer);
+        return topK.result();
+    }
+
+    /**
+     * Same as {@link #top(Location, Key, int)} over every location of a theater.
+     */
+    public static List<Character> top(Theater theater, Key key, int k) {
+        List<Location> locations = theater.getLocations();
+        TopK topK = new TopK(key, k, false, rosterSize(locations));
+        for (Location location : locations) {
+            location.forEachCharacter(topK::offer);
+        }
+        return topK.result();
+    }
+
+    /**
+     * Same as {@link #bottom(Location, Key, int)} over every location of a theater.
+     */
+    public static List<Character> bottom(Theater theater, Key key, int k) {
+        List<Location> locations = theater.getLocations();
+        TopK topK = new TopK(key, k, true, rosterSize(locations));
+        for (Location location : locations) {
+            location.forEachCharacter(topK::offer);
+        }
+        return topK.result();
+    }
+
+    private static int rosterSize(List<Location> locations) {
+        int size = 0;
+        for (Location location : locations) {
+            size += location.getCharactersNbr();
+        }
+        return size;
+    }
+
+    public static List<Character> strongest(Location location, int k) {
+        return top(location, Key.STRENGTH, k);
+    }
+
+    public static List<Character> weakest(Location location, int k) {
+        return bottom(location, Key.STRENGTH, k);
+    }
+
+    public static List<Character> mostWounded(Location location, int k) {
+        return bottom(location, Key.HEALTH, k);
+    }
+
+    public static List<Character> mostWounded(Theater theater, int k) {
+        return bottom(theater, Key.HEALTH, k);
+    }
+
+    /**
+     * Bounded min-heap on a score (higher is better) holding the K best characters offered.
+     * The worst kept character sits at the root and is replaced by any strictly better one.
+     */
+    private static final class TopK {
+        private final Key key;
+        private final boolean reversed;
+        private final double[] scores;
+        private final long[] arrivals;
+        private final Character[] characters;
+        private int size = 0;
+        private long offered = 0;
+
+        /**
+         * @param roster the number of characters that will be offered, so that a huge k
+         *               does not allocate more than the roster
+         */
+        TopK(Key key, int k, boolean bottom, int roster) {
+            if (key == Key.NAME) {
+                throw new IllegalArgumentException("Ranking needs a numeric key: " + key);
+            }
+            if (k < 0) {
+                throw new IllegalArgumentException("K must not be negative: " + k);
+            }
+            this.key = key;
+            // Score so that a higher score always means "ranked first"
+            this.reversed = key.isDescending() == bottom;
+            int capacity = Math.min(k, roster);
+            this.scores = new double[capacity];
+            this.arrivals = new long[capacity];
+            this.characters = new Character[capacity];
+        }
+
+        void offer(Character character) {
+            if (scores.length == 0) return;
+            double value = key.extract(character);
+            double score = reversed ? -value : value;
+            long arrival = offered++;
+            if (size < scores.length) {
+                int i = size++;
+                set(i, score, arrival, character);
+                siftUp(i);
+            } else if (worse(0, score, arrival)) {
+                set(0, score, arrival, character);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Ranked result, best first. Sorting the K kept characters costs O(K log K).
+         */
+        List<Character> result() {
+            int n = size;
+            Character[] ranked = new Character[n];
+            // Popping the root gives the worst first: fill from the end
+            for (int last = n - 1; last >= 0; last--) {
+                ranked[last] = characters[0];
+                size--;
+                set(0, scores[size], arrivals[size], characters[size]);
+                characters[size] = null;
+                siftDown(0);
+            }
+            List<Character> result = new ArrayList<>(n);
+            for (Character character : ranked) {
+                result.add(character);
+            }
+            return result;
+        }
+
+        /**
+         * Whether the entry at i ranks after (score, arrival): lower score, or same score and later arrival.
+         */
+        private boolean worse(int i, double score, long arrival) {
+            int cmp = Double.compare(scores[i], score);
+            return cmp < 0 || (cmp == 0 && arrivals[i] > arrival);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(i, scores[parent], arrivals[parent])) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) return;
+                int child = left;
+                int right = left + 1;
+                if (right < size && worse(right, scores[left], arrivals[left])) {
+                    child = right;
+                }
+                if (!worse(child, scores[i], arrivals[i])) return;
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void set(int i, double score, long arrival, Character character) {
+            scores[i] = score;
+            arrivals[i] = arrival;
+            characters[i] = character;
+        }
+
+        private void swap(int i, int j) {
+            double score = scores[i];
+            long arrival = arrivals[i];
+            Character character = characters[i];
+            set(i, scores[j], arrivals[j], characters[j]);
+            set(j, score, arrival, character);
+        }
+    }
+}
@@ -2,22 +2,243 @@ package models.utils;
 
 import models.people.Character;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
 /**
- * Utility class for sorting characters using various algorithms.
- * Implements custom sorting algorithms as required by the project specifications.
+ * Utility class for sorting characters.
+ * By default numeric keys are extracted into a {@code double[]} and sorted as an index permutation
+ * by a stable radix sort; names and multi-key orders use the stable JDK merge sort, in parallel
+ * for large rosters.
+ * The custom algorithms required by the project specifications (QuickSort, Bubble Sort,
+ * Insertion Sort) remain available with {@link #setEducational(boolean)}.
  * @author Project Team
  */
 public class CharacterSorter {
 
+    /** Rosters at least this large are sorted with the parallel JDK merge sort. */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static volatile boolean educational = false;
+
+    /**
+     * Sort keys of characters, each with its natural direction.
+     */
+    public enum Key {
+        /** Strongest first. */
+        STRENGTH(true, Comparator.comparingDouble(Character::getStrength)),
+        /** Healthiest first. */
+        HEALTH(true, Comparator.comparingDouble(Character::getHealth)),
+        /** Youngest first. */
+        AGE(false, Comparator.comparingInt(Character::getAge)),
+        /** Highest magic potion level first. */
+        POTION_LEVEL(true, Comparator.comparingDouble(Character::getMagicPotionLevel)),
+        /** Alphabetical order. */
+        NAME(false, Comparator.comparing(Character::getName));
+
+        private final boolean descending;
+        private final Comparator<Character> comparator;
+
+        Key(boolean descending, Comparator<Character> ascending) {
+            this.descending = descending;
+            this.comparator = descending ? ascending.reversed() : ascending;
+        }
+
+        public boolean isDescending() {
+            return descending;
+        }
+
+        /**
+         * Get the comparator putting the characters in the order of this key.
+         */
+        public Comparator<Character> comparator() {
+            return comparator;
+        }
+
+        /**
+         * Get the numeric value of this key for a character
+         * @throws IllegalArgumentException for NAME, which is not numeric
+         */
+        public double extract(Character character) {
+            return switch (this) {
+                case STRENGTH -> character.getStrength();
+                case HEALTH -> character.getHealth();
+                case AGE -> character.getAge();
+                case POTION_LEVEL -> character.getMagicPotionLevel();
+                case NAME -> throw new IllegalArgumentException("NAME is not a numeric key");
+            };
+        }
+    }
+
+    /**
+     * Use the custom educational algorithms instead of the JDK sorts.
+     * @param educational true for QuickSort (strength), Bubble Sort (age) and Insertion Sort (name)
+     */
+    public static void setEducational(boolean educational) {
+        CharacterSorter.educational = educational;
+    }
+
+    public static boolean isEducational() {
+        return educational;
+    }
+
+    // ==================== SORT SERVICE ====================
+
+    /**
+     * Sort characters by a key in its natural direction. Stable: characters with equal keys keep
+     * their relative order.
+     * @param characters the list of characters to sort
+     * @param key the sort key
+     * @return a new sorted list
+     */
+    public static List<Character> sortBy(List<Character> characters, Key key) {
+        if (key == Key.NAME) {
+            return sort(characters, key.comparator());
+        }
+        Character[] array = characters.toArray(new Character[0]);
+        return permute(array, order(array, key));
+    }
+
     /**
-     * Sort characters by strength using QuickSort algorithm.
+     * Sort characters by several keys: the second key breaks the ties of the first, and so on.
+     * @param characters the list of characters to sort
+     * @param keys the keys, most significant first
+     * @return a new sorted list
+     */
+    public static List<Character> sortBy(List<Character> characters, Key... keys) {
+        if (keys.length == 1) {
+            return sortBy(characters, keys[0]);
+        }
+        return sort(characters, comparing(keys));
+    }
+
+    /**
+     * Sort characters with a comparator, with a stable merge sort (in parallel for large rosters).
+     * @param characters the list of characters to sort
+     * @param comparator the order
+     * @return a new sorted list
+     */
+    public static List<Character> sort(List<Character> characters, Comparator<? super Character> comparator) {
+        Character[] array = characters.toArray(new Character[0]);
+        if (array.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(array, comparator);
+        } else {
+            Arrays.sort(array, comparator);
+        }
+        return new ArrayList<>(Arrays.asList(array));
+    }
+
+    /**
+     * Build a comparator ordering by several keys, most significant first.
+     * @param keys the keys
+     * @return the combined comparator
+     */
+    public static Comparator<Character> comparing(Key... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one sort key is required");
+        }
+        Comparator<Character> comparator = keys[0].comparator();
+        for (int i = 1; i < keys.length; i++) {
+            comparator = comparator.thenComparing(keys[i].comparator());
+        }
+        return comparator;
+    }
+
+    /**
+     * Get the permutation sorting characters by a numeric key, without moving the characters.
+     * @param characters the characters
+     * @param key a numeric key (not NAME)
+     * @return the indices of the characters in sorted order
+     * @throws IllegalArgumentException if the key is NAME, even for an empty list
+     */
+    public static int[] order(List<Character> characters, Key key) {
+        if (key == Key.NAME) {
+            throw new IllegalArgumentException("Ordering needs a numeric key: " + key);
+        }
+        return order(characters.toArray(new Character[0]), key);
+    }
+
+    private static int[] order(Character[] characters, Key key) {
+        double[] values = new double[characters.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = key.extract(characters[i]); // Ages are exact as doubles
+        }
+        return order(values, key.isDescending());
+    }
+
+    /**
+     * Stable sort of indices by double keys: keys are mapped to longs ordered like the doubles,
+     * then sorted with their indices by a least-significant-digit radix sort (one pass per byte).
+     */
+    static int[] order(double[] keys, boolean descending) {
+        int n = keys.length;
+        long[] bits = new long[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            long b = Double.doubleToLongBits(keys[i]);
+            b = b < 0 ? ~b : b ^ Long.MIN_VALUE; // Unsigned order of b follows Double.compare
+            bits[i] = descending ? ~b : b;
+            order[i] = i;
+        }
+        if (n < 2) {
+            return order;
+        }
+
+        long[] bitsBuffer = new long[n];
+        int[] orderBuffer = new int[n];
+        int[] counts = new int[RADIX + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) (bits[i] >>> shift) & (RADIX - 1)]++;
+            }
+            if (counts[(int) (bits[0] >>> shift) & (RADIX - 1)] == n) {
+                continue; // Every key has the same digit: nothing to move
+            }
+            int start = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int count = counts[d];
+                counts[d] = start;
+                start += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(int) (bits[i] >>> shift) & (RADIX - 1)]++;
+                bitsBuffer[slot] = bits[i];
+                orderBuffer[slot] = order[i];
+            }
+            long[] swapBits = bits;
+            bits = bitsBuffer;
+            bitsBuffer = swapBits;
+            int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+        return order;
+    }
+
+    private static List<Character> permute(Character[] characters, int[] order) {
+        List<Character> sorted = new ArrayList<>(order.length);
+        for (int index : order) {
+            sorted.add(characters[index]);
+        }
+        return sorted;
+    }
+
+    // ==================== SORTS BY ATTRIBUTE ====================
+
+    /**
+     * Sort characters by strength, strongest first (QuickSort in educational mode).
      * @param characters the list of characters to sort
      * @return a new sorted list
      */
     public static List<Character> sortByStrength(List<Character> characters) {
+        if (!educational) {
+            return sortBy(characters, Key.STRENGTH);
+        }
         List<Character> sorted = new ArrayList<>(characters);
         quickSortByStrength(sorted, 0, sorted.size() - 1);
         return sorted;
@@ -71,11 +292,14 @@ public class CharacterSorter {
     }
 
     /**
-     * Sort characters by age using Bubble Sort algorithm.
+     * Sort characters by age, youngest first (Bubble Sort in educational mode).
      * @param characters the list of characters to sort
      * @return a new sorted list
      */
     public static List<Character> sortByAge(List<Character> characters) {
+        if (!educational) {
+            return sortBy(characters, Key.AGE);
+        }
         List<Character> sorted = new ArrayList<>(characters);
         bubbleSortByAge(sorted);
         return sorted;
@@ -97,22 +321,28 @@ public class CharacterSorter {
     }
 
     /**
-     * Sort characters by health using Java's built-in sort with custom comparator.
+     * Sort characters by health, healthiest first (built-in sort with a comparator in educational mode).
      * @param characters the list of characters to sort
      * @return a new sorted list
      */
     public static List<Character> sortByHealth(List<Character> characters) {
+        if (!educational) {
+            return sortBy(characters, Key.HEALTH);
+        }
         List<Character> sorted = new ArrayList<>(characters);
         sorted.sort(Comparator.comparingDouble(Character::getHealth).reversed());
         return sorted;
     }
 
     /**
-     * Sort characters by name alphabetically using Insertion Sort.
+     * Sort characters by name alphabetically (Insertion Sort in educational mode).
      * @param characters the list of characters to sort
      * @return a new sorted list
      */
     public static List<Character> sortByName(List<Character> characters) {
+        if (!educational) {
+            return sortBy(characters, Key.NAME);
+        }
         List<Character> sorted = new ArrayList<>(characters);
         insertionSortByName(sorted);
         return sorted;
@@ -0,0 +1,99 @@
+package models.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring of events, without locks. Any thread may publish; when the ring is full the oldest
+ * events are overwritten. A publisher claims its slot only once the previous lap of that slot has
+ * been written, so slots are always written in sequence order. A single reader drains what was
+ * published since its last read.
+ * Each slot carries the sequence number of its event, so the reader detects events that were
+ * overwritten before it got to them (seqlock-style) without taking a lock.
+ * @param <T> the type of the events
+ */
+public final class EventRing<T> {
+
+    private static final long WRITING = -1;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<T> values;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity the minimum number of events kept, rounded up to a power of two
+     */
+    public EventRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.values = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i - (long) size); // Sequence of the previous lap: nothing written yet
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Publish an event, from any thread.
+     * @param event the event
+     * @return the sequence number of the event
+     */
+    public long publish(T event) {
+        long sequence = next.getAndIncrement();
+        int slot = (int) sequence & mask;
+        long previousLap = sequence - capacity();
+        // Attendre que l'écrivain du tour précédent ait fini : sinon il écraserait cet événement
+        while (!sequences.compareAndSet(slot, previousLap, WRITING)) {
+            Thread.onSpinWait();
+        }
+        values.set(slot, event);
+        sequences.set(slot, sequence);
+        return sequence;
+    }
+
+    /**
+     * Get the sequence number the next published event will get.
+     */
+    public long getPublished() {
+        return next.get();
+    }
+
+    /**
+     * Read the events published from a sequence number on, oldest first. Events already
+     * overwritten are skipped; reading stops at an event still being written.
+     * Must only be called by one reader at a time.
+     * @param from the first sequence number to read
+     * @param consumer receives the events
+     * @return the sequence number to read from next time
+     */
+    public long drain(long from, Consumer<? super T> consumer) {
+        long end = next.get();
+        long sequence = Math.max(from, end - capacity());
+        for (; sequence < end; sequence++) {
+            int slot = (int) sequence & mask;
+            long before = sequences.get(slot);
+            if (before == WRITING || before < sequence) {
+                break; // Claimed but not written yet: read it next time
+            }
+            T value = values.get(slot);
+            if (before == sequence && sequences.get(slot) == sequence) {
+                consumer.accept(value);
+            }
+            // Otherwise overwritten by a later lap: lost
+        }
+        return sequence;
+    }
+}
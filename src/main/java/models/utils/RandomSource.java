@@ -0,0 +1,60 @@
+package models.utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seedable source of the random generators used by the simulation.
+ * Each consumer (battlefield, clan leader, setup...) gets its own generator split from
+ * a single root, so a run is reproducible from its seed and threads never share a generator.
+ * @author Project Team
+ */
+public final class RandomSource {
+
+    private final long seed;
+    private final SplittableRandom root;
+
+    /**
+     * Create a source whose generators are fully determined by the seed.
+     * @param seed the seed of the run
+     */
+    public RandomSource(long seed) {
+        this.seed = seed;
+        this.root = new SplittableRandom(seed);
+    }
+
+    /**
+     * Create a source with an arbitrary seed, for runs that do not need to be reproduced.
+     * @return a new source
+     */
+    public static RandomSource withRandomSeed() {
+        return new RandomSource(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Create the source of an epoch of a run (e.g. the turns following a replay checkpoint).
+     * It only depends on the seed of the run and on the epoch, not on the draws made before.
+     * @param seed the seed of the run
+     * @param epoch the epoch, e.g. the turn it starts at
+     * @return a new source
+     */
+    public static RandomSource forEpoch(long seed, long epoch) {
+        return new RandomSource(new SplittableRandom(seed + epoch * 0x9E3779B97F4A7C15L).nextLong());
+    }
+
+    /**
+     * Get the seed this source was created with, to reproduce the run later.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get a new independent generator. Generators are derived in call order,
+     * so the same sequence of calls yields the same generators for a given seed.
+     * @return a generator for the exclusive use of the caller
+     */
+    public synchronized SplittableRandom split() {
+        return root.split();
+    }
+}
@@ -0,0 +1,138 @@
+package models.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid of points in the plane, for finding the items near a position or inside a rectangle
+ * without scanning them all. Each query only looks at the cells it overlaps, so with a cell about
+ * the size of the queries it costs the number of items found, whatever the number of items indexed.
+ * @param <T> the type of the items
+ */
+public final class SpatialGrid<T> {
+
+    private record Entry<T>(T item, double x, double y) {
+    }
+
+    private final double cellSize;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private int size = 0;
+
+    /**
+     * @param cellSize the side of a cell, strictly positive
+     */
+    public SpatialGrid(double cellSize) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index an item at a position
+     */
+    public void add(T item, double x, double y) {
+        Objects.requireNonNull(item);
+        cells.computeIfAbsent(key(cell(x), cell(y)), k -> new ArrayList<>()).add(new Entry<>(item, x, y));
+        size++;
+    }
+
+    public void clear() {
+        cells.clear();
+        size = 0;
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Find the item nearest to a position
+     * @param maxDistance the largest distance accepted
+     * @return the nearest item at most {@code maxDistance} away, or null if none
+     */
+    public T nearest(double x, double y, double maxDistance) {
+        Nearest<T> nearest = new Nearest<>(x, y, maxDistance * maxDistance);
+        forEachCell(x - maxDistance, y - maxDistance, x + maxDistance, y + maxDistance, nearest);
+        return nearest.item;
+    }
+
+    /**
+     * Visit every item whose position is inside a rectangle, bounds included
+     */
+    public void forEachIn(double minX, double minY, double maxX, double maxY, Consumer<? super T> action) {
+        forEachCell(minX, minY, maxX, maxY, entries -> {
+            for (Entry<T> entry : entries) {
+                if (entry.x >= minX && entry.x <= maxX && entry.y >= minY && entry.y <= maxY) {
+                    action.accept(entry.item);
+                }
+            }
+        });
+    }
+
+    private void forEachCell(double minX, double minY, double maxX, double maxY, Consumer<List<Entry<T>>> action) {
+        if (!(minX <= maxX && minY <= maxY)) return;
+        long fromX = cell(minX), toX = cell(maxX);
+        long fromY = cell(minY), toY = cell(maxY);
+        // Rectangle plus grand que la grille : parcourir les cellules existantes plutôt que toutes les cases
+        if (((double) toX - fromX + 1) * ((double) toY - fromY + 1) > cells.size()) {
+            for (Map.Entry<Long, List<Entry<T>>> cell : cells.entrySet()) {
+                long cx = cell.getKey() >> 32, cy = (int) (long) cell.getKey();
+                if (cx >= fromX && cx <= toX && cy >= fromY && cy <= toY) {
+                    action.accept(cell.getValue());
+                }
+            }
+            return;
+        }
+        for (long cx = fromX; cx <= toX; cx++) {
+            for (long cy = fromY; cy <= toY; cy++) {
+                List<Entry<T>> entries = cells.get(key(cx, cy));
+                if (entries != null) {
+                    action.accept(entries);
+                }
+            }
+        }
+    }
+
+    private static final class Nearest<T> implements Consumer<List<Entry<T>>> {
+        private final double x, y;
+        private double best;
+        private T item;
+
+        Nearest(double x, double y, double best) {
+            this.x = x;
+            this.y = y;
+            this.best = best;
+        }
+
+        @Override
+        public void accept(List<Entry<T>> entries) {
+            for (Entry<T> entry : entries) {
+                double dx = entry.x - x, dy = entry.y - y;
+                double distance = dx * dx + dy * dy;
+                if (distance <= best) {
+                    best = distance;
+                    item = entry.item;
+                }
+            }
+        }
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) ^ (cy & 0xFFFFFFFFL);
+    }
+}
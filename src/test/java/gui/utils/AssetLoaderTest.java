@@ -0,0 +1,38 @@
+package gui.utils;
+
+import javafx.scene.image.ImageView;
+import models.utils.BoundedLruCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the image cache of AssetLoader
+ */
+class AssetLoaderTest {
+
+    private static final String MISSING = "/images/portraits/nobody.png";
+
+    private final AssetLoader loader = new AssetLoader(AssetLoader.DEFAULT_CACHE_BYTES);
+
+    @Test
+    void loadInto_countsOneLookupPerCall() throws InterruptedException {
+        ImageView view = new ImageView();
+
+        loader.loadInto(view, MISSING);
+        BoundedLruCache.Stats cold = loader.getCacheStats();
+        assertEquals(0, cold.hits());
+        assertEquals(1, cold.misses());
+        assertSame(loader.getPlaceholder(), view.getImage());
+
+        // Attendre que le décodage marque la ressource manquante
+        for (int i = 0; i < 500 && loader.getMissingCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, loader.getMissingCount());
+
+        loader.loadInto(view, MISSING);
+        assertEquals(2, loader.getCacheStats().misses());
+        assertNull(view.getImage());
+    }
+}
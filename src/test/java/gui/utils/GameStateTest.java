@@ -0,0 +1,174 @@
+package gui.utils;
+
+import models.clanLeader.ClanLeader;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Merchant;
+import models.persistence.Autosave;
+import models.replay.ReplayEngine;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the event log of GameState
+ */
+class GameStateTest {
+
+    @TempDir
+    Path dir;
+
+    private final GameState gameState = new GameState();
+
+    @Test
+    void flushEvents_addsNewestFirstInOneBatch() {
+        gameState.addEvent("first");
+        gameState.addEvent("second");
+        assertTrue(gameState.getEventLog().isEmpty());
+
+        assertEquals(2, gameState.flushEvents());
+        assertEquals(List.of("second", "first"), gameState.getEventLog());
+
+        gameState.addEvent("third");
+        assertEquals(1, gameState.flushEvents());
+        assertEquals(List.of("third", "second", "first"), gameState.getEventLog());
+        assertEquals(0, gameState.flushEvents());
+    }
+
+    @Test
+    void flushEvents_keepsOnlyTheLastEvents() {
+        gameState.setEventLogCapacity(3);
+        for (int i = 0; i < 10; i++) {
+            gameState.addEvent("event " + i);
+        }
+
+        gameState.flushEvents();
+        assertEquals(List.of("event 9", "event 8", "event 7"), gameState.getEventLog());
+    }
+
+    @Test
+    void flushEvents_collectsEventsOfOtherThreads() throws InterruptedException {
+        Thread[] publishers = new Thread[4];
+        for (int t = 0; t < publishers.length; t++) {
+            int publisher = t;
+            publishers[t] = new Thread(() -> {
+                for (int i = 0; i < 20; i++) {
+                    gameState.addEvent(publisher + ":" + i);
+                }
+            });
+            publishers[t].start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertEquals(80, gameState.flushEvents());
+        List<String> log = new ArrayList<>(gameState.getEventLog());
+        assertEquals(80, log.size());
+        // Le plus récent en tête : les événements d'un même thread apparaissent à rebours
+        for (int t = 0; t < publishers.length; t++) {
+            String prefix = t + ":";
+            List<String> own = log.stream().filter(e -> e.startsWith(prefix)).toList();
+            assertEquals(prefix + "19", own.get(0));
+            assertEquals(prefix + "0", own.get(own.size() - 1));
+        }
+    }
+
+    @Test
+    void saveAndLoadGame_restoreTheaterAndTurn() throws IOException {
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        village.addCharacter(new Merchant("Merchant", 'm', 1.7, 30, 0.5));
+        gameState.getTheater().addLocation(village);
+        gameState.setTurnNumber(12);
+        Path path = dir.resolve("game.save");
+
+        gameState.saveGame(path);
+        gameState.setTheater(new Theater());
+        gameState.setTurnNumber(0);
+        gameState.loadGame(path);
+
+        assertEquals(12, gameState.getTurnNumber());
+        assertEquals(1, gameState.getTheater().getLocationByName("Village").getCharactersNbr());
+    }
+
+    @Test
+    void loadGame_recordsWithoutLoadingLocations() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            Location village = new Location("Village " + i, 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+            village.addCharacter(new Merchant("Merchant", 'm', 1.7, 30, 0.5));
+            gameState.getTheater().addLocation(village);
+        }
+        Path path = dir.resolve("game.save");
+        gameState.saveGame(path);
+
+        gameState.loadGame(path);
+        Theater loaded = gameState.getTheater();
+        ReplayEngine replay = gameState.getReplayEngine();
+        assertSame(loaded, replay.getTheater());
+        assertTrue(loaded.getLocations().stream().noneMatch(Location::isLoaded));
+        assertEquals(0, replay.getCheckpointCount());
+
+        gameState.execute(loaded.getLocations().get(1), "create", "", "");
+        gameState.getSimulationEngine().step();
+        assertEquals(TheaterSnapshot.capture(loaded), TheaterSnapshot.capture(replay.seek(1)));
+    }
+
+        @Test
+    void enableAutosave_savesEveryIntervalTurns() {
+        gameState.getTheater().addLocation(new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE));
+        gameState.enableAutosave(dir.resolve("autosave.save"), 2);
+        try {
+            gameState.incrementTurn();
+            assertNull(gameState.getAutosave().awaitPending());
+            gameState.incrementTurn();
+
+            Autosave.Result result = gameState.getAutosave().awaitPending();
+            assertNull(result.error());
+            assertEquals(2, result.turn());
+        } finally {
+            gameState.disableAutosave();
+        }
+    }
+
+    @Test
+    void commandsAndTurns_areRecordedForReplay() {
+        Theater theater = new Theater();
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        theater.addLocation(village);
+        village.addCharacter(new Merchant("Merchant", 'm', 1.7, 30, 0.5));
+        ClanLeader chief = new ClanLeader("Chief", 'm', 50, village);
+        chief.setTheater(theater);
+        gameState.setTheater(theater);
+        gameState.setPlayerClanLeader(chief);
+        gameState.initializeNewGame();
+
+        gameState.execute(village, "create", "", "");
+        gameState.getSimulationEngine().step();
+        gameState.execute(village, "heal", "", "");
+        gameState.getSimulationEngine().step();
+
+        ReplayEngine replay = gameState.getReplayEngine();
+        assertSame(chief, replay.getLeader());
+        assertEquals(2, replay.getTurn());
+        assertEquals(2, replay.getLog().getCommands().size());
+        assertEquals(2, village.getCharactersNbr());
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(replay.seek(2)));
+    }
+
+    @Test
+    void clearEventLog_skipsPendingEvents() {
+        gameState.addEvent("old");
+        gameState.clearEventLog();
+
+        assertEquals(0, gameState.flushEvents());
+        assertTrue(gameState.getEventLog().isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package models.journal;
+
+import models.enums.EventType;
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Blacksmith;
+import models.people.Legionary;
+import models.people.Merchant;
+import models.theater.Theater;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary event journal
+ */
+class EventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_recordsAreReadBackInOrder() throws IOException {
+        Path path = dir.resolve("events.journal");
+        try (EventJournal journal = EventJournal.create(path)) {
+            journal.setTurn(3);
+            journal.append(EventType.ATTACK, 1, 10, 20, 42.5);
+            journal.append(EventType.DEATH, 1, 20, 0, 0);
+            assertEquals(2, journal.size());
+        }
+
+        assertEquals(List.of(
+                new JournalRecord(3, EventType.ATTACK, 1, 10, 20, 42.5),
+                new JournalRecord(3, EventType.DEATH, 1, 20, 0, 0)), EventJournal.readAll(path));
+    }
+
+    @Test
+    void open_appendsAfterExistingRecordsAcrossChunks() throws IOException {
+        Path path = dir.resolve("big.journal");
+        int first = 70_000; // More than one mapped chunk
+        try (EventJournal journal = EventJournal.create(path)) {
+            for (int i = 0; i < first; i++) {
+                journal.append(EventType.HEAL, i, i, 0, i);
+            }
+        }
+        try (EventJournal journal = EventJournal.open(path)) {
+            assertEquals(first, journal.size());
+            journal.append(EventType.FEED, -1, 1, 0, 2);
+        }
+
+        long[] seen = {0};
+        long count = EventJournal.read(path, record -> {
+            if (seen[0] < first) {
+                assertEquals(seen[0], record.location());
+            } else {
+                assertEquals(EventType.FEED, record.type());
+            }
+            seen[0]++;
+        });
+        assertEquals(first + 1, count);
+        assertEquals(first + 1, seen[0]);
+    }
+
+    @Test
+    void read_notAJournal_throwsException() throws IOException {
+        Path path = dir.resolve("other.bin");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> EventJournal.readAll(path));
+    }
+
+    @Test
+    void theater_recordsTypedEvents() throws IOException {
+        Path path = dir.resolve("theater.journal");
+        Theater theater = new Theater();
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        Battlefield battlefield = new Battlefield("Plaine", 100.0);
+        battlefield.setRandom(new SplittableRandom(1));
+        theater.addLocation(village);
+        Blacksmith gaul = new Blacksmith("Gaul", 'm', 1.8, 30, 0.9);
+        Legionary roman = new Legionary("Roman", 'm', 1.8, 30, 0.2);
+        village.addCharacter(gaul);
+        village.addCharacter(roman);
+
+        try (EventJournal journal = EventJournal.create(path)) {
+            theater.setJournal(journal);
+            theater.addLocation(battlefield);
+            for (int i = 0; i < 3; i++) {
+                theater.simulationStep();
+            }
+            village.healCharacters();
+            village.addFood(Food.WINE);
+            roman.makeHungry();
+            roman.makeHungry();
+            village.feedCharacters();
+            theater.transferCharacterToBattlefield(gaul, village, battlefield);
+            theater.transferCharacterToBattlefield(roman, village, battlefield);
+            battlefield.resolveUntilDecided();
+        }
+
+        List<JournalRecord> records = EventJournal.readAll(path);
+        List<EventType> types = records.stream().map(JournalRecord::type).distinct().toList();
+        assertEquals(List.of(EventType.HERB_SPAWN, EventType.HEAL, EventType.FEED, EventType.TRANSFER,
+                EventType.ATTACK, EventType.DEATH), types);
+        assertEquals(3, records.get(0).turn());
+        assertEquals(0, records.get(0).location());
+        JournalRecord death = records.get(records.size() - 1);
+        assertEquals(1, death.location());
+        assertEquals(roman.getId(), death.actor());
+        assertTrue(records.stream().anyMatch(r -> r.type() == EventType.TRANSFER
+                && r.actor() == gaul.getId() && r.value() == 0 && r.location() == 1));
+    }
+}
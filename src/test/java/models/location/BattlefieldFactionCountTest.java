@@ -0,0 +1,74 @@
+package models.location;
+
+import models.enums.Faction;
+import models.people.Legionary;
+import models.people.Merchant;
+import models.people.Werewolf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the faction counters maintained by Battlefield
+ */
+class BattlefieldFactionCountTest {
+
+    private Battlefield battlefield;
+    private Location village;
+
+    @BeforeEach
+    void setUp() {
+        battlefield = new Battlefield("Test Battlefield", 500.0);
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+    }
+
+    @Test
+    void counters_followAdditionsAndRemovals() {
+        Merchant merchant = new Merchant("Merchant", 'm', 1.7, 30, 0.5);
+        Legionary legionary = new Legionary("Legionary", 'm', 1.8, 25, 0.7);
+        Werewolf werewolf = new Werewolf("Wolf", 'm', 1.9, 25, 0.9);
+
+        battlefield.addCharacterFromOrigin(merchant, village);
+        battlefield.addCharacterFromOrigin(werewolf, village);
+        assertEquals(1, battlefield.getFactionCount(Faction.GAUL));
+        assertEquals(1, battlefield.getFactionCount(Faction.FANTASTIC));
+        assertFalse(battlefield.hasOpposingFactions());
+
+        battlefield.addCharacterFromOrigin(legionary, village);
+        assertTrue(battlefield.hasOpposingFactions());
+
+        battlefield.removeCharacter(merchant);
+        assertEquals(0, battlefield.getFactionCount(Faction.GAUL));
+        assertFalse(battlefield.hasOpposingFactions());
+
+        assertFalse(battlefield.removeCharacter(merchant));
+        assertEquals(0, battlefield.getFactionCount(Faction.GAUL));
+    }
+
+    @Test
+    void startBattle_endsWithOneFactionLeft() {
+        for (int i = 0; i < 50; i++) {
+            battlefield.addCharacterFromOrigin(new Merchant("Merchant" + i, 'm', 1.7, 30, 0.5), village);
+            battlefield.addCharacterFromOrigin(new Legionary("Legionary" + i, 'm', 1.8, 25, 0.7), village);
+        }
+
+        battlefield.startBattle();
+
+        assertFalse(battlefield.hasOpposingFactions());
+        assertEquals(battlefield.getCharactersNbr(),
+                battlefield.getFactionCount(Faction.GAUL) + battlefield.getFactionCount(Faction.ROMAN));
+    }
+
+    @Test
+    void returnSurvivorsToOrigins_resetsCounters() {
+        battlefield.addCharacterFromOrigin(new Merchant("Merchant", 'm', 1.7, 30, 0.5), village);
+        battlefield.addCharacterFromOrigin(new Legionary("Legionary", 'm', 1.8, 25, 0.7), village);
+
+        battlefield.returnSurvivorsToOrigins();
+
+        assertEquals(0, battlefield.getFactionCount(Faction.GAUL));
+        assertEquals(0, battlefield.getFactionCount(Faction.ROMAN));
+        assertEquals(2, village.getCharactersNbr());
+    }
+}
@@ -0,0 +1,124 @@
+package models.location;
+
+import models.enums.Faction;
+import models.people.Blacksmith;
+import models.people.Character;
+import models.people.Legionary;
+import models.people.Werewolf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batch round resolution of Battlefield
+ */
+class BattlefieldRoundsTest {
+
+    private Battlefield battlefield;
+    private Location village;
+
+    @BeforeEach
+    void setUp() {
+        battlefield = new Battlefield("Test Battlefield", 500.0);
+        battlefield.setRandom(new SplittableRandom(3));
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+    }
+
+    @Test
+    void resolveRounds_everyFighterStrikesOncePerRound() {
+        Blacksmith gaul = new Blacksmith("Gaul", 'm', 1.8, 25, 0.5);
+        Legionary roman1 = new Legionary("Roman1", 'm', 1.8, 25, 0.5);
+        Legionary roman2 = new Legionary("Roman2", 'm', 1.8, 25, 0.5);
+        battlefield.addCharacterFromOrigin(gaul, village);
+        battlefield.addCharacterFromOrigin(roman1, village);
+        battlefield.addCharacterFromOrigin(roman2, village);
+
+        int romanHit = roman1.getAttackDamage(gaul);
+        int gaulHit = gaul.getAttackDamage(roman1);
+        assertEquals(1, battlefield.resolveRounds(1));
+
+        // Both Romans strike the only Gaul, who strikes one of them back
+        assertEquals(100 - 2 * romanHit, gaul.getHealth());
+        assertEquals(200 - gaulHit, roman1.getHealth() + roman2.getHealth());
+    }
+
+    @Test
+    void resolveUntilDecided_leavesOneFactionAndRemovesDead() {
+        List<Character> fighters = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            fighters.add(new Blacksmith("G" + i, 'm', 1.8, 25, 0.3 + (i % 5) * 0.1));
+            fighters.add(new Legionary("R" + i, 'm', 1.8, 25, 0.3 + (i % 7) * 0.1));
+        }
+        fighters.forEach(c -> battlefield.addCharacterFromOrigin(c, village));
+
+        assertTrue(battlefield.resolveUntilDecided() > 0);
+
+        assertFalse(battlefield.hasOpposingFactions());
+        assertEquals("Battle ended", battlefield.getBattleStatus());
+        battlefield.forEachCharacter(c -> assertTrue(c.getHealth() > 0));
+        assertEquals(battlefield.getCharactersNbr(),
+                battlefield.getFactionCount(Faction.GAUL) + battlefield.getFactionCount(Faction.ROMAN));
+
+        // Survivors still know their origin
+        battlefield.returnSurvivorsToOrigins();
+        assertEquals(0, battlefield.getCharactersNbr());
+        assertTrue(village.getCharactersNbr() > 0);
+    }
+
+    @Test
+    void resolveRounds_sameSeedSameOutcome() {
+        Battlefield other = new Battlefield("Other", 500.0);
+        other.setRandom(new SplittableRandom(3));
+        for (int i = 0; i < 20; i++) {
+            battlefield.addCharacter(new Blacksmith("G" + i, 'm', 1.8, 25, 0.2 + i * 0.03));
+            battlefield.addCharacter(new Legionary("R" + i, 'm', 1.8, 25, 0.8 - i * 0.03));
+            other.addCharacter(new Blacksmith("G" + i, 'm', 1.8, 25, 0.2 + i * 0.03));
+            other.addCharacter(new Legionary("R" + i, 'm', 1.8, 25, 0.8 - i * 0.03));
+        }
+
+        assertEquals(battlefield.resolveUntilDecided(), other.resolveUntilDecided());
+        List<String> survivors = new ArrayList<>();
+        battlefield.forEachCharacter(c -> survivors.add(c.getName() + c.getHealth()));
+        List<String> otherSurvivors = new ArrayList<>();
+        other.forEachCharacter(c -> otherSurvivors.add(c.getName() + c.getHealth()));
+        assertEquals(survivors, otherSurvivors);
+    }
+
+    @Test
+    void resolveRounds_fantasticCharactersStayOutOfTheFight() {
+        Werewolf werewolf = new Werewolf("Wolf", 'm', 1.9, 25, 0.9);
+        battlefield.addCharacter(werewolf);
+        battlefield.addCharacter(new Blacksmith("Gaul", 'm', 1.8, 25, 0.5));
+        battlefield.addCharacter(new Legionary("Roman", 'm', 1.8, 25, 0.5));
+
+        battlefield.resolveUntilDecided();
+
+        assertEquals(100, werewolf.getHealth());
+        assertTrue(battlefield.getCharactersView().contains(werewolf));
+    }
+
+    @Test
+    void resolveUntilDecided_deadFighterWithHealth_isRemoved() {
+        Blacksmith gaul = new Blacksmith("Gaul", 'm', 1.8, 25, 0.5);
+        Legionary roman = new Legionary("Roman", 'm', 1.8, 25, 0.5);
+        roman.restoreState(50, roman.getMaxHealth(), roman.getEndurance(), roman.getHungerIndicator(), 0, true);
+        battlefield.addCharacterFromOrigin(gaul, village);
+        battlefield.addCharacterFromOrigin(roman, village);
+
+        assertEquals(1, battlefield.resolveUntilDecided());
+
+        assertFalse(battlefield.hasOpposingFactions());
+        assertFalse(battlefield.getCharactersView().contains(roman));
+        assertEquals(100, gaul.getHealth());
+    }
+
+    @Test
+    void resolveRounds_negative_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> battlefield.resolveRounds(-1));
+    }
+}
@@ -1,9 +1,12 @@
 package models.location;
 
+import models.enums.Faction;
 import models.people.Character;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LocationRestrictionTest {
@@ -149,4 +152,24 @@ class LocationRestrictionTest {
         assertFalse(enclosure.addCharacter(new GauloisCharacter("Asterix", 'm', 1.6, 35, 90.0)));
         assertEquals(1, enclosure.getCharacters().size());
     }
+
+    @Test
+    void isAllowed_byClass_matchesInstanceCheck() {
+        for (LocationType type : LocationType.values()) {
+            assertEquals(LocationRestriction.isAllowed(type, new RomanCharacter("Marcus", 'm', 1.8, 30, 80.0)),
+                    LocationRestriction.isAllowed(type, RomanCharacter.class));
+            assertEquals(LocationRestriction.isAllowed(type, new LycanthropeCharacter("Wolf", 'm', 1.9, 25, 100.0)),
+                    LocationRestriction.isAllowed(type, LycanthropeCharacter.class));
+        }
+        assertTrue(LocationRestriction.isAllowed(LocationType.BATTLEFIELD, NeutralCharacter.class));
+        assertFalse(LocationRestriction.isAllowed(LocationType.GAUL_ROMAIN_VILLAGE, NeutralCharacter.class));
+    }
+
+    @Test
+    void locationType_allowedFactions() {
+        assertEquals(EnumSet.of(Faction.FANTASTIC), LocationType.ENCLOSURE.getAllowedFactions());
+        assertEquals(EnumSet.allOf(Faction.class), LocationType.BATTLEFIELD.getAllowedFactions());
+        assertEquals(Faction.GAUL, Faction.of(new GauloisCharacter("Asterix", 'm', 1.6, 35, 90.0)));
+        assertEquals(Faction.NONE, Faction.of(new NeutralCharacter("Neutral", 'm', 1.7, 28, 70.0)));
+    }
 }
@@ -0,0 +1,151 @@
+package models.location;
+
+import models.food.Food;
+import models.people.Legionary;
+import models.people.Merchant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the read-only roster accessors of Location
+ */
+class LocationTest {
+
+    private Location village;
+    private Merchant merchant;
+    private Legionary legionary;
+
+    @BeforeEach
+    void setUp() {
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        merchant = new Merchant("Merchant", 'm', 1.7, 30, 0.5);
+        legionary = new Legionary("Legionary", 'm', 1.8, 25, 0.7);
+    }
+
+    @Test
+    void getCharactersView_isLiveAndUnmodifiable() {
+        var view = village.getCharactersView();
+        assertTrue(view.isEmpty());
+
+        village.addCharacter(merchant);
+        assertEquals(List.of(merchant), view);
+        assertSame(view, village.getCharactersView());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(legionary));
+    }
+
+    @Test
+    void getFoodsView_isLiveAndUnmodifiable() {
+        village.addFood(Food.WINE);
+        assertEquals(List.of(Food.WINE), village.getFoodsView());
+        assertEquals(1, village.getFoodsNbr());
+        assertThrows(UnsupportedOperationException.class, () -> village.getFoodsView().clear());
+    }
+
+    @Test
+    void forEachCharacter_visitsInInsertionOrder() {
+        village.addCharacter(merchant);
+        village.addCharacter(legionary);
+
+        List<String> names = new ArrayList<>();
+        village.forEachCharacter(c -> names.add(c.getName()));
+
+        assertEquals(List.of("Merchant", "Legionary"), names);
+        assertSame(legionary, village.getCharacter(1));
+    }
+
+    @Test
+    void addCharacter_twice_isRejected() {
+        assertTrue(village.addCharacter(merchant));
+        assertFalse(village.addCharacter(merchant));
+        assertEquals(1, village.getCharactersNbr());
+    }
+
+    @Test
+    void removeCharacter_lastTakesFreedSlot() {
+        Merchant other = new Merchant("Other", 'f', 1.6, 40, 0.4);
+        village.addCharacter(merchant);
+        village.addCharacter(legionary);
+        village.addCharacter(other);
+
+        assertTrue(village.removeCharacter(merchant));
+        assertFalse(village.removeCharacter(merchant));
+
+        assertEquals(List.of(other, legionary), village.getCharactersView());
+        assertFalse(village.containsCharacter(merchant));
+        assertTrue(village.containsCharacter(other));
+        assertSame(other, village.getCharacterById(other.getId()));
+        assertNull(village.getCharacterById(merchant.getId()));
+        assertEquals(0, village.indexOfCharacter(other.getId()));
+        assertEquals(1, village.indexOfCharacter(legionary.getId()));
+        assertEquals(-1, village.indexOfCharacter(merchant.getId()));
+    }
+
+    @Test
+    void removeCharactersIf_keepsOrderAndIndex() {
+        Merchant other = new Merchant("Other", 'f', 1.6, 40, 0.4);
+        village.addCharacter(merchant);
+        village.addCharacter(legionary);
+        village.addCharacter(other);
+
+        assertEquals(1, village.removeCharactersIf(c -> c == legionary));
+
+        assertEquals(List.of(merchant, other), village.getCharactersView());
+        assertSame(other, village.getCharacterById(other.getId()));
+        assertEquals(1, village.indexOfCharacter(other.getId()));
+        assertTrue(village.removeCharacter(other));
+        assertEquals(List.of(merchant), village.getCharactersView());
+    }
+
+    @Test
+    void dirtyFlag_setByContentChanges() {
+        assertTrue(village.isDirty()); // Jamais sauvegardé
+        assertTrue(village.clearDirty());
+        assertFalse(village.isDirty());
+
+        village.addCharacter(merchant);
+        assertTrue(village.clearDirty());
+        village.addFood(Food.WINE);
+        assertTrue(village.clearDirty());
+        village.removeFood(Food.WINE);
+        assertTrue(village.clearDirty());
+        village.addHealingHerbs(1);
+        assertTrue(village.clearDirty());
+        village.getMagicPotion().addToCurrentRecipes(Food.CARROT);
+        assertTrue(village.clearDirty());
+        village.removeCharacter(merchant);
+        assertTrue(village.clearDirty());
+
+        // Le compte à rebours des herbes seul ne compte pas
+        village.spawnHerbsIfNeeded();
+        assertFalse(village.removeFood(Food.WINE));
+        assertFalse(village.isDirty());
+    }
+
+    @Test
+    void revision_changesWithContentButNotWithSaves() {
+        long revision = village.getRevision();
+        village.clearDirty();
+        assertEquals(revision, village.getRevision());
+
+        village.addCharacter(merchant);
+        assertNotEquals(revision, village.getRevision());
+        revision = village.getRevision();
+        village.getMagicPotion().addToCurrentRecipes(Food.CARROT);
+        assertNotEquals(revision, village.getRevision());
+        revision = village.getRevision();
+
+        assertFalse(village.removeFood(Food.WINE));
+        assertEquals(revision, village.getRevision());
+    }
+
+    @Test
+    void characterIds_areUnique() {
+        assertNotEquals(merchant.getId(), legionary.getId());
+        assertTrue(merchant.getId() > 0);
+    }
+}
@@ -0,0 +1,247 @@
+package models.people;
+
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.theater.Theater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the columnar character store
+ */
+class CharacterStoreTest {
+
+    private CharacterStore store;
+    private Legionary legionary;
+    private Merchant merchant;
+
+    @BeforeEach
+    void setUp() {
+        store = new CharacterStore();
+        legionary = new Legionary("Legionary", 'm', 1.8, 25, 0.7);
+        merchant = new Merchant("Merchant", 'm', 1.7, 30, 0.5);
+    }
+
+    @Test
+    void register_copiesStateAndHandleReadsColumns() {
+        merchant.takeDamage(10);
+        int id = store.register(merchant);
+
+        assertEquals(id, store.register(merchant));
+        assertSame(merchant, store.get(id));
+        assertEquals(90, store.getHealth(id));
+
+        merchant.takeDamage(30);
+        assertEquals(60, store.getHealth(id));
+        assertEquals(60, merchant.getHealth());
+
+        store.takeDamage(id, 100);
+        assertTrue(merchant.isDead());
+        assertEquals(0, merchant.getHealth());
+    }
+
+    @Test
+    void register_otherStore_throwsException() {
+        store.register(merchant);
+        assertThrows(IllegalStateException.class, () -> new CharacterStore().register(merchant));
+    }
+
+    @Test
+    void fight_sameDamageAsObjects() {
+        Legionary other = new Legionary("Other", 'm', 1.8, 25, 0.7);
+        Merchant otherMerchant = new Merchant("Other", 'm', 1.7, 30, 0.5);
+        other.fight(otherMerchant);
+
+        store.register(legionary);
+        store.register(merchant);
+        legionary.fight(merchant);
+
+        assertEquals(otherMerchant.getHealth(), merchant.getHealth());
+    }
+
+    @Test
+    void applyHungerDamage_onlyPlacedHungryAlive() {
+        Theater theater = new Theater();
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        theater.addLocation(village);
+        Merchant outside = new Merchant("Outside", 'm', 1.7, 30, 0.5);
+        for (Character c : List.of(legionary, merchant, outside)) {
+            c.makeHungry();
+            c.makeHungry();
+            store.register(c);
+        }
+        theater.setCharacterStore(store);
+        village.addCharacter(legionary);
+        village.addCharacter(merchant);
+        merchant.eat(models.food.Food.WINE);
+
+        assertEquals(1, store.applyHungerDamage(2.0));
+        assertEquals(98, legionary.getHealth());
+        assertEquals(100, merchant.getHealth());
+        assertEquals(100, outside.getHealth());
+    }
+
+    @Test
+    void simulationStep_withStore_matchesObjectStep() {
+        Theater plain = theater();
+        Theater columnar = theater();
+        columnar.setCharacterStore(store);
+
+        for (int turn = 0; turn < 5; turn++) {
+            plain.simulationStep();
+            columnar.simulationStep();
+        }
+
+        assertEquals(healths(plain), healths(columnar));
+        assertEquals(plain.getLocations().get(0).getHealingHerbs(),
+                columnar.getLocations().get(0).getHealingHerbs());
+    }
+
+    @Test
+    void simulationStep_withStore_registersCharactersAddedLater() {
+        Theater theater = theater();
+        theater.setCharacterStore(store);
+        merchant.makeHungry();
+        merchant.makeHungry();
+        theater.getLocations().get(0).addCharacter(merchant);
+
+        theater.simulationStep();
+
+        assertSame(store, merchant.getStore());
+        assertTrue(store.isPlaced(merchant.getStoreId()));
+        assertEquals(98, merchant.getHealth());
+    }
+
+    @Test
+    void setCharacterStore_countsPlacementsOfCharactersRegisteredAfterAdding() {
+        Theater theater = theater();
+        Location village = theater.getLocations().get(0);
+        Location camp = new Location("Camp", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        theater.addLocation(camp);
+        merchant.makeHungry();
+        merchant.makeHungry();
+        village.addCharacter(merchant);
+        camp.addCharacter(merchant);
+        store.register(merchant); // Enregistré après avoir été placé
+
+        theater.setCharacterStore(store);
+        theater.simulationStep();
+
+        assertEquals(98, merchant.getHealth());
+        village.removeCharacter(merchant);
+        assertTrue(store.isPlaced(merchant.getStoreId()));
+        assertEquals(theater.getLocations().stream().mapToInt(Location::getCharactersNbr).sum(),
+                store.getTotalPlacements());
+    }
+
+    @Test
+    void removeLocation_unplacesItsCharacters() {
+        Theater theater = theater();
+        theater.setCharacterStore(store);
+        Location camp = new Location("Camp", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        theater.addLocation(camp);
+        merchant.makeHungry();
+        merchant.makeHungry();
+        camp.addCharacter(merchant);
+
+        theater.removeLocation(camp);
+        theater.simulationStep();
+
+        assertFalse(store.isPlaced(merchant.getStoreId()));
+        assertEquals(100, merchant.getHealth());
+        assertEquals(theater.getLocations().get(0).getCharactersNbr(), store.getTotalPlacements());
+
+        // Les mouvements dans le lieu retiré ne comptent plus ; le rajouter replace ses personnages
+        camp.removeCharacter(merchant);
+        camp.addCharacter(merchant);
+        assertFalse(store.isPlaced(merchant.getStoreId()));
+        theater.addLocation(camp);
+        assertTrue(store.isPlaced(merchant.getStoreId()));
+        assertEquals(theater.getLocations().stream().mapToInt(Location::getCharactersNbr).sum(),
+                store.getTotalPlacements());
+    }
+
+    @Test
+    void startBattle_withStore_sameOutcomeForSameSeed() {
+        Battlefield plain = battlefield();
+        Battlefield columnar = battlefield();
+        columnar.forEachCharacter(store::register);
+
+        plain.startBattle();
+        columnar.startBattle();
+
+        assertEquals(names(plain), names(columnar));
+        assertEquals(healths(plain), healths(columnar));
+    }
+
+    @Test
+    void simulationStep_withStore_waitsForRunningRound() throws InterruptedException {
+        Theater theater = theater();
+        Battlefield battlefield = battlefield();
+        theater.addLocation(battlefield);
+        theater.setCharacterStore(store);
+
+        Thread stepping = new Thread(theater::simulationStep);
+        synchronized (battlefield) { // Comme un round en cours sur un thread de l'ordonnanceur
+            stepping.start();
+            while (stepping.getState() != Thread.State.BLOCKED) {
+                assertTrue(stepping.isAlive(), "the step did not wait for the battlefield");
+                Thread.onSpinWait();
+            }
+        }
+        stepping.join(10_000);
+        assertFalse(stepping.isAlive());
+    }
+
+    private static Theater theater() {
+        Theater theater = new Theater();
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        theater.addLocation(village);
+        for (int i = 0; i < 6; i++) {
+            Character c = new Legionary("L" + i, 'm', 1.8, 25, 0.7);
+            if (i % 2 == 0) {
+                c.makeHungry();
+                c.makeHungry();
+            }
+            village.addCharacter(c);
+        }
+        return theater;
+    }
+
+    private static Battlefield battlefield() {
+        Battlefield battlefield = new Battlefield("Battlefield", 100.0);
+        battlefield.setRandom(new SplittableRandom(7));
+        for (int i = 0; i < 10; i++) {
+            battlefield.addCharacter(new Legionary("L" + i, 'm', 1.8, 25, 0.3 + i * 0.05));
+            battlefield.addCharacter(new Blacksmith("B" + i, 'm', 1.8, 25, 0.3 + i * 0.05));
+        }
+        return battlefield;
+    }
+
+    private static List<Double> healths(Theater theater) {
+        List<Double> healths = new ArrayList<>();
+        for (Location location : theater.getLocations()) {
+            location.forEachCharacter(c -> healths.add(c.getHealth()));
+        }
+        return healths;
+    }
+
+    private static List<Double> healths(Location location) {
+        List<Double> healths = new ArrayList<>();
+        location.forEachCharacter(c -> healths.add(c.getHealth()));
+        return healths;
+    }
+
+    private static List<String> names(Location location) {
+        List<String> names = new ArrayList<>();
+        location.forEachCharacter(c -> names.add(c.getName()));
+        return names;
+    }
+}
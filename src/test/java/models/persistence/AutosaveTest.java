@@ -0,0 +1,150 @@
+package models.persistence;
+
+import models.food.Food;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Blacksmith;
+import models.people.Legionary;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import models.utils.RandomSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the incremental background autosave
+ */
+class AutosaveTest {
+
+    @TempDir
+    Path dir;
+
+    private Theater theater;
+    private Location village;
+    private Location camp;
+    private Path path;
+    private Autosave autosave;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater(new RandomSource(5L));
+        village = new Location("Village", 150.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        camp = new Location("Camp", 80.0, LocationType.ROMAIN_CAMP);
+        theater.addLocation(village);
+        theater.addLocation(camp);
+        for (int i = 0; i < 100; i++) {
+            village.addCharacter(new Blacksmith("Blacksmith", 'f', 1.6, 20 + i % 30, 0.5));
+            camp.addCharacter(new Legionary("Légionnaire", 'm', 1.8, 30, 0.5));
+        }
+        path = dir.resolve("autosave.save");
+        autosave = new Autosave(path, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        autosave.close();
+    }
+
+    private Autosave.Result saveAndWait(long turn) {
+        assertTrue(autosave.save(theater, turn));
+        Autosave.Result result = autosave.awaitPending();
+        assertNull(result.error());
+        return result;
+    }
+
+    private void assertFileMatchesTheater(long turn) throws IOException {
+        TheaterCodec.SavedTheater saved = MappedTheaterFile.open(path);
+        assertEquals(turn, saved.turn());
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(saved.theater()));
+    }
+
+    @Test
+    void save_firstTimeWritesEveryLocation() throws IOException {
+        Autosave.Result result = saveAndWait(1);
+
+        assertTrue(result.full());
+        assertEquals(2, result.written());
+        assertFileMatchesTheater(1);
+    }
+
+    @Test
+    void save_writesOnlyChangedLocations() throws IOException {
+        saveAndWait(1);
+        camp.addFood(Food.WINE);
+        camp.getCharacter(0).takeDamage(10);
+
+        Autosave.Result result = saveAndWait(2);
+
+        assertFalse(result.full());
+        assertEquals(1, result.written());
+        assertFileMatchesTheater(2);
+    }
+
+    @Test
+    void save_keepsHerbCountdownOfUnchangedLocations() throws IOException {
+        saveAndWait(0);
+        theater.simulationStep(); // Personne n'a faim : seul le compte à rebours change
+
+        Autosave.Result result = saveAndWait(1);
+
+        assertEquals(0, result.written());
+        assertFileMatchesTheater(1);
+    }
+
+    @Test
+    void save_afterLocationAdded_rewritesEverything() throws IOException {
+        saveAndWait(0);
+        theater.addLocation(new Location("Forêt", 40.0, LocationType.ENCLOSURE));
+
+        Autosave.Result result = saveAndWait(1);
+
+        assertTrue(result.full());
+        assertEquals(3, result.written());
+        assertFileMatchesTheater(1);
+    }
+
+    @Test
+    void onTurn_savesEveryIntervalTurns() {
+        assertFalse(autosave.onTurn(theater, 1));
+        assertTrue(autosave.onTurn(theater, 2));
+        autosave.awaitPending();
+        assertFalse(autosave.onTurn(theater, 3));
+        assertEquals(2, autosave.getLastResult().turn());
+    }
+
+    @Test
+    void save_compactsSupersededBlocks() throws IOException {
+        saveAndWait(0);
+        long initialSize = Files.size(path);
+        for (int turn = 1; turn <= 10; turn++) {
+            village.addFood(Food.WINE);
+            camp.addFood(Food.WINE);
+            saveAndWait(turn);
+        }
+
+        assertTrue(Files.size(path) < 2 * initialSize + 1000, "file size " + Files.size(path));
+        assertFileMatchesTheater(10);
+    }
+
+    @Test
+    void save_unwritableFile_reportsErrorAndRetriesInFull() throws IOException {
+        // Le fichier ne peut pas remplacer un dossier non vide
+        Files.createFile(Files.createDirectory(path).resolve("occupied"));
+        assertTrue(autosave.save(theater, 1));
+        assertNotNull(autosave.awaitPending().error());
+
+        Files.delete(path.resolve("occupied"));
+        Files.delete(path);
+        Autosave.Result result = saveAndWait(2);
+        assertTrue(result.full());
+        assertFileMatchesTheater(2);
+    }
+}
@@ -0,0 +1,164 @@
+package models.persistence;
+
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Blacksmith;
+import models.people.Druid;
+import models.people.Gaul;
+import models.people.Legionary;
+import models.people.Roman;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import models.utils.RandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped save file with lazily loaded locations
+ */
+class MappedTheaterFileTest {
+
+    @TempDir
+    Path dir;
+
+    private Theater theater;
+    private Location village;
+    private Battlefield battlefield;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        theater = new Theater(new RandomSource(11L));
+        village = new Location("Village", 150.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        battlefield = new Battlefield("Plaine", 90.0);
+        theater.addLocation(battlefield);
+        theater.addLocation(village);
+        theater.addLocation(new Location("Camp", 60.0, LocationType.ROMAIN_CAMP));
+        for (int i = 0; i < 200; i++) {
+            village.addCharacter(new Blacksmith("Blacksmith", 'f', 1.6, 20 + i % 50, i / 200.0));
+            village.addCharacter(new Legionary("Légionnaire", 'm', 1.8, 30, 0.5));
+        }
+        Druid druid = new Druid("Panoramix", 'm', 1.7, 80, 0.3);
+        village.addCharacter(druid);
+        village.setChefDeClan(druid);
+        village.addFood(Food.WINE);
+        village.getMagicPotion().addToCurrentRecipes(Food.IDEFIXHAIR);
+        for (int i = 0; i < 3; i++) {
+            theater.simulationStep();
+        }
+        theater.transferCharacterToBattlefield(village.getCharacter(0), village, battlefield);
+        theater.transferCharacterToBattlefield(village.getCharacter(1), village, battlefield);
+        battlefield.getCharacter(0).takeDamage(150);
+        battlefield.setBattleStatus("Battle in progress");
+
+        path = dir.resolve("armorique.save");
+        MappedTheaterFile.save(theater, 12, path);
+    }
+
+    @Test
+    void open_restoresSavedTheater() throws IOException {
+        TheaterCodec.SavedTheater saved = MappedTheaterFile.open(path);
+
+        assertEquals(12, saved.turn());
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(saved.theater()));
+        assertEquals("Panoramix", saved.theater().getLocationByName("Village").getChefDeClan().getName());
+    }
+
+    @Test
+    void open_locationsLoadOnFirstAccess() throws IOException {
+        Theater opened = MappedTheaterFile.open(path).theater();
+        Location loadedVillage = opened.getLocationByName("Village");
+
+        for (Location location : opened.getLocations()) {
+            assertFalse(location.isLoaded(), location.getName());
+        }
+        // Les compteurs du répertoire ne chargent pas le lieu
+        assertEquals(village.getCharactersNbr(), loadedVillage.getCharactersNbr());
+        assertEquals(village.countCharacters(Gaul.class), loadedVillage.countCharacters(Gaul.class));
+        assertEquals(village.countCharacters(Roman.class), loadedVillage.countCharacters(Roman.class));
+        assertFalse(loadedVillage.isLoaded());
+
+        assertEquals(village.getHealingHerbs(), loadedVillage.getHealingHerbs());
+        assertTrue(loadedVillage.isLoaded());
+        assertFalse(opened.getLocationByName("Camp").isLoaded());
+    }
+
+    @Test
+    void open_battlefieldOriginsPointToOpenedLocations() throws IOException {
+        Theater opened = MappedTheaterFile.open(path).theater();
+        Battlefield loaded = opened.getBattlefields().get(0);
+
+        assertTrue(loaded.getCharacter(0).isDead());
+        assertSame(opened.getLocationByName("Village"), loaded.getCharacterOrigin(loaded.getCharacter(1)));
+    }
+
+    @Test
+    void save_overOpenedFile_keepsOpenedTheaterReadable() throws IOException {
+        Theater opened = MappedTheaterFile.open(path).theater();
+        village.addFood(Food.WILDBOAR);
+        MappedTheaterFile.save(theater, 13, path);
+
+        assertEquals(1, opened.getLocationByName("Village").getFoodsView().size());
+        assertEquals(13, MappedTheaterFile.open(path).turn());
+    }
+
+    @Test
+    void open_corruptedBlock_leavesLocationUnloadedAndEmpty() throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        ByteBuffer directory = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN)
+                .position(MappedTheaterFile.HEADER_SIZE);
+        MappedTheaterFile.Entry entry;
+        do {
+            entry = MappedTheaterFile.Entry.read(directory, MappedTheaterFile.VERSION);
+        } while (!new String(entry.name, StandardCharsets.UTF_8).equals("Village"));
+        // La seconde moitié du bloc est illisible : une partie des personnages est déjà ajoutée à l'échec
+        Arrays.fill(data, (int) entry.offset + entry.length / 2, (int) entry.offset + entry.length, (byte) 0x7F);
+        Path corrupted = dir.resolve("corrupted.save");
+        Files.write(corrupted, data);
+
+        Location loadedVillage = MappedTheaterFile.open(corrupted).theater().getLocationByName("Village");
+
+        assertThrows(UncheckedIOException.class, loadedVillage::getCharacters);
+        assertFalse(loadedVillage.isLoaded());
+        assertFalse(loadedVillage.isDirty());
+        assertThrows(UncheckedIOException.class, loadedVillage::getHealingHerbs);
+
+        loadedVillage.setLoader(null);
+        assertEquals(0, loadedVillage.getCharactersNbr());
+        assertNull(loadedVillage.getChefDeClan());
+        assertTrue(loadedVillage.getFoodsView().isEmpty());
+        assertEquals(0, loadedVillage.getHealingHerbs());
+    }
+
+    @Test
+    void open_invalidFile_throwsException() throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        Path truncated = dir.resolve("truncated.save");
+        Files.write(truncated, Arrays.copyOf(data, 200));
+        assertThrows(IOException.class, () -> MappedTheaterFile.open(truncated));
+
+        Path otherVersion = dir.resolve("version.save");
+        byte[] changed = data.clone();
+        changed[4] = 99;
+        Files.write(otherVersion, changed);
+        assertThrows(IOException.class, () -> MappedTheaterFile.open(otherVersion));
+
+        Path empty = dir.resolve("empty.save");
+        Files.write(empty, new byte[8]);
+        assertThrows(IOException.class, () -> MappedTheaterFile.open(empty));
+    }
+}
@@ -0,0 +1,192 @@
+package models.persistence;
+
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Blacksmith;
+import models.people.Druid;
+import models.people.Legionary;
+import models.people.Werewolf;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import models.utils.RandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary save format of a theater
+ */
+class TheaterCodecTest {
+
+    @TempDir
+    Path dir;
+
+    private Theater theater;
+    private Location village;
+    private Battlefield battlefield;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater(new RandomSource(11L));
+        village = new Location("Village", 150.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        battlefield = new Battlefield("Plaine", 90.0);
+        theater.addLocation(battlefield);
+        theater.addLocation(village);
+        for (int i = 0; i < 300; i++) {
+            village.addCharacter(new Blacksmith("Blacksmith", 'f', 1.6, 20 + i % 50, i / 300.0));
+            village.addCharacter(new Legionary("Légionnaire", 'm', 1.8, 30, 0.5));
+        }
+        Druid druid = new Druid("Panoramix", 'm', 1.7, 80, 0.3);
+        village.addCharacter(druid);
+        village.setChefDeClan(druid);
+        village.addFood(Food.WINE);
+        village.addFood(Food.IDEFIXHAIR);
+        village.getMagicPotion().addToCurrentRecipes(Food.IDEFIXHAIR);
+        for (int i = 0; i < 4; i++) {
+            theater.simulationStep();
+        }
+        theater.transferCharacterToBattlefield(village.getCharacter(0), village, battlefield);
+        theater.transferCharacterToBattlefield(village.getCharacter(1), village, battlefield);
+        battlefield.getCharacter(0).takeDamage(150);
+        battlefield.setBattleStatus("Battle in progress");
+    }
+
+    private byte[] write(long turn) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TheaterCodec.write(theater, turn, Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static TheaterCodec.SavedTheater read(byte[] data) throws IOException {
+        return TheaterCodec.read(Channels.newChannel(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    void read_restoresWrittenTheater() throws IOException {
+        TheaterCodec.SavedTheater saved = read(write(42));
+
+        assertEquals(42, saved.turn());
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(saved.theater()));
+        Battlefield loaded = saved.theater().getBattlefields().get(0);
+        assertTrue(loaded.getCharacter(0).isDead());
+        assertSame(saved.theater().getLocationByName("Village"), loaded.getCharacterOrigin(loaded.getCharacter(1)));
+        assertEquals("Panoramix", saved.theater().getLocationByName("Village").getChefDeClan().getName());
+    }
+
+    @Test
+    void write_repeatedNamesAreStoredOnce() throws IOException {
+        // 601 personnages : chaque nom répété ne coûte qu'un index
+        assertTrue(write(0).length < 601 * 70, "save size " + write(0).length);
+    }
+
+    @Test
+    void saveAndLoad_throughFile() throws IOException {
+        Path path = dir.resolve("armorique.save");
+        TheaterCodec.save(theater, 7, path);
+
+        TheaterCodec.SavedTheater saved = TheaterCodec.load(path);
+        assertEquals(7, saved.turn());
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(saved.theater()));
+    }
+
+    @Test
+    void read_invalidData_throwsException() throws IOException {
+        byte[] data = write(0);
+        assertThrows(IOException.class, () -> read(Arrays.copyOf(data, data.length / 2)));
+
+        byte[] otherVersion = data.clone();
+        otherVersion[4] = 99;
+        assertThrows(IOException.class, () -> read(otherVersion));
+        assertThrows(IOException.class, () -> read(new byte[16]));
+    }
+
+    @Test
+    void read_keepsWerewolfRanks() throws IOException {
+        Location enclosure = new Location("Enclos", 80.0, LocationType.ENCLOSURE);
+        theater.addLocation(enclosure);
+        enclosure.addCharacter(new Werewolf("Fenrir", 'm', 2.1, 35, 0.95, Werewolf.Rank.ALPHA));
+        enclosure.addCharacter(new Werewolf("Runt", 'm', 1.65, 20, 0.5, Werewolf.Rank.OMEGA));
+        Werewolf beta = new Werewolf("Grayback", 'm', 1.95, 30, 0.85, Werewolf.Rank.BETA);
+        enclosure.addCharacter(beta);
+        theater.transferCharacterToBattlefield(beta, enclosure, battlefield);
+
+        TheaterCodec.SavedTheater saved = read(write(5));
+
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(saved.theater()));
+        Location loaded = saved.theater().getLocationByName("Enclos");
+        assertEquals(Werewolf.Rank.ALPHA, ((Werewolf) loaded.getCharacter(0)).getRank());
+        assertEquals(Werewolf.Rank.OMEGA, ((Werewolf) loaded.getCharacter(1)).getRank());
+        Battlefield loadedBattlefield = saved.theater().getBattlefields().get(0);
+        Werewolf loadedBeta = (Werewolf) loadedBattlefield.getCharacter(loadedBattlefield.getCharactersNbr() - 1);
+        assertEquals(Werewolf.Rank.BETA, loadedBeta.getRank());
+        assertSame(loaded, loadedBattlefield.getCharacterOrigin(loadedBeta));
+    }
+
+    @Test
+    void read_version1WithoutWerewolves_isStillRead() throws IOException {
+        byte[] data = write(3);
+        data[4] = 1; // Sans loup-garou, seule la version distingue les deux formats
+
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(read(data).theater()));
+    }
+
+    @Test
+    void writeLocation_copiedStateGivesSameBytes() throws IOException {
+        Map<Location, Integer> indexes = new IdentityHashMap<>();
+        List<Location> locations = theater.getLocations();
+        for (int i = 0; i < locations.size(); i++) {
+            indexes.put(locations.get(i), i);
+        }
+        for (Location location : locations) {
+            ByteArrayOutputStream direct = new ByteArrayOutputStream();
+            BinaryWriter out = new BinaryWriter(Channels.newChannel(direct));
+            TheaterCodec.writeLocation(out, location, indexes);
+            out.flush();
+
+            ByteArrayOutputStream copied = new ByteArrayOutputStream();
+            out = new BinaryWriter(Channels.newChannel(copied));
+            TheaterCodec.writeLocation(out, TheaterSnapshot.LocationState.of(location, indexes));
+            out.flush();
+
+            assertArrayEquals(direct.toByteArray(), copied.toByteArray(), location.getName());
+        }
+    }
+
+    @Test
+    void read_characterRejectedByLocation_throwsException() throws IOException {
+        byte[] village = writeSingle(LocationType.GAUL_ROMAIN_VILLAGE);
+        byte[] town = writeSingle(LocationType.ROMAIN_TOWN);
+        int typeByte = 0;
+        while (village[typeByte] == town[typeByte]) {
+            typeByte++;
+        }
+        village[typeByte] = (byte) LocationType.GAUL_TOWN.ordinal(); // Un légionnaire dans une ville gauloise
+
+        IOException e = assertThrows(IOException.class, () -> read(village));
+        assertTrue(e.getMessage().startsWith("Corrupted save"), e.getMessage());
+    }
+
+    private static byte[] writeSingle(LocationType type) throws IOException {
+        Theater single = new Theater(new RandomSource(3L));
+        Location location = new Location("Lieu", 50.0, type);
+        location.addCharacter(new Legionary("Légionnaire", 'm', 1.8, 30, 0.5));
+        single.addLocation(location);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TheaterCodec.write(single, 0, Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+}
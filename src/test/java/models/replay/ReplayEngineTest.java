@@ -0,0 +1,222 @@
+package models.replay;
+
+import models.clanLeader.ClanLeader;
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Druid;
+import models.people.Legionary;
+import models.people.Merchant;
+import models.people.Werewolf;
+import models.simulation.BattleScheduler;
+import models.theater.Theater;
+import models.theater.TheaterSnapshot;
+import models.utils.RandomSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the deterministic replay of recorded games
+ */
+class ReplayEngineTest {
+
+    private static final long SEED = 2024L;
+    private static final String[] INPUTS = {"create", "heal", "feed", "magic", "battlefield", "fight", "move"};
+
+    @TempDir
+    Path dir;
+
+    private static Theater scenario(RandomSource randomSource) {
+        SplittableRandom random = randomSource.split();
+        Theater theater = new Theater(randomSource);
+        Location village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        Location camp = new Location("Camp", 100.0, LocationType.ROMAIN_CAMP);
+        theater.addLocation(village);
+        theater.addLocation(camp);
+        theater.addLocation(new Battlefield("Plaine", 100.0));
+        village.addCharacter(new Druid("Druid", 'm', 1.7, 60, random.nextDouble()));
+        for (int i = 0; i < 10; i++) {
+            village.addCharacter(new Merchant("Merchant" + i, 'm', 1.7, 30, random.nextDouble()));
+            camp.addCharacter(new Legionary("Legionary" + i, 'm', 1.8, 25, random.nextDouble()));
+        }
+        for (Food food : Food.values()) {
+            village.addFood(food);
+        }
+        return theater;
+    }
+
+    /**
+     * Play random commands and turns, keeping the snapshot of every turn.
+     */
+    private static Map<Long, TheaterSnapshot> play(ReplayEngine engine, int turns) {
+        SplittableRandom commands = new SplittableRandom(7);
+        Map<Long, TheaterSnapshot> snapshots = new HashMap<>();
+        snapshots.put(0L, TheaterSnapshot.capture(engine.getTheater()));
+        for (int turn = 1; turn <= turns; turn++) {
+            for (int i = commands.nextInt(3); i > 0; i--) {
+                List<Location> locations = engine.getTheater().getLocations();
+                Location location = locations.get(commands.nextInt(2));
+                String input = INPUTS[commands.nextInt(INPUTS.length)];
+                String charId = String.valueOf(commands.nextInt(Math.max(1, location.getCharactersNbr())));
+                String locId = input.equals("move") ? String.valueOf(commands.nextInt(2)) : "0";
+                if (input.equals("move") && location.getCharactersNbr() == 0) {
+                    continue;
+                }
+                engine.execute(location, input, charId, locId);
+            }
+            engine.step();
+            snapshots.put((long) turn, TheaterSnapshot.capture(engine.getTheater()));
+        }
+        return snapshots;
+    }
+
+    @Test
+    void seek_rebuildsEveryRecordedTurn() {
+        ReplayEngine recorder = ReplayEngine.record(ReplayEngineTest::scenario, SEED, 10);
+        Map<Long, TheaterSnapshot> live = play(recorder, 45);
+        assertEquals(45, recorder.getTurn());
+        assertEquals(5, recorder.getCheckpointCount()); // 0, 10, 20, 30, 40
+        assertFalse(recorder.getLog().getCommands().isEmpty());
+
+        // Depuis les checkpoints de l'enregistrement, dans le désordre
+        for (long turn : new long[]{45, 3, 20, 37, 0}) {
+            assertEquals(live.get(turn), TheaterSnapshot.capture(recorder.seek(turn)), "turn " + turn);
+        }
+
+        // Relecture seule : les checkpoints sont reconstruits en chemin
+        ReplayEngine replayer = ReplayEngine.replay(ReplayEngineTest::scenario, recorder.getLog());
+        assertEquals(live.get(45L), TheaterSnapshot.capture(replayer.seek(45)));
+        assertEquals(5, replayer.getCheckpointCount());
+        assertEquals(live.get(12L), TheaterSnapshot.capture(replayer.seek(12)));
+    }
+
+    @Test
+    void longGame_keepsCheckpointsBounded() {
+        ReplayEngine recorder = ReplayEngine.record(ReplayEngineTest::scenario, SEED, 2);
+        Map<Long, TheaterSnapshot> live = play(recorder, 300);
+        int bound = ReplayEngine.RECENT_CHECKPOINTS + ReplayEngine.SPARSE_CHECKPOINTS;
+        assertTrue(recorder.getCheckpointCount() <= bound, "checkpoints: " + recorder.getCheckpointCount());
+
+        for (long turn : new long[]{300, 287, 151, 9, 0}) {
+            assertEquals(live.get(turn), TheaterSnapshot.capture(recorder.seek(turn)), "turn " + turn);
+            assertTrue(recorder.getCheckpointCount() <= bound);
+        }
+
+        ReplayEngine replayer = ReplayEngine.replay(ReplayEngineTest::scenario, recorder.getLog());
+        assertEquals(live.get(300L), TheaterSnapshot.capture(replayer.seek(300)));
+        assertTrue(replayer.getCheckpointCount() <= bound);
+    }
+
+    @Test
+    void recordLiveGame_withBattlesBetweenTurns_replaysSameTheater() throws Exception {
+        Theater theater = scenario(new RandomSource(SEED));
+        Location village = theater.getLocations().get(0);
+        Location camp = theater.getLocations().get(1);
+        Battlefield plaine = theater.getBattlefields().get(0);
+        ClanLeader chief = new ClanLeader("Chief", 'm', 50, village);
+        chief.setTheater(theater);
+        ReplayEngine recorder = ReplayEngine.record(theater, chief, 4);
+        assertSame(chief, recorder.getLeader());
+
+        try (BattleScheduler scheduler = new BattleScheduler(2)) {
+            scheduler.setRoundLock(recorder.getRoundLock());
+            scheduler.addBattleListener(new BattleScheduler.BattleListener() {
+                @Override
+                public void onRound(BattleScheduler.Battle battle) {
+                    recorder.recordRound(battle.getBattlefield());
+                }
+            });
+            for (int i = 0; i < 4; i++) {
+                recorder.execute(village, "battlefield", "1", "0");
+                recorder.execute(camp, "battlefield", "0", "0");
+            }
+            scheduler.setRoundsPerSecond(200);
+            BattleScheduler.Battle battle = scheduler.start(plaine);
+            // Les rounds se jouent pendant les tours et les commandes
+            for (int turn = 0; turn < 10; turn++) {
+                recorder.execute(village, "heal", "", "");
+                recorder.step();
+            }
+            battle.getCompletion().get(10, TimeUnit.SECONDS);
+        }
+        recorder.execute(plaine, "return", "", "0");
+        recorder.step();
+
+        assertTrue(recorder.getLog().getCommands().stream().anyMatch(c -> c.input().equals("fight")));
+        assertEquals(TheaterSnapshot.capture(theater), TheaterSnapshot.capture(recorder.seek(recorder.getTurn())));
+    }
+
+    @Test
+    void seek_fromCheckpoint_keepsWerewolfRank() {
+        ReplayEngine recorder = ReplayEngine.record(randomSource -> {
+            Theater theater = scenario(randomSource);
+            theater.getBattlefields().get(0).addCharacter(
+                    new Werewolf("Fenrir", 'm', 2.1, 35, 0.95, Werewolf.Rank.ALPHA));
+            return theater;
+        }, SEED, 2);
+        recorder.step();
+        recorder.step(); // Checkpoint du tour 2 : le loup-garou est restauré depuis son état
+
+        Location village = recorder.getTheater().getLocations().get(0);
+        Location camp = recorder.getTheater().getLocations().get(1);
+        for (int i = 0; i < 3; i++) {
+            recorder.execute(village, "battlefield", "1", "0");
+            recorder.execute(camp, "battlefield", "0", "0");
+        }
+        recorder.execute(village, "battle", "", "0");
+        recorder.step();
+        TheaterSnapshot live = TheaterSnapshot.capture(recorder.getTheater());
+
+        Theater replayed = recorder.seek(3);
+        assertEquals(live, TheaterSnapshot.capture(replayed));
+        Werewolf fenrir = (Werewolf) replayed.getBattlefields().get(0).getCharactersView().stream()
+                .filter(c -> c.getName().equals("Fenrir")).findFirst().orElseThrow();
+        assertEquals(Werewolf.Rank.ALPHA, fenrir.getRank());
+    }
+
+    @Test
+    void seek_doesNotTouchLiveTheater() {
+        ReplayEngine recorder = ReplayEngine.record(ReplayEngineTest::scenario, SEED, 5);
+        play(recorder, 12);
+        TheaterSnapshot before = TheaterSnapshot.capture(recorder.getTheater());
+
+        Theater replayed = recorder.seek(12);
+
+        assertNotSame(recorder.getTheater(), replayed);
+        assertEquals(before, TheaterSnapshot.capture(recorder.getTheater()));
+        assertThrows(IllegalArgumentException.class, () -> recorder.seek(13));
+    }
+
+    @Test
+    void commandLog_fileRoundTrip() throws IOException {
+        ReplayEngine recorder = ReplayEngine.record(ReplayEngineTest::scenario, SEED, 10);
+        Map<Long, TheaterSnapshot> live = play(recorder, 25);
+        Path path = dir.resolve("game.replay");
+        recorder.getLog().write(path);
+
+        CommandLog log = CommandLog.read(path);
+        assertEquals(SEED, log.getSeed());
+        assertEquals(10, log.getCheckpointInterval());
+        assertEquals(25, log.getTurns());
+        assertEquals(recorder.getLog().getCommands(), log.getCommands());
+        assertEquals(live.get(25L), TheaterSnapshot.capture(ReplayEngine.replay(ReplayEngineTest::scenario, log).seek(25)));
+    }
+
+    @Test
+    void replayOnly_cannotRecord() {
+        ReplayEngine replayer = ReplayEngine.replay(ReplayEngineTest::scenario, new CommandLog(SEED, 10));
+        assertNull(replayer.getTheater());
+        assertThrows(IllegalStateException.class, replayer::step);
+    }
+}
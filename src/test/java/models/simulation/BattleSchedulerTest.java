@@ -0,0 +1,175 @@
+package models.simulation;
+
+import models.location.Battlefield;
+import models.people.Blacksmith;
+import models.people.Legionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the concurrent battle scheduler
+ */
+class BattleSchedulerTest {
+
+    private BattleScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BattleScheduler(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    private static Battlefield battlefield(String name, int fighters) {
+        Battlefield battlefield = new Battlefield(name, 500.0);
+        for (int i = 0; i < fighters; i++) {
+            battlefield.addCharacter(new Blacksmith("Forgeron", 'm', 1.7, 30, 0.8));
+            battlefield.addCharacter(new Legionary("Légionnaire", 'm', 1.8, 30, 0.8));
+        }
+        return battlefield;
+    }
+
+    @Test
+    void start_runsEveryBattleToTheEnd() throws Exception {
+        scheduler.setRoundsPerSecond(Double.POSITIVE_INFINITY);
+        List<BattleScheduler.Battle> battles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            battles.add(scheduler.start(battlefield("Champ " + i, 10)));
+        }
+
+        for (BattleScheduler.Battle battle : battles) {
+            battle.getCompletion().get(10, TimeUnit.SECONDS);
+            assertFalse(battle.isCancelled());
+            assertTrue(battle.getRounds() > 0);
+            assertFalse(battle.getBattlefield().hasOpposingFactions());
+        }
+        assertEquals(0, scheduler.getActiveBattleCount());
+        assertEquals(battles.stream().mapToLong(BattleScheduler.Battle::getRounds).sum(), scheduler.getRoundCount());
+        assertTrue(scheduler.getThroughput() > 0);
+    }
+
+    @Test
+    void start_sameBattlefieldTwice_returnsRunningBattle() {
+        scheduler.setRoundsPerSecond(0.01);
+        Battlefield battlefield = battlefield("Champ", 5);
+
+        BattleScheduler.Battle battle = scheduler.start(battlefield);
+
+        assertSame(battle, scheduler.start(battlefield));
+        assertTrue(scheduler.isFighting(battlefield));
+        assertEquals(1, scheduler.getActiveBattleCount());
+    }
+
+    @Test
+    void cancel_stopsOnlyThatBattle() throws Exception {
+        scheduler.setRoundsPerSecond(0.01);
+        Battlefield first = battlefield("Premier", 5);
+        Battlefield second = battlefield("Second", 5);
+        BattleScheduler.Battle battle = scheduler.start(first);
+        scheduler.start(second);
+
+        assertTrue(scheduler.cancel(first));
+        battle.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertTrue(battle.isCancelled());
+        assertFalse(scheduler.isFighting(first));
+        assertTrue(scheduler.isFighting(second));
+        assertTrue(first.hasOpposingFactions());
+        assertFalse(scheduler.cancel(first));
+    }
+
+    @Test
+    void listener_toldOfRoundsAndEnd() throws Exception {
+        scheduler.setRoundsPerSecond(Double.POSITIVE_INFINITY);
+        AtomicInteger rounds = new AtomicInteger();
+        AtomicInteger ended = new AtomicInteger();
+        scheduler.addBattleListener(new BattleScheduler.BattleListener() {
+            @Override
+            public void onRound(BattleScheduler.Battle battle) {
+                rounds.incrementAndGet();
+            }
+
+            @Override
+            public void onBattleEnded(BattleScheduler.Battle battle) {
+                ended.incrementAndGet();
+            }
+        });
+
+        BattleScheduler.Battle battle = scheduler.start(battlefield("Champ", 5));
+        battle.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertEquals(battle.getRounds(), rounds.get());
+        assertEquals(1, ended.get());
+    }
+
+    @Test
+    void start_withoutOpponents_endsWithoutRounds() throws Exception {
+        Battlefield battlefield = new Battlefield("Champ", 500.0);
+        battlefield.addCharacter(new Blacksmith("Forgeron", 'm', 1.7, 30, 0.8));
+
+        BattleScheduler.Battle battle = scheduler.start(battlefield);
+        battle.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, battle.getRounds());
+        assertEquals(0, scheduler.getRoundCount());
+    }
+
+    @Test
+    void close_cancelsRunningBattles() throws Exception {
+        scheduler.setRoundsPerSecond(0.01);
+        BattleScheduler.Battle battle = scheduler.start(battlefield("Champ", 5));
+
+        scheduler.close();
+        battle.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertTrue(battle.isCancelled());
+        assertEquals(0, scheduler.getActiveBattleCount());
+    }
+
+    @Test
+    void failingListener_endsBattleExceptionally() throws Exception {
+        scheduler.setRoundsPerSecond(Double.POSITIVE_INFINITY);
+        AtomicInteger ended = new AtomicInteger();
+        scheduler.addBattleListener(new BattleScheduler.BattleListener() {
+            @Override
+            public void onRound(BattleScheduler.Battle battle) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void onBattleEnded(BattleScheduler.Battle battle) {
+                ended.incrementAndGet();
+            }
+        });
+        Battlefield battlefield = battlefield("Champ", 5);
+
+        BattleScheduler.Battle battle = scheduler.start(battlefield);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> battle.getCompletion().get(10, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1, ended.get());
+        assertFalse(scheduler.isFighting(battlefield));
+        assertEquals(1, battle.getRounds());
+    }
+
+    @Test
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new BattleScheduler(0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setRoundsPerSecond(0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setRoundsPerSecond(Double.NaN));
+        assertThrows(NullPointerException.class, () -> scheduler.start(null));
+    }
+}
@@ -0,0 +1,104 @@
+package models.simulation;
+
+import models.location.Location;
+import models.location.LocationType;
+import models.theater.Theater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the headless simulation engine
+ */
+class SimulationEngineTest {
+
+    private Theater theater;
+    private Location village;
+    private SimulationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater();
+        village = new Location("Village", 100.0, LocationType.GAUL_TOWN);
+        theater.addLocation(village);
+        engine = new SimulationEngine(theater);
+    }
+
+    @Test
+    void step_advancesTheaterAndTurn() {
+        engine.step();
+        engine.step();
+        assertEquals(2, engine.getTurn());
+        assertEquals(0, village.getHealingHerbs());
+
+        engine.step();
+        assertEquals(3, engine.getTurn());
+        assertEquals(2, village.getHealingHerbs()); // Herbs spawn every 3 turns
+    }
+
+    @Test
+    void runTurns_notifiesListenersAndMeasuresThroughput() {
+        List<Long> turns = new ArrayList<>();
+        engine.addTurnListener(turns::add);
+
+        assertEquals(1000, engine.runTurns(1000));
+        assertEquals(1000, turns.size());
+        assertEquals(1L, turns.get(0));
+        assertTrue(engine.getTurnsPerSecond() > 0);
+    }
+
+    @Test
+    void start_maxSpeed_runsUntilStopped() throws InterruptedException {
+        engine.setMode(SimulationEngine.Mode.MAX_SPEED);
+        engine.start();
+        assertTrue(engine.isRunning());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.getTurn() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        engine.stop();
+
+        assertFalse(engine.isRunning());
+        long stoppedAt = engine.getTurn();
+        assertTrue(stoppedAt >= 100);
+        Thread.sleep(20);
+        assertEquals(stoppedAt, engine.getTurn());
+    }
+
+    @Test
+    void start_withStepExecutor_runsTurnsOnExecutor() throws InterruptedException {
+        List<String> threads = new ArrayList<>();
+        engine.setMode(SimulationEngine.Mode.REAL_TIME);
+        engine.setTickMillis(10);
+        engine.setSpeed(2.0);
+        engine.setStepExecutor(task -> new Thread(task, "step-thread").start());
+        engine.addTurnListener(turn -> {
+            synchronized (threads) {
+                threads.add(Thread.currentThread().getName());
+            }
+        });
+
+        engine.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.getTurn() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        engine.stop();
+
+        synchronized (threads) {
+            assertFalse(threads.isEmpty());
+            assertTrue(threads.stream().allMatch("step-thread"::equals));
+        }
+    }
+
+    @Test
+    void setSpeed_nonPositive_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> engine.setSpeed(0));
+        assertThrows(IllegalArgumentException.class, () -> engine.setTickMillis(-1));
+    }
+}
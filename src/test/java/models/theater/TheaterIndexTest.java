@@ -0,0 +1,77 @@
+package models.theater;
+
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the location indexes of Theater
+ */
+class TheaterIndexTest {
+
+    private Theater theater;
+    private Location village;
+    private Battlefield battlefield;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater();
+        village = new Location("Village", 100.0, LocationType.GAUL_TOWN);
+        battlefield = new Battlefield("Plaine", 500.0);
+        theater.addLocation(village);
+        theater.addLocation(battlefield);
+    }
+
+    @Test
+    void getLocationByName_findsAddedLocations() {
+        assertSame(village, theater.getLocationByName("Village"));
+        assertSame(battlefield, theater.getLocationByName("Plaine"));
+        assertNull(theater.getLocationByName("Rome"));
+    }
+
+    @Test
+    void getLocationByName_duplicateName_keepsFirstUntilRemoved() {
+        Location other = new Location("Village", 50.0, LocationType.ROMAIN_CAMP);
+        theater.addLocation(other);
+        assertSame(village, theater.getLocationByName("Village"));
+
+        theater.removeLocation(village);
+        assertSame(other, theater.getLocationByName("Village"));
+
+        theater.removeLocation(other);
+        assertNull(theater.getLocationByName("Village"));
+    }
+
+    @Test
+    void getBattlefields_isLiveAndReadOnly() {
+        List<Battlefield> battlefields = theater.getBattlefields();
+        assertEquals(List.of(battlefield), battlefields);
+
+        Battlefield second = new Battlefield("Colline", 200.0);
+        theater.addLocation(second);
+        assertEquals(List.of(battlefield, second), battlefields);
+
+        theater.removeLocation(battlefield);
+        assertEquals(List.of(second), battlefields);
+        assertThrows(UnsupportedOperationException.class, () -> battlefields.add(battlefield));
+    }
+
+    @Test
+    void getLocationsByType_followsAdditionsAndRemovals() {
+        Location town = new Location("Bourg", 80.0, LocationType.GAUL_TOWN);
+        theater.addLocation(town);
+
+        assertEquals(List.of(village, town), theater.getLocationsByType(LocationType.GAUL_TOWN));
+        assertTrue(theater.getLocationsByType(LocationType.ENCLOSURE).isEmpty());
+
+        theater.removeLocation(village);
+        theater.removeLocation(town);
+        assertTrue(theater.getLocationsByType(LocationType.GAUL_TOWN).isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package models.theater;
+
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.people.CharacterStore;
+import models.people.Legionary;
+import models.people.Merchant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the population events published by Theater
+ */
+class TheaterListenerTest {
+
+    private Theater theater;
+    private Location village;
+    private List<String> events;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater();
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        events = new ArrayList<>();
+        theater.addListener(new TheaterListener() {
+            @Override
+            public void onCharacterAdded(Location location, Character character) {
+                events.add("add " + character.getName() + "@" + location.getName());
+            }
+
+            @Override
+            public void onCharacterRemoved(Location location, Character character) {
+                events.add("remove " + character.getName() + "@" + location.getName());
+            }
+
+            @Override
+            public void onCharacterDied(Location location, Character character) {
+                events.add("death " + character.getName() + "@" + location.getName());
+            }
+
+            @Override
+            public void onLocationAdded(Location location) {
+                events.add("location " + location.getName());
+            }
+
+            @Override
+            public void onLocationRemoved(Location location) {
+                events.add("-location " + location.getName());
+            }
+        });
+    }
+
+    @Test
+    void rosterChangesAndDeaths_arePublished() {
+        theater.addLocation(village);
+        Merchant merchant = new Merchant("Merchant", 'm', 1.7, 30, 0.5);
+        village.addCharacter(merchant);
+        merchant.takeDamage(200);
+        merchant.takeDamage(10);
+        village.removeCharacter(merchant);
+
+        assertEquals(List.of("location Village", "add Merchant@Village",
+                "death Merchant@Village", "remove Merchant@Village"), events);
+    }
+
+    @Test
+    void transfer_deathIsReportedByTheNewLocation() {
+        Battlefield battlefield = new Battlefield("Battlefield", 100.0);
+        theater.addLocation(village);
+        theater.addLocation(battlefield);
+        Legionary legionary = new Legionary("Legionary", 'm', 1.8, 25, 0.7);
+        village.addCharacter(legionary);
+        theater.transferCharacterToBattlefield(legionary, village, battlefield);
+        events.clear();
+
+        legionary.die();
+
+        assertEquals(List.of("death Legionary@Battlefield"), events);
+    }
+
+    @Test
+    void storeDeaths_arePublished() {
+        theater.addLocation(village);
+        Merchant merchant = new Merchant("Merchant", 'm', 1.7, 30, 0.5);
+        village.addCharacter(merchant);
+        theater.setCharacterStore(new CharacterStore());
+        events.clear();
+
+        merchant.takeDamage(100);
+
+        assertEquals(List.of("death Merchant@Village"), events);
+    }
+
+    @Test
+    void removedLocation_isNoLongerFollowed() {
+        theater.addLocation(village);
+        theater.removeLocation(village);
+        village.addCharacter(new Merchant("Merchant", 'm', 1.7, 30, 0.5));
+
+        assertEquals(List.of("location Village", "-location Village"), events);
+    }
+}
@@ -0,0 +1,134 @@
+package models.theater;
+
+import models.enums.EventType;
+import models.journal.EventJournal;
+import models.journal.JournalRecord;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.people.Legionary;
+import models.people.Merchant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the parallel simulation step of Theater
+ */
+class TheaterParallelStepTest {
+
+    @TempDir
+    Path dir;
+
+    private static Theater createTheater() {
+        Theater theater = new Theater();
+        for (int l = 0; l < 100; l++) {
+            Location village = new Location("Village " + l, 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+            for (int i = 0; i < 20; i++) {
+                Character character = i % 2 == 0
+                        ? new Merchant("Merchant" + i, 'm', 1.7, 30, 0.5)
+                        : new Legionary("Legionary" + i, 'm', 1.8, 25, 0.7);
+                for (int h = 0; h < (i + l) % 4; h++) {
+                    character.makeHungry();
+                }
+                village.addCharacter(character);
+            }
+            theater.addLocation(village);
+        }
+        return theater;
+    }
+
+    private static List<Double> snapshot(Theater theater) {
+        List<Double> values = new ArrayList<>();
+        for (Location location : theater.getLocations()) {
+            values.add((double) location.getHealingHerbs());
+            location.forEachCharacter(c -> values.add(c.getHealth()));
+        }
+        return values;
+    }
+
+    @Test
+    void parallelStep_matchesSequentialStep() {
+        Theater sequential = createTheater();
+        Theater parallel = createTheater();
+        parallel.setParallelism(4);
+
+        for (int turn = 0; turn < 10; turn++) {
+            sequential.simulationStep();
+            parallel.simulationStep();
+        }
+
+        assertEquals(snapshot(sequential), snapshot(parallel));
+        parallel.setParallelism(1);
+    }
+
+    @Test
+    void parallelStep_journalDoesNotDependOnParallelism() throws IOException {
+        List<String> expected = null;
+        for (int parallelism : new int[]{1, 2, 4}) {
+            Theater theater = createTheater();
+            long firstId = theater.getLocations().get(0).getCharacter(0).getId();
+            for (Location location : theater.getLocations()) {
+                location.forEachCharacter(c -> c.takeDamage((c.getId() - firstId) % 3 == 0 ? 95 : 50));
+            }
+            Thread stepping = Thread.currentThread();
+            List<String> deaths = new ArrayList<>();
+            theater.addListener(new TheaterListener() {
+                @Override
+                public void onCharacterAdded(Location location, Character character) {
+                }
+
+                @Override
+                public void onCharacterRemoved(Location location, Character character) {
+                }
+
+                @Override
+                public void onCharacterDied(Location location, Character character) {
+                    assertSame(stepping, Thread.currentThread());
+                    deaths.add(location.getName() + ":" + (character.getId() - firstId));
+                }
+            });
+            Path path = dir.resolve("parallelism" + parallelism + ".journal");
+            try (EventJournal journal = EventJournal.create(path)) {
+                theater.setJournal(journal);
+                theater.setParallelism(parallelism);
+                for (int turn = 0; turn < 10; turn++) {
+                    theater.simulationStep();
+                }
+                theater.setParallelism(1);
+            }
+
+            List<String> records = new ArrayList<>();
+            for (JournalRecord record : EventJournal.readAll(path)) {
+                long actor = record.type() == EventType.HERB_SPAWN ? 0 : record.actor() - firstId;
+                records.add(record.turn() + " " + record.type() + " " + record.location() + " " + actor);
+            }
+            assertFalse(deaths.isEmpty());
+            records.addAll(deaths);
+            if (expected == null) {
+                expected = records;
+            } else {
+                assertEquals(expected, records, "parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    void setParallelism_configuresPool() {
+        Theater theater = new Theater();
+        assertEquals(1, theater.getParallelism());
+
+        theater.setParallelism(3);
+        assertEquals(3, theater.getParallelism());
+
+        theater.setParallelism(1);
+        assertEquals(1, theater.getParallelism());
+        assertThrows(IllegalArgumentException.class, () -> theater.setParallelism(0));
+    }
+}
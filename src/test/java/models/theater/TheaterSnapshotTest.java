@@ -0,0 +1,68 @@
+package models.theater;
+
+import models.food.Food;
+import models.location.Battlefield;
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Blacksmith;
+import models.people.Character;
+import models.people.Legionary;
+import models.utils.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the in-memory snapshots of a theater
+ */
+class TheaterSnapshotTest {
+
+    @Test
+    void restore_rebuildsSameState() {
+        Theater theater = new Theater(new RandomSource(5L));
+        Location village = new Location("Village", 120.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        Battlefield battlefield = new Battlefield("Plaine", 80.0);
+        theater.addLocation(village);
+        theater.addLocation(battlefield);
+        Blacksmith gaul = new Blacksmith("Gaul", 'f', 1.6, 35, 0.7);
+        Legionary roman = new Legionary("Roman", 'm', 1.8, 30, 0.4);
+        village.addCharacter(gaul);
+        village.addCharacter(roman);
+        village.addFood(Food.WINE);
+        village.getMagicPotion().addToCurrentRecipes(Food.MISTLETOE);
+        village.setChefDeClan(roman);
+        for (int i = 0; i < 4; i++) {
+            theater.simulationStep();
+        }
+        roman.makeHungry();
+        theater.transferCharacterToBattlefield(gaul, village, battlefield);
+        gaul.takeDamage(30);
+
+        TheaterSnapshot snapshot = TheaterSnapshot.capture(theater);
+        Theater restored = snapshot.restore(new RandomSource(5L));
+
+        assertEquals(snapshot, TheaterSnapshot.capture(restored));
+        Battlefield restoredBattlefield = restored.getBattlefields().get(0);
+        Character restoredGaul = restoredBattlefield.getCharacter(0);
+        assertNotSame(gaul, restoredGaul);
+        assertEquals(70, restoredGaul.getHealth());
+        assertSame(restored.getLocationByName("Village"), restoredBattlefield.getCharacterOrigin(restoredGaul));
+        assertEquals(2, restored.getLocationByName("Village").getHealingHerbs());
+        assertFalse(restored.getLocationByName("Village").getMagicPotion().getMissingIngredient().contains(Food.MISTLETOE));
+    }
+
+    @Test
+    void restore_kettlesAreIndependent() {
+        Theater theater = new Theater(new RandomSource(1L));
+        Location village = new Location("Village", 100.0, LocationType.GAUL_TOWN);
+        theater.addLocation(village);
+        village.getMagicPotion().addToCurrentRecipes(Food.SALT);
+
+        Location other = TheaterSnapshot.capture(theater).restore(new RandomSource(1L)).getLocations().get(0);
+        other.getMagicPotion().addToCurrentRecipes(Food.CARROT);
+
+        assertTrue(village.getMagicPotion().getMissingIngredient().contains(Food.CARROT));
+        assertTrue(new Location("New", 10.0, LocationType.GAUL_TOWN).getMagicPotion().getMissingIngredient()
+                .contains(Food.SALT));
+    }
+}
@@ -0,0 +1,114 @@
+package models.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the weight-bounded LRU cache
+ */
+class BoundedLruCacheTest {
+
+    private final BoundedLruCache<String, byte[]> cache = new BoundedLruCache<>(100, value -> value.length);
+
+    @Test
+    void get_countsHitsAndMisses() {
+        cache.put("a", new byte[10]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+
+        BoundedLruCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedUntilWeightFits() {
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        cache.get("a"); // b devient le moins récent
+
+        cache.put("c", new byte[40]);
+
+        assertEquals(List.of("a", "c"), cache.keys());
+        assertEquals(80, cache.weight());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void put_replacingKey_updatesWeight() {
+        cache.put("a", new byte[40]);
+        cache.put("a", new byte[10]);
+
+        assertEquals(10, cache.weight());
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.stats().evictions());
+    }
+
+    @Test
+    void put_valueHeavierThanCache_isNotKept() {
+        cache.put("a", new byte[40]);
+
+        assertFalse(cache.put("huge", new byte[101]));
+
+        assertNull(cache.get("huge"));
+        assertNotNull(cache.get("a"));
+    }
+
+    @Test
+    void removeAndClear_releaseWeight() {
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[20]);
+
+        assertNotNull(cache.remove("a"));
+        assertEquals(20, cache.weight());
+        cache.clear();
+        assertEquals(0, cache.weight());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void concurrentUse_keepsWeightWithinBound() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String key = "k" + (i * 7 + thread) % 50;
+                        if (cache.get(key) == null) {
+                            cache.put(key, new byte[1 + i % 30]);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(cache.weight() <= 100);
+        BoundedLruCache.Stats stats = cache.stats();
+        assertEquals(8000, stats.hits() + stats.misses());
+    }
+
+    @Test
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLruCache<String, byte[]>(0, v -> 1));
+        assertThrows(NullPointerException.class, () -> cache.put("a", null));
+        BoundedLruCache<String, Integer> negative = new BoundedLruCache<>(10, v -> v);
+        assertThrows(IllegalArgumentException.class, () -> negative.put("a", -1));
+    }
+}
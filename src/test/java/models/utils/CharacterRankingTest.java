@@ -0,0 +1,100 @@
+package models.utils;
+
+import models.location.Location;
+import models.location.LocationType;
+import models.people.Character;
+import models.people.Legionary;
+import models.people.Merchant;
+import models.theater.Theater;
+import models.utils.CharacterSorter.Key;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the top-K queries of CharacterRanking
+ */
+class CharacterRankingTest {
+
+    private Theater theater;
+    private Location village;
+    private Location camp;
+
+    @BeforeEach
+    void setUp() {
+        theater = new Theater();
+        village = new Location("Village", 100.0, LocationType.GAUL_ROMAIN_VILLAGE);
+        camp = new Location("Camp", 100.0, LocationType.ROMAIN_CAMP);
+        theater.addLocation(village);
+        theater.addLocation(camp);
+
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200; i++) {
+            Character c = i % 2 == 0
+                    ? new Merchant("M" + i, 'm', 1.7, 18 + random.nextInt(40), random.nextInt(20) / 20.0)
+                    : new Legionary("L" + i, 'm', 1.8, 18 + random.nextInt(40), random.nextInt(20) / 20.0);
+            c.takeDamage(random.nextInt(80));
+            (i % 3 == 0 ? camp : village).addCharacter(c);
+        }
+        camp.removeCharactersIf(c -> !(c instanceof Legionary));
+    }
+
+    private static List<Character> sortedPrefix(List<Character> characters, Key key, int k, boolean bottom) {
+        List<Character> sorted = new ArrayList<>(characters);
+        sorted.sort(bottom ? key.comparator().reversed() : key.comparator()); // Stable: ties keep roster order
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    @Test
+    void top_matchesFullSortPrefix() {
+        for (Key key : new Key[] {Key.STRENGTH, Key.HEALTH, Key.AGE, Key.POTION_LEVEL}) {
+            for (int k : new int[] {0, 1, 7, 500}) {
+                assertEquals(sortedPrefix(village.getCharacters(), key, k, false),
+                        CharacterRanking.top(village, key, k), key + " top " + k);
+                assertEquals(sortedPrefix(village.getCharacters(), key, k, true),
+                        CharacterRanking.bottom(village, key, k), key + " bottom " + k);
+            }
+        }
+    }
+
+    @Test
+    void theater_ranksAcrossLocations() {
+        List<Character> everyone = new ArrayList<>(village.getCharacters());
+        everyone.addAll(camp.getCharacters());
+
+        assertEquals(sortedPrefix(everyone, Key.STRENGTH, 10, false), CharacterRanking.top(theater, Key.STRENGTH, 10));
+        assertEquals(sortedPrefix(everyone, Key.HEALTH, 5, true), CharacterRanking.mostWounded(theater, 5));
+    }
+
+    @Test
+    void hugeK_returnsWholeRosterWithoutAllocatingK() {
+        List<Character> everyone = new ArrayList<>(village.getCharacters());
+        everyone.addAll(camp.getCharacters());
+
+        assertEquals(sortedPrefix(everyone, Key.AGE, everyone.size(), false),
+                CharacterRanking.top(theater, Key.AGE, Integer.MAX_VALUE));
+        assertEquals(village.getCharactersNbr(), CharacterRanking.bottom(village, Key.HEALTH, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void shortcuts_followTheirKeys() {
+        List<Character> strongest = CharacterRanking.strongest(village, 3);
+        List<Character> weakest = CharacterRanking.weakest(village, 3);
+        assertTrue(strongest.get(0).getStrength() >= strongest.get(2).getStrength());
+        assertTrue(weakest.get(0).getStrength() <= weakest.get(2).getStrength());
+        assertTrue(weakest.get(2).getStrength() <= strongest.get(2).getStrength());
+        List<Character> wounded = CharacterRanking.mostWounded(village, 4);
+        assertTrue(wounded.get(0).getHealth() <= wounded.get(3).getHealth());
+    }
+
+    @Test
+    void invalidArguments_throwException() {
+        assertThrows(IllegalArgumentException.class, () -> CharacterRanking.top(village, Key.NAME, 3));
+        assertThrows(IllegalArgumentException.class, () -> CharacterRanking.top(village, Key.AGE, -1));
+    }
+}
@@ -0,0 +1,108 @@
+package models.utils;
+
+import models.people.Character;
+import models.people.Legionary;
+import models.people.Merchant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sort service of CharacterSorter
+ */
+class CharacterSorterTest {
+
+    @AfterEach
+    void tearDown() {
+        CharacterSorter.setEducational(false);
+    }
+
+    private static List<Character> randomCharacters(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Character> characters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Character c = i % 2 == 0
+                    ? new Merchant("M" + random.nextInt(size), 'm', 1.7, 18 + random.nextInt(60), random.nextInt(10) / 10.0)
+                    : new Legionary("L" + random.nextInt(size), 'f', 1.8, 18 + random.nextInt(60), random.nextInt(10) / 10.0);
+            c.takeDamage(random.nextInt(50));
+            characters.add(c);
+        }
+        return characters;
+    }
+
+    private static List<Character> expected(List<Character> characters, CharacterSorter.Key... keys) {
+        List<Character> sorted = new ArrayList<>(characters);
+        sorted.sort(CharacterSorter.comparing(keys)); // List.sort is stable
+        return sorted;
+    }
+
+    @Test
+    void sortBy_everyKey_matchesStableComparatorSort() {
+        List<Character> characters = randomCharacters(500, 1);
+        for (CharacterSorter.Key key : CharacterSorter.Key.values()) {
+            assertEquals(expected(characters, key), CharacterSorter.sortBy(characters, key), key.name());
+        }
+    }
+
+    @Test
+    void sortBy_largeRoster_usesParallelPathWithSameOrder() {
+        List<Character> characters = randomCharacters(CharacterSorter.PARALLEL_THRESHOLD * 2, 2);
+        assertEquals(expected(characters, CharacterSorter.Key.STRENGTH),
+                CharacterSorter.sortByStrength(characters));
+        assertEquals(expected(characters, CharacterSorter.Key.AGE), CharacterSorter.sortByAge(characters));
+        assertEquals(expected(characters, CharacterSorter.Key.NAME), CharacterSorter.sortByName(characters));
+    }
+
+    @Test
+    void sortBy_multipleKeys_breaksTies() {
+        List<Character> characters = randomCharacters(300, 3);
+        CharacterSorter.Key[] keys = {CharacterSorter.Key.AGE, CharacterSorter.Key.STRENGTH, CharacterSorter.Key.NAME};
+        List<Character> sorted = CharacterSorter.sortBy(characters, keys);
+
+        assertEquals(expected(characters, keys), sorted);
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).getAge() <= sorted.get(i).getAge());
+        }
+    }
+
+    @Test
+    void sortByStrength_sortedInput_doesNotDegrade() {
+        List<Character> characters = CharacterSorter.sortByStrength(randomCharacters(100_000, 4));
+        assertEquals(characters, CharacterSorter.sortByStrength(characters));
+    }
+
+    @Test
+    void educational_sameOrderOfKeys() {
+        List<Character> characters = randomCharacters(200, 5);
+        List<Character> fast = CharacterSorter.sortByAge(characters);
+
+        CharacterSorter.setEducational(true);
+        assertTrue(CharacterSorter.isEducational());
+        List<Character> educational = CharacterSorter.sortByAge(characters);
+
+        assertEquals(fast, educational); // Bubble Sort is stable as well
+        assertEquals(CharacterSorter.sortByStrength(characters).stream().map(Character::getStrength).toList(),
+                expected(characters, CharacterSorter.Key.STRENGTH).stream().map(Character::getStrength).toList());
+    }
+
+    @Test
+    void order_returnsPermutation() {
+        List<Character> characters = randomCharacters(50, 6);
+        int[] order = CharacterSorter.order(characters, CharacterSorter.Key.HEALTH);
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(characters.get(order[i - 1]).getHealth() >= characters.get(order[i]).getHealth());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> CharacterSorter.order(characters, CharacterSorter.Key.NAME));
+    }
+
+    @Test
+    void comparing_noKey_throwsException() {
+        assertThrows(IllegalArgumentException.class, CharacterSorter::comparing);
+    }
+}
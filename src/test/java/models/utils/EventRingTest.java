@@ -0,0 +1,110 @@
+package models.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free event ring
+ */
+class EventRingTest {
+
+    @Test
+    void capacity_isRoundedToPowerOfTwo() {
+        assertEquals(128, new EventRing<String>(100).capacity());
+        assertEquals(1, new EventRing<String>(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new EventRing<String>(0));
+    }
+
+    @Test
+    void drain_readsNewEventsOnce() {
+        EventRing<String> ring = new EventRing<>(8);
+        ring.publish("a");
+        ring.publish("b");
+
+        List<String> read = new ArrayList<>();
+        long cursor = ring.drain(0, read::add);
+        assertEquals(List.of("a", "b"), read);
+        assertEquals(2, cursor);
+
+        ring.publish("c");
+        cursor = ring.drain(cursor, read::add);
+        assertEquals(List.of("a", "b", "c"), read);
+        assertEquals(cursor, ring.drain(cursor, read::add));
+    }
+
+    @Test
+    void drain_afterOverflow_keepsNewestEvents() {
+        EventRing<Integer> ring = new EventRing<>(4);
+        for (int i = 0; i < 10; i++) {
+            ring.publish(i);
+        }
+
+        List<Integer> read = new ArrayList<>();
+        assertEquals(10, ring.drain(0, read::add));
+        assertEquals(List.of(6, 7, 8, 9), read);
+    }
+
+    @Test
+    void publish_fromManyThreads_losesNothingWithinCapacity() throws InterruptedException {
+        EventRing<Integer> ring = new EventRing<>(40_000);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int base = t * 10_000;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ring.publish(base + i);
+                }
+            });
+            writers[t].start();
+        }
+
+        Set<Integer> read = new HashSet<>();
+        long cursor = 0;
+        while (cursor < 40_000) {
+            cursor = ring.drain(cursor, read::add);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(40_000, read.size());
+    }
+
+    @Test
+    void publish_producersLapsApart_drainNeverStalls() throws InterruptedException {
+        EventRing<Integer> ring = new EventRing<>(4);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int base = t * 100_000;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    ring.publish(base + i);
+                }
+            });
+            writers[t].start();
+        }
+
+        // Chaque écrivain publie dans l'ordre : le lecteur ne doit jamais voir un événement plus ancien après un récent
+        int[] lastRead = {-1, -1, -1, -1};
+        long cursor = 0;
+        while (cursor < 400_000) {
+            cursor = ring.drain(cursor, value -> {
+                int writer = value / 100_000;
+                assertTrue(value > lastRead[writer]);
+                lastRead[writer] = value;
+            });
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<Integer> newest = new ArrayList<>();
+        assertEquals(ring.getPublished(), ring.drain(0, newest::add));
+        assertEquals(ring.capacity(), newest.size());
+    }
+}
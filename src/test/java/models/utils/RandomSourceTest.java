@@ -0,0 +1,55 @@
+package models.utils;
+
+import models.location.Battlefield;
+import models.people.Legionary;
+import models.people.Merchant;
+import models.theater.Theater;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the seeded random source
+ */
+class RandomSourceTest {
+
+    @Test
+    void split_sameSeed_sameSequences() {
+        RandomSource first = new RandomSource(1234L);
+        RandomSource second = new RandomSource(1234L);
+
+        for (int i = 0; i < 3; i++) {
+            SplittableRandom a = first.split();
+            SplittableRandom b = second.split();
+            for (int j = 0; j < 10; j++) {
+                assertEquals(a.nextLong(), b.nextLong());
+            }
+        }
+        assertEquals(1234L, first.getSeed());
+    }
+
+    @Test
+    void battle_sameSeed_sameSurvivors() {
+        assertEquals(runBattle(99L), runBattle(99L));
+    }
+
+    private static List<String> runBattle(long seed) {
+        Theater theater = new Theater(new RandomSource(seed));
+        Battlefield battlefield = new Battlefield("Battlefield", 100.0);
+        theater.addLocation(battlefield);
+        for (int i = 0; i < 30; i++) {
+            battlefield.addCharacter(new Merchant("Merchant" + i, 'm', 1.7, 30, 0.5));
+            battlefield.addCharacter(new Legionary("Legionary" + i, 'm', 1.8, 25, 0.5));
+        }
+
+        battlefield.startBattle();
+
+        List<String> survivors = new ArrayList<>();
+        battlefield.forEachCharacter(c -> survivors.add(c.getName() + ":" + c.getHealth()));
+        return survivors;
+    }
+}
@@ -0,0 +1,97 @@
+package models.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the uniform spatial grid
+ */
+class SpatialGridTest {
+
+    @Test
+    void nearest_findsClosestWithinDistance() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10);
+        grid.add("a", 0, 0);
+        grid.add("b", 25, 0);
+        grid.add("c", -3, -4);
+
+        assertEquals("c", grid.nearest(-2, -3, 5));
+        assertEquals("b", grid.nearest(20, 1, 10));
+        assertNull(grid.nearest(12, 12, 5));
+        assertEquals(3, grid.size());
+    }
+
+    @Test
+    void nearest_matchesLinearScan() {
+        Random random = new Random(42);
+        SpatialGrid<Integer> grid = new SpatialGrid<>(50);
+        double[] xs = new double[2000], ys = new double[2000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = random.nextDouble() * 4000 - 2000;
+            ys[i] = random.nextDouble() * 4000 - 2000;
+            grid.add(i, xs[i], ys[i]);
+        }
+
+        for (int q = 0; q < 500; q++) {
+            double x = random.nextDouble() * 4400 - 2200, y = random.nextDouble() * 4400 - 2200;
+            Integer expected = null;
+            double best = 40 * 40;
+            for (int i = 0; i < xs.length; i++) {
+                double distance = (xs[i] - x) * (xs[i] - x) + (ys[i] - y) * (ys[i] - y);
+                if (distance <= best) {
+                    best = distance;
+                    expected = i;
+                }
+            }
+            assertEquals(expected, grid.nearest(x, y, 40));
+        }
+    }
+
+    @Test
+    void forEachIn_visitsItemsInsideRectangleOnly() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(7);
+        for (int x = -20; x <= 20; x++) {
+            for (int y = -20; y <= 20; y++) {
+                grid.add((x + 20) * 100 + (y + 20), x, y);
+            }
+        }
+
+        Set<Integer> found = new HashSet<>();
+        grid.forEachIn(-2, 3, 1, 5, found::add);
+        assertEquals(4 * 3, found.size());
+        assertTrue(found.contains((-2 + 20) * 100 + (3 + 20)));
+
+        // Rectangle couvrant bien plus que la grille
+        List<Integer> all = new ArrayList<>();
+        grid.forEachIn(-1e9, -1e9, 1e9, 1e9, all::add);
+        assertEquals(41 * 41, all.size());
+
+        found.clear();
+        grid.forEachIn(5, 5, 1, 1, found::add);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void clear_removesEverything() {
+        SpatialGrid<String> grid = new SpatialGrid<>(1);
+        grid.add("a", 0.5, 0.5);
+        grid.clear();
+
+        assertEquals(0, grid.size());
+        assertNull(grid.nearest(0.5, 0.5, 1));
+    }
+
+    @Test
+    void invalidCellSize_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialGrid<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new SpatialGrid<String>(Double.NaN));
+        assertThrows(NullPointerException.class, () -> new SpatialGrid<String>(1).add(null, 0, 0));
+    }
+}